@@ -0,0 +1,86 @@
+package one.digitalinnovation.beerstockapi.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import one.digitalinnovation.beerstockapi.config.VirtualThreadConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Benchmark da API HTTP em cada modo de execução, com clientes concorrentes.
+ *
+ * <p>O modo de amostragem reporta os percentis de latência (p50, p99, ...) e a vazão é obtida
+ * pelo número de amostras por segundo. Por padrão só o modo {@code platform} é medido: o modo
+ * {@code virtual} ativa o perfil {@value VirtualThreadConfig#PROFILE}, exige Java 21 ou superior
+ * e é incluído com {@code -p mode=platform,virtual}. A concorrência pode ser alterada com
+ * {@code -t} e o pool do Tomcat do modo {@code platform} com {@code -p maxThreads=...}.
+ *
+ * @author Marcelo dos Santos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(64)
+public class BeerHttpBenchmark {
+
+  private static final int ROWS = 1_000;
+  private static final String BEERS_PATH = "/api/v1/beers/";
+
+  @Param({"platform"})
+  private String mode;
+
+  @Param({"200"})
+  private int maxThreads;
+
+  private ConfigurableApplicationContext context;
+  private HttpClient httpClient;
+  private String baseUrl;
+
+  @Setup
+  public void setUp() {
+    context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                                         "server.port=0",
+                                         "server.tomcat.threads.max=" + maxThreads,
+                                         "spring.profiles.active=" + profile(),
+                                         "beerstock.execution.mode=" + mode,
+                                         "beerstock.rate-limit.enabled=false");
+    BenchmarkApplication.seed(context, ROWS);
+    int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+    baseUrl = "http://localhost:" + port + BEERS_PATH;
+    httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  }
+
+  private String profile() {
+    return "virtual".equals(mode) ? VirtualThreadConfig.PROFILE : "default";
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public int findByName() throws IOException, InterruptedException {
+    String name = BenchmarkApplication.beerName(ThreadLocalRandom.current().nextInt(ROWS));
+    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + name.replace(" ", "%20")))
+        .GET()
+        .build();
+    return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+  }
+}
@@ -0,0 +1,85 @@
+package one.digitalinnovation.beerstockapi.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.BeerPageDto;
+import one.digitalinnovation.beerstockapi.listing.BeerJsonRowWriter;
+import one.digitalinnovation.beerstockapi.service.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Benchmark das listagens do {@link BeerService} em catálogos de tamanhos diferentes.
+ *
+ * <p>Os benchmarks {@code serialize*} escrevem a listagem completa em JSON; com {@code -prof gc},
+ * o {@code gc.alloc.rate.norm} dividido por {@code rows} é a alocação por linha de cada caminho.
+ *
+ * @author Marcelo dos Santos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(jvmArgsAppend = "-Xmx4g")
+public class BeerListingBenchmark {
+
+  private static final int PAGE_SIZE = 100;
+
+  @Param({"1000", "100000", "1000000"})
+  private int rows;
+
+  private ConfigurableApplicationContext context;
+  private BeerService beerService;
+  private ObjectMapper objectMapper;
+
+  @Setup
+  public void setUp() {
+    context = BenchmarkApplication.start();
+    beerService = context.getBean(BeerService.class);
+    objectMapper = context.getBean(ObjectMapper.class);
+    BenchmarkApplication.seed(context, rows);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<BeerDto> listAll() {
+    return beerService.listAll();
+  }
+
+  @Benchmark
+  public BeerPageDto listFirstPage() {
+    return beerService.listPage(null, PAGE_SIZE, null, null);
+  }
+
+  @Benchmark
+  public void serializeListAll() throws IOException {
+    objectMapper.writeValue(OutputStream.nullOutputStream(), beerService.listAll());
+  }
+
+  @Benchmark
+  public void serializeWriteAll() throws IOException {
+    try (JsonGenerator generator =
+             objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+      generator.writeStartArray();
+      beerService.writeAll(null, null, BeerJsonRowWriter.elements(generator));
+      generator.writeEndArray();
+    }
+  }
+}
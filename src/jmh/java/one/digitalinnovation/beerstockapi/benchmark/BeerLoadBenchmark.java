@@ -0,0 +1,211 @@
+package one.digitalinnovation.beerstockapi.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Teste de carga da API HTTP com misturas de operações semelhantes às de produção.
+ *
+ * <p>Cada grupo é um cenário, e o número de threads de cada operação define a sua proporção no
+ * tráfego:
+ * <ul>
+ *   <li>{@code storefront}: consultas por nome e páginas da listagem, com poucas alterações
+ *   de estoque e cadastros (14 / 3 / 1 / 1 / 1 de 20 threads);</li>
+ *   <li>{@code restock}: entradas e saídas de estoque, com cadastros e consultas (4 / 1 / 6 / 6 /
+ *   3 de 20 threads).</li>
+ * </ul>
+ *
+ * <p>O parâmetro {@code keys} escolhe as Beers acessadas: {@code uniform} ou {@code zipf}, em
+ * que poucas Beers concentram a maior parte dos acessos, conforme {@code zipfExponent}. A vazão
+ * (ops/s) e os percentis de latência (p50, p99, ...) são reportados por operação e pelo grupo.
+ * As respostas são contadas por status HTTP ao fim de cada execução: as recusas por estoque
+ * insuficiente ou excedido (400) fazem parte do tráfego, mas erros do servidor (5xx) não.
+ *
+ * <p>Os clientes aguardam cada resposta antes da próxima requisição, de modo que a carga
+ * oferecida cai quando a latência sobe; para um nível de carga diferente altere o número de
+ * threads com {@code -tg}.
+ *
+ * @author Marcelo dos Santos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BeerLoadBenchmark {
+
+  private static final String BEERS_PATH = "/api/v1/beers/";
+  private static final int PAGE_SIZE = 20;
+  private static final int STOCK_DELTA = 1;
+
+  @Param({"10000"})
+  private int rows;
+
+  @Param({KeyDistribution.UNIFORM, KeyDistribution.ZIPF})
+  private String keys;
+
+  @Param({"1.1"})
+  private double zipfExponent;
+
+  private ConfigurableApplicationContext context;
+  private HttpClient httpClient;
+  private String baseUrl;
+  private List<Long> ids;
+  private KeyDistribution keyDistribution;
+  private final AtomicLong createdBeers = new AtomicLong();
+  private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+
+  @Setup
+  public void setUp() {
+    context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                                         "server.port=0",
+                                         "beerstock.rate-limit.enabled=false");
+    ids = BenchmarkApplication.seed(context, rows);
+    keyDistribution = KeyDistribution.of(keys, rows, zipfExponent);
+    int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+    baseUrl = "http://localhost:" + port + BEERS_PATH;
+    httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    System.out.println("HTTP status counts: " + new TreeMap<>(statusCounts));
+    context.close();
+    long serverErrors = statusCounts.entrySet().stream()
+                                    .filter(statusCount -> statusCount.getKey() >= 500)
+                                    .mapToLong(statusCount -> statusCount.getValue().sum())
+                                    .sum();
+    if (serverErrors > 0) {
+      throw new IllegalStateException(serverErrors + " requests failed with a server error");
+    }
+  }
+
+  @Benchmark
+  @Group("storefront")
+  @GroupThreads(14)
+  public int storefrontFindByName() throws IOException, InterruptedException {
+    return findByName();
+  }
+
+  @Benchmark
+  @Group("storefront")
+  @GroupThreads(3)
+  public int storefrontListPage() throws IOException, InterruptedException {
+    return listPage();
+  }
+
+  @Benchmark
+  @Group("storefront")
+  @GroupThreads(1)
+  public int storefrontIncrement() throws IOException, InterruptedException {
+    return changeStock("increment");
+  }
+
+  @Benchmark
+  @Group("storefront")
+  @GroupThreads(1)
+  public int storefrontDecrement() throws IOException, InterruptedException {
+    return changeStock("decrement");
+  }
+
+  @Benchmark
+  @Group("storefront")
+  @GroupThreads(1)
+  public int storefrontCreate() throws IOException, InterruptedException {
+    return create();
+  }
+
+  @Benchmark
+  @Group("restock")
+  @GroupThreads(4)
+  public int restockFindByName() throws IOException, InterruptedException {
+    return findByName();
+  }
+
+  @Benchmark
+  @Group("restock")
+  @GroupThreads(1)
+  public int restockListPage() throws IOException, InterruptedException {
+    return listPage();
+  }
+
+  @Benchmark
+  @Group("restock")
+  @GroupThreads(6)
+  public int restockIncrement() throws IOException, InterruptedException {
+    return changeStock("increment");
+  }
+
+  @Benchmark
+  @Group("restock")
+  @GroupThreads(6)
+  public int restockDecrement() throws IOException, InterruptedException {
+    return changeStock("decrement");
+  }
+
+  @Benchmark
+  @Group("restock")
+  @GroupThreads(3)
+  public int restockCreate() throws IOException, InterruptedException {
+    return create();
+  }
+
+  private int findByName() throws IOException, InterruptedException {
+    String name = BenchmarkApplication.beerName(keyDistribution.next());
+    return send(HttpRequest.newBuilder(URI.create(baseUrl + name.replace(" ", "%20"))).GET());
+  }
+
+  private int listPage() throws IOException, InterruptedException {
+    long after = ids.get(keyDistribution.next());
+    return send(HttpRequest.newBuilder(
+        URI.create(baseUrl + "?limit=" + PAGE_SIZE + "&after=" + after)).GET());
+  }
+
+  private int changeStock(String operation) throws IOException, InterruptedException {
+    long id = ids.get(keyDistribution.next());
+    return send(json(baseUrl + id + "/" + operation, "PATCH",
+                     "{\"quantity\":" + STOCK_DELTA + "}"));
+  }
+
+  private int create() throws IOException, InterruptedException {
+    long index = createdBeers.incrementAndGet();
+    String body = "{\"name\":\"Load " + index + "\",\"brand\":\"Brand " + (index % 100)
+                  + "\",\"max\":500,\"quantity\":100,\"type\":\"LAGER\"}";
+    return send(json(baseUrl, "POST", body));
+  }
+
+  private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+    int status = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding())
+                           .statusCode();
+    statusCounts.computeIfAbsent(status, s -> new LongAdder()).increment();
+    return status;
+  }
+
+  private static HttpRequest.Builder json(String url, String method, String body) {
+    return HttpRequest.newBuilder(URI.create(url))
+                      .header("Content-Type", "application/json")
+                      .method(method, HttpRequest.BodyPublishers.ofString(body));
+  }
+}
@@ -0,0 +1,46 @@
+package one.digitalinnovation.beerstockapi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import one.digitalinnovation.beerstockapi.mapper.BeerMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark do mapeamento entre {@link Beer} e {@link BeerDto}.
+ *
+ * @author Marcelo dos Santos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BeerMapperBenchmark {
+
+  private static final BeerMapper BEER_MAPPER = BeerMapper.INSTANCE;
+
+  private Beer beer;
+  private BeerDto beerDto;
+
+  @Setup
+  public void setUp() {
+    beer = new Beer(1L, "Brahma", "brahma", "Ambev", 50, 10, BeerType.LAGER, null, 0L);
+    beerDto = BEER_MAPPER.toDto(beer);
+  }
+
+  @Benchmark
+  public BeerDto toDto() {
+    return BEER_MAPPER.toDto(beer);
+  }
+
+  @Benchmark
+  public Beer toModel() {
+    return BEER_MAPPER.toModel(beerDto);
+  }
+}
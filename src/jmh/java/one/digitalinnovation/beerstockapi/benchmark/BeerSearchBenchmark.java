@@ -0,0 +1,91 @@
+package one.digitalinnovation.beerstockapi.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import one.digitalinnovation.beerstockapi.search.BeerSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark das buscas no {@link BeerSearchIndex}, sem o banco, com catálogos de nomes e marcas
+ * formados por palavras sorteadas de um vocabulário.
+ *
+ * @author Marcelo dos Santos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeerSearchBenchmark {
+
+  private static final int LIMIT = 10;
+  private static final int VOCABULARY_SIZE = 5_000;
+  private static final int BRANDS = 500;
+
+  @Param({"10000", "100000"})
+  private int beers;
+
+  private BeerSearchIndex beerSearchIndex;
+  private String[] vocabulary;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    vocabulary = new String[VOCABULARY_SIZE];
+    for (int i = 0; i < VOCABULARY_SIZE; i++) {
+      vocabulary[i] = word(random);
+    }
+    beerSearchIndex = new BeerSearchIndex(null, new BeerStockProperties());
+    for (long id = 1; id <= beers; id++) {
+      String name = vocabulary[random.nextInt(VOCABULARY_SIZE)] + " "
+                    + vocabulary[random.nextInt(VOCABULARY_SIZE)] + " " + id;
+      String brand = vocabulary[random.nextInt(BRANDS)];
+      BeerDto beerDto = new BeerDto(id, name, brand, 50, 10, BeerType.LAGER, null, null);
+      beerSearchIndex.onBeerEvent(new BeerEvent(BeerEventType.CREATED, beerDto));
+    }
+  }
+
+  @Benchmark
+  public List<Long> prefix() {
+    return beerSearchIndex.search(nextWord().substring(0, 3), LIMIT);
+  }
+
+  @Benchmark
+  public List<Long> exactTwoWords() {
+    return beerSearchIndex.search(nextWord() + " " + nextWord(), LIMIT);
+  }
+
+  @Benchmark
+  public List<Long> typo() {
+    char[] word = nextWord().toCharArray();
+    char swapped = word[1];
+    word[1] = word[2];
+    word[2] = swapped;
+    return beerSearchIndex.search(new String(word), LIMIT);
+  }
+
+  private String nextWord() {
+    next = (next + 1) % VOCABULARY_SIZE;
+    return vocabulary[next];
+  }
+
+  private static String word(Random random) {
+    char[] letters = new char[5 + random.nextInt(5)];
+    for (int i = 0; i < letters.length; i++) {
+      letters[i] = (char) ('a' + random.nextInt(26));
+    }
+    return new String(letters);
+  }
+}
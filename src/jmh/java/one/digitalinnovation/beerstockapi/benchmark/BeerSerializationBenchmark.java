@@ -0,0 +1,82 @@
+package one.digitalinnovation.beerstockapi.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark da serialização Jackson de listas de {@link BeerDto} em JSON, CBOR e Smile. O tamanho
+ * de cada representação é impresso no início de cada trial.
+ *
+ * @author Marcelo dos Santos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeerSerializationBenchmark {
+
+  @Param({"1", "100", "10000"})
+  private int size;
+
+  @Param({"json", "cbor", "smile"})
+  private String format;
+
+  private ObjectMapper objectMapper;
+  private List<BeerDto> beers;
+  private byte[] payload;
+
+  @Setup
+  public void setUp() throws JsonProcessingException {
+    objectMapper = objectMapperOf(format);
+    beers = IntStream.range(0, size)
+                     .mapToObj(i -> new BeerDto((long) i, BenchmarkApplication.beerName(i),
+                                                "Ambev", 50, 10, BeerType.LAGER, null, 0L))
+                     .collect(Collectors.toList());
+    payload = objectMapper.writeValueAsBytes(beers);
+    System.out.printf("%n%s payload with %d beers: %d bytes%n", format, size, payload.length);
+  }
+
+  @Benchmark
+  public byte[] serialize() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(beers);
+  }
+
+  @Benchmark
+  public BeerDto[] deserialize() throws IOException {
+    return objectMapper.readValue(payload, BeerDto[].class);
+  }
+
+  /**
+   * @return o mapper com a mesma fábrica dos conversores HTTP da aplicação
+   */
+  private static ObjectMapper objectMapperOf(String format) {
+    switch (format) {
+      case "cbor":
+        return new ObjectMapper(new CBORFactory());
+      case "smile":
+        return new ObjectMapper(
+            SmileFactory.builder()
+                        .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                        .build());
+      default:
+        return new ObjectMapper();
+    }
+  }
+}
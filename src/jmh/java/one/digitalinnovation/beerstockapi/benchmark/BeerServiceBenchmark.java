@@ -0,0 +1,71 @@
+package one.digitalinnovation.beerstockapi.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstockapi.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstockapi.service.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Benchmark das operações pontuais do {@link BeerService} contra o H2.
+ *
+ * <p>Com {@code cacheMaximumSize} igual a zero toda consulta por nome chega ao banco.
+ *
+ * @author Marcelo dos Santos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeerServiceBenchmark {
+
+  private static final int ROWS = 1_000;
+
+  @Param({"0", "10000"})
+  private int cacheMaximumSize;
+
+  private ConfigurableApplicationContext context;
+  private BeerService beerService;
+  private List<Long> ids;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    context = BenchmarkApplication.start("beerstock.cache.maximum-size=" + cacheMaximumSize);
+    beerService = context.getBean(BeerService.class);
+    ids = BenchmarkApplication.seed(context, ROWS);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public BeerDto findByName() throws BeerNotFoundException {
+    return beerService.findByName(BenchmarkApplication.beerName(nextIndex()));
+  }
+
+  @Benchmark
+  public BeerDto incrementAndDecrement()
+      throws BeerNotFoundException, BeerStockExceededException {
+    Long id = ids.get(nextIndex());
+    beerService.increment(id, 1);
+    return beerService.decrement(id, 1);
+  }
+
+  private int nextIndex() {
+    next = (next + 1) % ROWS;
+    return next;
+  }
+}
@@ -0,0 +1,65 @@
+package one.digitalinnovation.beerstockapi.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstockapi.BeerStockApplication;
+import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import one.digitalinnovation.beerstockapi.repository.BeerRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Inicialização da aplicação, por padrão sem camada web, com um banco H2 exclusivo por execução.
+ *
+ * @author Marcelo dos Santos
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class BenchmarkApplication {
+
+  private static final int SEED_CHUNK_SIZE = 1_000;
+  private static final BeerType[] BEER_TYPES = BeerType.values();
+
+  static ConfigurableApplicationContext start(String... properties) {
+    return start(WebApplicationType.NONE, properties);
+  }
+
+  static ConfigurableApplicationContext start(WebApplicationType webApplicationType,
+                                              String... properties) {
+    List<String> args = new ArrayList<>();
+    args.add("spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID()
+             + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+    args.add("spring.devtools.restart.enabled=false");
+    args.add("logging.level.root=WARN");
+    args.addAll(Arrays.asList(properties));
+    // Argumentos de linha de comando têm precedência sobre o application.properties.
+    return new SpringApplicationBuilder(BeerStockApplication.class)
+        .web(webApplicationType)
+        .run(args.stream().map(property -> "--" + property).toArray(String[]::new));
+  }
+
+  static List<Long> seed(ConfigurableApplicationContext context, int rows) {
+    BeerRepository beerRepository = context.getBean(BeerRepository.class);
+    List<Long> ids = new ArrayList<>(rows);
+    List<Beer> chunk = new ArrayList<>(SEED_CHUNK_SIZE);
+    for (int i = 0; i < rows; i++) {
+      chunk.add(new Beer(null, beerName(i), null, "Brand " + (i % 100), 500, 250,
+                         BEER_TYPES[i % BEER_TYPES.length], null, null));
+      if (chunk.size() == SEED_CHUNK_SIZE || i == rows - 1) {
+        beerRepository.insertAll(chunk);
+        chunk.forEach(beer -> ids.add(beer.getId()));
+        chunk = new ArrayList<>(SEED_CHUNK_SIZE);
+      }
+    }
+    return ids;
+  }
+
+  static String beerName(int index) {
+    return "Beer " + index;
+  }
+}
@@ -0,0 +1,74 @@
+package one.digitalinnovation.beerstockapi.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorteio das Beers acessadas em um teste de carga: uniforme ou com algumas Beers concentrando
+ * a maior parte dos acessos (Zipf).
+ *
+ * <p>As posições mais acessadas são distribuídas ao acaso entre as Beers, com semente fixa,
+ * para que as mais acessadas não sejam também as vizinhas no índice.
+ *
+ * @author Marcelo dos Santos
+ */
+final class KeyDistribution {
+
+  static final String UNIFORM = "uniform";
+  static final String ZIPF = "zipf";
+
+  private static final long SHUFFLE_SEED = 42L;
+
+  private final int[] indexByRank;
+  private final double[] cumulativeWeights;
+
+  private KeyDistribution(int size, double[] cumulativeWeights) {
+    List<Integer> indexes = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      indexes.add(i);
+    }
+    Collections.shuffle(indexes, new Random(SHUFFLE_SEED));
+    this.indexByRank = indexes.stream().mapToInt(Integer::intValue).toArray();
+    this.cumulativeWeights = cumulativeWeights;
+  }
+
+  /**
+   * @param name     {@link #UNIFORM} ou {@link #ZIPF}
+   * @param exponent expoente do Zipf: com 1.1, as 1% mais acessadas recebem cerca de metade dos
+   *                 acessos em 10.000 Beers
+   */
+  static KeyDistribution of(String name, int size, double exponent) {
+    if (UNIFORM.equals(name)) {
+      return new KeyDistribution(size, null);
+    }
+    if (!ZIPF.equals(name)) {
+      throw new IllegalArgumentException("Unknown key distribution: " + name);
+    }
+    double[] cumulativeWeights = new double[size];
+    double sum = 0;
+    for (int rank = 0; rank < size; rank++) {
+      sum += 1 / Math.pow(rank + 1, exponent);
+      cumulativeWeights[rank] = sum;
+    }
+    for (int rank = 0; rank < size; rank++) {
+      cumulativeWeights[rank] /= sum;
+    }
+    return new KeyDistribution(size, cumulativeWeights);
+  }
+
+  /**
+   * @return a posição sorteada, entre zero e o tamanho (exclusive)
+   */
+  int next() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    if (cumulativeWeights == null) {
+      return random.nextInt(indexByRank.length);
+    }
+    int rank = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+    return indexByRank[Math.min(rank < 0 ? -rank - 1 : rank, indexByRank.length - 1)];
+  }
+}
@@ -2,6 +2,7 @@ package one.digitalinnovation.beerstockapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * Início da aplicação.
@@ -9,6 +10,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @author Marcelo dos Santos
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class BeerStockApplication {
 
   public static void main(String[] args) {
@@ -0,0 +1,30 @@
+package one.digitalinnovation.beerstockapi.alert;
+
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstockapi.dto.LowStockAlertDto;
+import one.digitalinnovation.beerstockapi.enums.LowStockAlertType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registra os alertas de estoque baixo no log.
+ *
+ * @author Marcelo dos Santos
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "beerstock.alerts.log", name = "enabled", havingValue = "true",
+    matchIfMissing = true)
+public class LoggingLowStockAlertSink implements LowStockAlertSink {
+
+  @Override
+  public void send(LowStockAlertDto alert) {
+    if (alert.getType() == LowStockAlertType.LOW) {
+      log.warn("Low stock for beer {} ({}): {} at or below {}", alert.getBeerId(),
+               alert.getName(), alert.getQuantity(), alert.getLowStock());
+    } else {
+      log.info("Stock recovered for beer {} ({}): {} above {}", alert.getBeerId(),
+               alert.getName(), alert.getQuantity(), alert.getLowStock());
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package one.digitalinnovation.beerstockapi.alert;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.LowStockAlertDto;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.enums.LowStockAlertType;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Avalia o estoque baixo a cada {@link BeerEvent} confirmado, sem consultar o banco.
+ *
+ * <p>O limite de cada Beer é o seu {@code lowStock} ou, quando ausente, um percentual do
+ * {@code max}. Um alerta {@link LowStockAlertType#LOW} é enviado uma única vez quando a
+ * quantidade chega ao limite, e o {@link LowStockAlertType#RECOVERED} só quando ela volta a
+ * ficar {@code recoveryMargin} unidades acima dele, evitando alertas repetidos de uma quantidade
+ * que oscila em torno do limite. Como os eventos podem chegar fora de ordem, um evento com
+ * versão anterior à última vista para a Beer é ignorado. O estado fica em memória: após uma
+ * reinicialização, as Beers já abaixo do limite são alertadas na próxima alteração.
+ *
+ * @author Marcelo dos Santos
+ */
+@Slf4j
+@Component
+public class LowStockAlertEvaluator {
+
+  public static final String ALERTS_METRIC = "beerstock.alerts";
+
+  private final BeerStockProperties.Alerts properties;
+  private final List<LowStockAlertSink> sinks;
+  private final MeterRegistry meterRegistry;
+  private final Map<Long, AlertState> states = new ConcurrentHashMap<>();
+
+  @Autowired
+  public LowStockAlertEvaluator(BeerStockProperties properties,
+                                ObjectProvider<LowStockAlertSink> sinks,
+                                MeterRegistry meterRegistry) {
+    this(properties, sinks.orderedStream().collect(Collectors.toList()), meterRegistry);
+  }
+
+  LowStockAlertEvaluator(BeerStockProperties properties, List<LowStockAlertSink> sinks,
+                         MeterRegistry meterRegistry) {
+    this.properties = properties.getAlerts();
+    this.sinks = sinks;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBeerEvent(BeerEvent event) {
+    BeerDto beer = event.getBeer();
+    if (event.getType() == BeerEventType.DELETED) {
+      states.remove(beer.getId());
+      return;
+    }
+    int lowStock = lowStockOf(beer);
+    AtomicReference<LowStockAlertType> alert = new AtomicReference<>();
+    states.compute(beer.getId(), (id, state) -> {
+      if (state != null && state.isNewerThan(beer.getVersion())) {
+        return state;
+      }
+      boolean low = state != null && state.low;
+      if (beer.getQuantity() <= lowStock) {
+        if (!low) {
+          alert.set(LowStockAlertType.LOW);
+        }
+        low = true;
+      } else if (beer.getQuantity() >= recoveryLevelOf(beer, lowStock) && low) {
+        alert.set(LowStockAlertType.RECOVERED);
+        low = false;
+      }
+      return new AlertState(beer.getVersion(), low);
+    });
+    if (alert.get() != null) {
+      send(alert.get(), beer, lowStock);
+    }
+  }
+
+  private int lowStockOf(BeerDto beer) {
+    if (beer.getLowStock() != null) {
+      return beer.getLowStock();
+    }
+    return beer.getMax() * properties.getDefaultLowStockPercent() / 100;
+  }
+
+  /**
+   * Limitado ao {@code max}, para que uma Beer com limite próximo dele possa se recuperar.
+   */
+  private int recoveryLevelOf(BeerDto beer, int lowStock) {
+    return Math.min(lowStock + properties.getRecoveryMargin(), beer.getMax());
+  }
+
+  private void send(LowStockAlertType type, BeerDto beer, int lowStock) {
+    LowStockAlertDto alert = new LowStockAlertDto(type, beer.getId(), beer.getName(),
+                                                  beer.getQuantity(), lowStock, Instant.now());
+    meterRegistry.counter(ALERTS_METRIC, "type", type.name()).increment();
+    for (LowStockAlertSink sink : sinks) {
+      try {
+        sink.send(alert);
+      } catch (RuntimeException e) {
+        log.warn("Low stock alert sink {} failed for beer {}", sink.getClass().getSimpleName(),
+                 beer.getId(), e);
+      }
+    }
+  }
+
+  /**
+   * Última versão vista de uma Beer e se ela está abaixo do limite.
+   */
+  private static final class AlertState {
+
+    private final Long version;
+    private final boolean low;
+
+    private AlertState(Long version, boolean low) {
+      this.version = version;
+      this.low = low;
+    }
+
+    private boolean isNewerThan(Long otherVersion) {
+      return version != null && otherVersion != null && otherVersion < version;
+    }
+  }
+}
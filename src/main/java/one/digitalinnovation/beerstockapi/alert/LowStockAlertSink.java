@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstockapi.alert;
+
+import one.digitalinnovation.beerstockapi.dto.LowStockAlertDto;
+
+/**
+ * Destino dos alertas de estoque baixo. Cada bean que implementa esta interface recebe todos os
+ * alertas, na thread que confirmou a alteração de estoque; envios demorados devem ser
+ * assíncronos.
+ *
+ * @author Marcelo dos Santos
+ */
+public interface LowStockAlertSink {
+
+  void send(LowStockAlertDto alert);
+}
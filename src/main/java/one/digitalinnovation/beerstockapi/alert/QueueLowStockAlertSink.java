@@ -0,0 +1,43 @@
+package one.digitalinnovation.beerstockapi.alert;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.dto.LowStockAlertDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fila limitada em memória com os alertas de estoque baixo, para consumo por outros componentes
+ * da aplicação. Quando a fila está cheia, o alerta mais antigo é descartado.
+ *
+ * @author Marcelo dos Santos
+ */
+@Component
+@ConditionalOnProperty(prefix = "beerstock.alerts.queue", name = "enabled", havingValue = "true")
+public class QueueLowStockAlertSink implements LowStockAlertSink {
+
+  private final BlockingQueue<LowStockAlertDto> alerts;
+
+  public QueueLowStockAlertSink(BeerStockProperties properties) {
+    this.alerts = new ArrayBlockingQueue<>(properties.getAlerts().getQueue().getCapacity());
+  }
+
+  @Override
+  public void send(LowStockAlertDto alert) {
+    while (!alerts.offer(alert)) {
+      alerts.poll();
+    }
+  }
+
+  public LowStockAlertDto poll(Duration timeout) throws InterruptedException {
+    return alerts.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  public int drainTo(Collection<? super LowStockAlertDto> collection) {
+    return alerts.drainTo(collection);
+  }
+}
@@ -0,0 +1,68 @@
+package one.digitalinnovation.beerstockapi.alert;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.dto.LowStockAlertDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Envia cada alerta de estoque baixo em JSON, por POST assíncrono, para a URL configurada.
+ * Falhas são registradas no log e o alerta não é reenviado.
+ *
+ * @author Marcelo dos Santos
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "beerstock.alerts.webhook", name = "url")
+public class WebhookLowStockAlertSink implements LowStockAlertSink {
+
+  private final URI url;
+  private final Duration timeout;
+  private final ObjectMapper objectMapper;
+  private final HttpClient httpClient;
+
+  public WebhookLowStockAlertSink(BeerStockProperties properties, ObjectMapper objectMapper) {
+    BeerStockProperties.Alerts.Webhook webhook = properties.getAlerts().getWebhook();
+    this.url = webhook.getUrl();
+    this.timeout = webhook.getTimeout();
+    this.objectMapper = objectMapper;
+    this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+  }
+
+  @Override
+  public void send(LowStockAlertDto alert) {
+    HttpRequest request =
+        HttpRequest.newBuilder(url)
+                   .timeout(timeout)
+                   .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                   .POST(HttpRequest.BodyPublishers.ofByteArray(toJson(alert)))
+                   .build();
+    httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+              .whenComplete((response, error) -> {
+                if (error != null) {
+                  log.warn("Low stock webhook failed for beer {}", alert.getBeerId(), error);
+                } else if (response.statusCode() >= 300) {
+                  log.warn("Low stock webhook answered {} for beer {}", response.statusCode(),
+                           alert.getBeerId());
+                }
+              });
+  }
+
+  private byte[] toJson(LowStockAlertDto alert) {
+    try {
+      return objectMapper.writeValueAsBytes(alert);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
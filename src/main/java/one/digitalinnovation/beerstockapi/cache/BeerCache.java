@@ -0,0 +1,112 @@
+package one.digitalinnovation.beerstockapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache limitado de {@link BeerDto} pela chave do nome, {@link Beer#nameKeyOf(String)}, com
+ * índice secundário de id para chave, de modo que as variações de caixa de um nome usam a mesma
+ * entrada.
+ *
+ * <p>As entradas são atualizadas ou invalidadas pelos {@link BeerEvent} após o commit. Como as
+ * leituras e os eventos chegam em qualquer ordem, uma entrada só é substituída por uma versão
+ * igual ou mais nova da Beer. Os ids removidos ficam registrados durante a validade das
+ * entradas, para que uma leitura carregada antes da remoção não devolva a Beer ao cache.
+ *
+ * @author Marcelo dos Santos
+ */
+@Component
+public class BeerCache {
+
+  public static final String CACHE_NAME = "beers";
+
+  private final Cache<String, BeerDto> beersByName;
+  private final Map<Long, String> namesById = new ConcurrentHashMap<>();
+  private final Cache<Long, Boolean> deletedIds;
+
+  public BeerCache(BeerStockProperties properties, MeterRegistry meterRegistry) {
+    BeerStockProperties.Cache cacheProperties = properties.getCache();
+    beersByName = Caffeine.newBuilder()
+                          .maximumSize(cacheProperties.getMaximumSize())
+                          .expireAfterWrite(cacheProperties.getExpireAfterWrite())
+                          .executor(Runnable::run)
+                          .removalListener(this::removeFromIndex)
+                          .recordStats()
+                          .build();
+    deletedIds = Caffeine.newBuilder()
+                         .maximumSize(cacheProperties.getMaximumSize())
+                         .expireAfterWrite(cacheProperties.getExpireAfterWrite())
+                         .executor(Runnable::run)
+                         .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, beersByName, CACHE_NAME);
+  }
+
+  public Optional<BeerDto> get(String name) {
+    return Optional.ofNullable(beersByName.getIfPresent(Beer.nameKeyOf(name)));
+  }
+
+  public synchronized void put(BeerDto beerDto) {
+    if (deletedIds.getIfPresent(beerDto.getId()) != null) {
+      return;
+    }
+    String nameKey = Beer.nameKeyOf(beerDto.getName());
+    String previousNameKey = namesById.get(beerDto.getId());
+    if (previousNameKey != null) {
+      BeerDto cachedBeer = beersByName.asMap().get(previousNameKey);
+      if (cachedBeer != null && isOlder(beerDto, cachedBeer)) {
+        return;
+      }
+      if (!previousNameKey.equals(nameKey)) {
+        beersByName.invalidate(previousNameKey);
+      }
+    }
+    namesById.put(beerDto.getId(), nameKey);
+    beersByName.put(nameKey, beerDto);
+  }
+
+  public synchronized void evict(Long id) {
+    deletedIds.put(id, Boolean.TRUE);
+    String name = namesById.remove(id);
+    if (name != null) {
+      beersByName.invalidate(name);
+    }
+  }
+
+  /**
+   * Beers recém-criadas não são incluídas: entram no cache na primeira leitura, o que evita
+   * que importações em lote descartem as entradas mais acessadas.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBeerEvent(BeerEvent beerEvent) {
+    if (beerEvent.getType() == BeerEventType.DELETED) {
+      evict(beerEvent.getBeer().getId());
+    } else if (beerEvent.getType() == BeerEventType.STOCK_CHANGED
+               || beerEvent.getType() == BeerEventType.UPDATED) {
+      put(beerEvent.getBeer());
+    }
+  }
+
+  private static boolean isOlder(BeerDto beerDto, BeerDto cachedBeer) {
+    return beerDto.getVersion() != null && cachedBeer.getVersion() != null
+           && beerDto.getVersion() < cachedBeer.getVersion();
+  }
+
+  private void removeFromIndex(String name, BeerDto beerDto, RemovalCause cause) {
+    if (cause.wasEvicted() && beerDto != null) {
+      namesById.remove(beerDto.getId(), name);
+    }
+  }
+}
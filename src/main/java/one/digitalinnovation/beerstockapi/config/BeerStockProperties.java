@@ -0,0 +1,275 @@
+package one.digitalinnovation.beerstockapi.config;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Propriedades de configuração da aplicação, com o prefixo {@code beerstock}.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@ConfigurationProperties(prefix = "beerstock")
+public class BeerStockProperties {
+
+  private final Cache cache = new Cache();
+
+  private final Ledger ledger = new Ledger();
+
+  private final Execution execution = new Execution();
+
+  private final Retry retry = new Retry();
+
+  private final Changes changes = new Changes();
+
+  private final Alerts alerts = new Alerts();
+
+  private final Replication replication = new Replication();
+
+  private final Idempotency idempotency = new Idempotency();
+
+  private final RateLimit rateLimit = new RateLimit();
+
+  private final Movements movements = new Movements();
+
+  private final Search search = new Search();
+
+  private final Stats stats = new Stats();
+
+  private final Reservations reservations = new Reservations();
+
+  /**
+   * Propriedades do cache de Beer por nome.
+   */
+  @Data
+  public static class Cache {
+
+    private long maximumSize = 10_000;
+
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+  }
+
+  /**
+   * Propriedades do livro-razão de estoque em memória.
+   */
+  @Data
+  public static class Ledger {
+
+    private boolean enabled;
+
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    private Path journalDirectory = Paths.get("ledger");
+
+    private boolean fsync = true;
+  }
+
+  /**
+   * Propriedades do modelo de execução das requisições HTTP.
+   */
+  @Data
+  public static class Execution {
+
+    private Mode mode = Mode.PLATFORM;
+
+    /**
+     * Modelo de threads que atende as requisições.
+     */
+    public enum Mode {
+      PLATFORM,
+      VIRTUAL
+    }
+  }
+
+  /**
+   * Propriedades da nova tentativa em conflitos de concorrência.
+   */
+  @Data
+  public static class Retry {
+
+    private int maxAttempts = 3;
+
+    private Duration initialBackoff = Duration.ofMillis(10);
+
+    private Duration maxBackoff = Duration.ofMillis(100);
+  }
+
+  /**
+   * Propriedades do fluxo de alterações por Server-Sent Events.
+   */
+  @Data
+  public static class Changes {
+
+    private int replaySize = 1_000;
+
+    private int bufferSize = 256;
+
+    private int senderThreads = 4;
+
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    private Duration timeout = Duration.ofMinutes(30);
+  }
+
+  /**
+   * Propriedades dos alertas de estoque baixo.
+   */
+  @Data
+  public static class Alerts {
+
+    private int defaultLowStockPercent = 10;
+
+    private int recoveryMargin = 5;
+
+    private final Log log = new Log();
+
+    private final Queue queue = new Queue();
+
+    private final Webhook webhook = new Webhook();
+
+    /**
+     * Destino que registra os alertas no log.
+     */
+    @Data
+    public static class Log {
+
+      private boolean enabled = true;
+    }
+
+    /**
+     * Destino que guarda os alertas em uma fila em memória.
+     */
+    @Data
+    public static class Queue {
+
+      private boolean enabled;
+
+      private int capacity = 1_000;
+    }
+
+    /**
+     * Destino que envia os alertas por HTTP.
+     */
+    @Data
+    public static class Webhook {
+
+      private URI url;
+
+      private Duration timeout = Duration.ofSeconds(5);
+    }
+  }
+
+  /**
+   * Propriedades das réplicas de leitura do banco.
+   */
+  @Data
+  public static class Replication {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private Duration checkInterval = Duration.ofSeconds(1);
+
+    private boolean readYourWrites = true;
+
+    /**
+     * Conexão com uma réplica.
+     */
+    @Data
+    public static class Replica {
+
+      private String url;
+
+      private String username;
+
+      private String password;
+
+      private int maximumPoolSize = 10;
+    }
+  }
+
+  /**
+   * Propriedades das respostas guardadas por {@code Idempotency-Key}.
+   */
+  @Data
+  public static class Idempotency {
+
+    private Duration ttl = Duration.ofHours(24);
+
+    private long maximumSize = 10_000;
+
+    private boolean persistent;
+
+    private Duration purgeInterval = Duration.ofMinutes(1);
+  }
+
+  /**
+   * Propriedades da limitação de requisições por cliente e do descarte por concorrência.
+   */
+  @Data
+  public static class RateLimit {
+
+    private boolean enabled = true;
+
+    private double requestsPerSecond = 50;
+
+    private int burst = 100;
+
+    private long maximumClients = 100_000;
+
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private int maxConcurrentRequests = 200;
+
+    private Duration maxQueueTime = Duration.ofMillis(100);
+  }
+
+  /**
+   * Propriedades da consolidação por hora das movimentações de estoque.
+   */
+  @Data
+  public static class Movements {
+
+    private Duration rollupInterval = Duration.ofMinutes(1);
+
+    private Duration rollupDelay = Duration.ofMinutes(1);
+  }
+
+  /**
+   * Propriedades do índice de busca de Beer por nome e marca.
+   */
+  @Data
+  public static class Search {
+
+    private Duration refreshInterval = Duration.ofMinutes(5);
+  }
+
+  /**
+   * Propriedades dos totais de estoque em memória.
+   */
+  @Data
+  public static class Stats {
+
+    private Duration reconcileInterval = Duration.ofMinutes(1);
+  }
+
+  /**
+   * Propriedades das reservas de estoque.
+   */
+  @Data
+  public static class Reservations {
+
+    private Duration defaultTtl = Duration.ofMinutes(10);
+
+    private Duration maxTtl = Duration.ofHours(1);
+  }
+}
@@ -0,0 +1,52 @@
+package one.digitalinnovation.beerstockapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Configuração das representações binárias (CBOR e Smile) negociadas pelo cabeçalho
+ * {@code Accept}, ao lado do JSON.
+ *
+ * <p>Os conversores usam o mesmo {@code Jackson2ObjectMapperBuilder} do JSON, de modo que as
+ * três representações têm os mesmos campos; o esquema está em {@code schema/beer.cddl}. No Smile
+ * os valores repetidos, como marca e tipo nas listagens, são enviados uma vez e depois
+ * referenciados.
+ *
+ * @author Marcelo dos Santos
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+  public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+  public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder) {
+    ObjectMapper objectMapper = builder.createXmlMapper(false)
+                                       .factory(new CBORFactory())
+                                       .build();
+    return new MappingJackson2CborHttpMessageConverter(objectMapper);
+  }
+
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder) {
+    SmileFactory smileFactory =
+        SmileFactory.builder()
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .build();
+    ObjectMapper objectMapper = builder.createXmlMapper(false)
+                                       .factory(smileFactory)
+                                       .build();
+    return new MappingJackson2SmileHttpMessageConverter(objectMapper);
+  }
+}
@@ -0,0 +1,79 @@
+package one.digitalinnovation.beerstockapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import one.digitalinnovation.beerstockapi.datasource.Replica;
+import one.digitalinnovation.beerstockapi.datasource.ReplicaLagMonitor;
+import one.digitalinnovation.beerstockapi.datasource.ReplicaRoutingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Configuração das réplicas de leitura, habilitada quando ao menos uma é informada em
+ * {@code beerstock.replication.replicas}.
+ *
+ * <p>O primário continua configurado por {@code spring.datasource}. O {@link DataSource}
+ * principal da aplicação passa a ser o {@link ReplicaRoutingDataSource}, com conexões obtidas
+ * apenas no primeiro comando da transação.
+ *
+ * @author Marcelo dos Santos
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "beerstock.replication", name = "replicas[0].url")
+public class ReplicationConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  @Bean
+  public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                           BeerStockProperties properties) {
+    List<BeerStockProperties.Replication.Replica> replicaProperties =
+        properties.getReplication().getReplicas();
+    List<Replica> replicas = new ArrayList<>(replicaProperties.size());
+    for (int i = 0; i < replicaProperties.size(); i++) {
+      String name = "replica-" + i;
+      replicas.add(new Replica(name, replicaDataSource(name, replicaProperties.get(i))));
+    }
+    return new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                                        properties.getReplication());
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+  }
+
+  @Bean
+  public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource,
+                                             ReplicaRoutingDataSource replicaRoutingDataSource,
+                                             BeerStockProperties properties,
+                                             MeterRegistry meterRegistry) {
+    return new ReplicaLagMonitor(primaryDataSource, replicaRoutingDataSource, properties,
+                                 meterRegistry);
+  }
+
+  private static HikariDataSource replicaDataSource(
+      String name, BeerStockProperties.Replication.Replica properties) {
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setPoolName(name);
+    dataSource.setJdbcUrl(properties.getUrl());
+    dataSource.setUsername(properties.getUsername());
+    dataSource.setPassword(properties.getPassword());
+    dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+    dataSource.setReadOnly(true);
+    return dataSource;
+  }
+}
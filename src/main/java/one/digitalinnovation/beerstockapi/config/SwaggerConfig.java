@@ -4,6 +4,7 @@ import static springfox.documentation.builders.RequestHandlerSelectors.basePacka
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.WebRequest;
 import springfox.documentation.builders.ApiInfoBuilder;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.service.ApiInfo;
@@ -35,6 +36,7 @@ public class SwaggerConfig {
         .apis(basePackage(BASE_PACKAGE))
         .paths(PathSelectors.any())
         .build()
+        .ignoredParameterTypes(WebRequest.class)
         .apiInfo(buildApiInfo());
   }
 
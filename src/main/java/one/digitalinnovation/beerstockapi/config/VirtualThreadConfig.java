@@ -0,0 +1,82 @@
+package one.digitalinnovation.beerstockapi.config;
+
+import static org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * Configuração do modo de execução com uma virtual thread por requisição.
+ *
+ * <p>Substitui o pool de threads do Tomcat e o executor das requisições assíncronas do Spring
+ * MVC. Só é carregada com o perfil {@value #PROFILE}, que define
+ * {@code beerstock.execution.mode=virtual}; ativar o perfil em uma JVM anterior ao Java 21
+ * impede a aplicação de iniciar. O executor é obtido por reflexão para manter a compilação em
+ * Java 11.
+ *
+ * <p>Antes do Java 24 uma virtual thread que bloqueia dentro de um bloco {@code synchronized}
+ * prende a thread portadora. O Tomcat 9 e o Hikari usam {@code synchronized} nos caminhos de
+ * socket e de obtenção de conexão, de modo que, sob carga, a concorrência efetiva pode cair para
+ * o número de portadoras ({@code jdk.virtualThreadScheduler.parallelism}); os pontos de bloqueio
+ * são listados com {@code -Djdk.tracePinnedThreads=full}.
+ *
+ * @author Marcelo dos Santos
+ */
+@Slf4j
+@Configuration
+@Profile(VirtualThreadConfig.PROFILE)
+@ConditionalOnProperty(prefix = "beerstock.execution", name = "mode", havingValue = "virtual")
+public class VirtualThreadConfig {
+
+  public static final String PROFILE = "java21";
+
+  public VirtualThreadConfig() {
+    if (!isSupported()) {
+      throw new IllegalStateException(
+          "The " + PROFILE + " profile requires Java 21 or later, running on "
+          + Runtime.version());
+    }
+  }
+
+  /**
+   * @return se a JVM atual oferece virtual threads
+   */
+  public static boolean isSupported() {
+    try {
+      Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  @Bean(name = APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+  public AsyncTaskExecutor applicationTaskExecutor() {
+    log.info("Serving requests on virtual threads");
+    return new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor());
+  }
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+      AsyncTaskExecutor applicationTaskExecutor) {
+    return protocolHandler -> protocolHandler.setExecutor(applicationTaskExecutor);
+  }
+
+  static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Could not create the virtual thread executor", e);
+    }
+  }
+}
@@ -1,25 +1,71 @@
 package one.digitalinnovation.beerstockapi.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
+import java.util.function.Supplier;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.BeerImportReportDto;
+import one.digitalinnovation.beerstockapi.dto.BeerPageDto;
+import one.digitalinnovation.beerstockapi.dto.BeerStatsDto;
+import one.digitalinnovation.beerstockapi.dto.BeerStockDto;
+import one.digitalinnovation.beerstockapi.dto.LowStockDto;
+import one.digitalinnovation.beerstockapi.dto.MaxDto;
 import one.digitalinnovation.beerstockapi.dto.QuantityDto;
+import one.digitalinnovation.beerstockapi.dto.ReservationDto;
+import one.digitalinnovation.beerstockapi.dto.ReservationRequestDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentRequestDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentResultDto;
+import one.digitalinnovation.beerstockapi.dto.StockMovementTotalDto;
+import one.digitalinnovation.beerstockapi.dto.WarehouseStockDto;
 import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.etag.BeerETags;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import one.digitalinnovation.beerstockapi.enums.StockMovementInterval;
 import one.digitalinnovation.beerstockapi.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstockapi.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstockapi.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstockapi.exception.InvalidTimeRangeException;
+import one.digitalinnovation.beerstockapi.exception.ReservationNotFoundException;
+import one.digitalinnovation.beerstockapi.exception.StockAdjustmentRejectedException;
+import one.digitalinnovation.beerstockapi.exception.StockLedgerEnabledException;
+import one.digitalinnovation.beerstockapi.exception.WarehouseStockNotFoundException;
+import one.digitalinnovation.beerstockapi.feed.BeerChangeFeed;
+import one.digitalinnovation.beerstockapi.listing.BeerJsonRowWriter;
+import one.digitalinnovation.beerstockapi.listing.BeerListing;
+import one.digitalinnovation.beerstockapi.service.BeerImportService;
 import one.digitalinnovation.beerstockapi.service.BeerService;
+import one.digitalinnovation.beerstockapi.service.StockMovementService;
+import one.digitalinnovation.beerstockapi.service.StockReservationService;
+import one.digitalinnovation.beerstockapi.service.WarehouseStockService;
+import one.digitalinnovation.beerstockapi.stats.BeerInventoryStats;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Endpoints para o gerenciamento da entidade {@link Beer}.
@@ -31,7 +77,20 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/v1/beers")
 public class BeerController implements BeerControllerDocs {
 
+  public static final String TEXT_CSV_VALUE = "text/csv";
+  public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+  private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
   private final BeerService beerService;
+  private final BeerImportService beerImportService;
+  private final ObjectMapper objectMapper;
+  private final BeerETags beerETags;
+  private final BeerChangeFeed beerChangeFeed;
+  private final StockMovementService stockMovementService;
+  private final BeerInventoryStats beerInventoryStats;
+  private final WarehouseStockService warehouseStockService;
+  private final StockReservationService stockReservationService;
 
   @Override
   @PostMapping
@@ -41,16 +100,107 @@ public class BeerController implements BeerControllerDocs {
     return beerService.createBeer(beerDto);
   }
 
+  @Override
+  @PostMapping(value = "/import",
+      consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public BeerImportReportDto importBeers(InputStream inputStream) throws IOException {
+    try (MappingIterator<BeerDto> beers =
+             objectMapper.readerFor(BeerDto.class).readValues(inputStream)) {
+      return beerImportService.importBeers(beers);
+    }
+  }
+
+  @Override
+  @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+  public BeerImportReportDto importBeersFromCsv(InputStream inputStream) throws IOException {
+    try (MappingIterator<BeerDto> beers = CSV_MAPPER.readerFor(BeerDto.class)
+                                                    .with(CsvSchema.emptySchema().withHeader())
+                                                    .readValues(inputStream)) {
+      return beerImportService.importBeers(beers);
+    }
+  }
+
   @Override
   @GetMapping("/{name}")
-  public BeerDto findByName(@PathVariable String name) throws BeerNotFoundException {
-    return beerService.findByName(name);
+  public ResponseEntity<BeerDto> findByName(@PathVariable String name, WebRequest webRequest)
+      throws BeerNotFoundException {
+    BeerDto beerDto = beerService.findByName(name);
+    return ResponseEntity.ok()
+                         .eTag(BeerETags.forRepresentation(BeerETags.of(beerDto), webRequest))
+                         .varyBy(HttpHeaders.ACCEPT)
+                         .body(beerDto);
   }
 
   @Override
   @GetMapping
-  public List<BeerDto> listBeers() {
-    return beerService.listAll();
+  public ResponseEntity<BeerListing> listBeers(WebRequest webRequest) {
+    return collection(webRequest, () -> generator -> beerService.writeAll(
+        null, null, BeerJsonRowWriter.elements(generator)));
+  }
+
+  @Override
+  @GetMapping(params = "limit")
+  public ResponseEntity<BeerPageDto> listBeersPage(@RequestParam int limit,
+                                                   @RequestParam(required = false) Long after,
+                                                   @RequestParam(required = false) BeerType type,
+                                                   @RequestParam(required = false) String brand,
+                                                   WebRequest webRequest) {
+    return collection(webRequest, () -> beerService.listPage(after, limit, type, brand));
+  }
+
+  @Override
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamBeers(
+      @RequestParam(required = false) BeerType type,
+      @RequestParam(required = false) String brand,
+      WebRequest webRequest) {
+    return collection(webRequest, () -> outputStream -> {
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+        beerService.writeAll(type, brand, BeerJsonRowWriter.lines(generator));
+      }
+    });
+  }
+
+  @Override
+  @GetMapping("/stats")
+  public BeerStatsDto stats() {
+    return beerInventoryStats.stats();
+  }
+
+  @Override
+  @GetMapping("/search")
+  public List<BeerDto> search(@RequestParam String q,
+                              @RequestParam(defaultValue = "10") int limit) {
+    return beerService.search(q, limit);
+  }
+
+  @Override
+  @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamChanges(
+      @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+    return beerChangeFeed.subscribe(lastEventId);
+  }
+
+  @Override
+  @GetMapping("/{id}/movements")
+  public List<StockMovementTotalDto> movementsOfBeer(
+      @PathVariable Long id,
+      @RequestParam Instant from,
+      @RequestParam Instant to,
+      @RequestParam(defaultValue = "HOUR") StockMovementInterval interval)
+      throws InvalidTimeRangeException {
+    return stockMovementService.totalsOfBeer(id, from, to, interval);
+  }
+
+  @Override
+  @GetMapping("/movements")
+  public List<StockMovementTotalDto> movementsOfType(
+      @RequestParam(required = false) BeerType type,
+      @RequestParam Instant from,
+      @RequestParam Instant to,
+      @RequestParam(defaultValue = "HOUR") StockMovementInterval interval)
+      throws InvalidTimeRangeException {
+    return stockMovementService.totalsOfType(type, from, to, interval);
   }
 
   @Override
@@ -73,4 +223,92 @@ public class BeerController implements BeerControllerDocs {
       throws BeerNotFoundException, BeerStockExceededException {
     return beerService.decrement(id, quantityDto.getQuantity());
   }
+
+  @Override
+  @PatchMapping(value = "/{id}/increment", params = "location")
+  public WarehouseStockDto incrementAt(@PathVariable Long id, @RequestParam String location,
+                                       @RequestBody @Valid QuantityDto quantityDto)
+      throws BeerNotFoundException, WarehouseStockNotFoundException, BeerStockExceededException {
+    return warehouseStockService.increment(id, location, quantityDto.getQuantity());
+  }
+
+  @Override
+  @PatchMapping(value = "/{id}/decrement", params = "location")
+  public WarehouseStockDto decrementAt(@PathVariable Long id, @RequestParam String location,
+                                       @RequestBody @Valid QuantityDto quantityDto)
+      throws BeerNotFoundException, WarehouseStockNotFoundException, BeerStockExceededException {
+    return warehouseStockService.decrement(id, location, quantityDto.getQuantity());
+  }
+
+  @Override
+  @GetMapping("/{id}/stock")
+  public BeerStockDto stockOf(@PathVariable Long id) throws BeerNotFoundException {
+    return warehouseStockService.stockOf(id);
+  }
+
+  @Override
+  @PutMapping("/{id}/stock/{location}")
+  public WarehouseStockDto updateLocationMax(@PathVariable Long id, @PathVariable String location,
+                                             @RequestBody @Valid MaxDto maxDto)
+      throws BeerNotFoundException, BeerStockExceededException {
+    return warehouseStockService.updateMax(id, location, maxDto.getMax());
+  }
+
+  @Override
+  @PostMapping("/{id}/reservations")
+  @ResponseStatus(HttpStatus.CREATED)
+  public ReservationDto reserve(@PathVariable Long id,
+                                @RequestBody @Valid ReservationRequestDto reservationRequestDto)
+      throws BeerNotFoundException, BeerStockExceededException, StockLedgerEnabledException {
+    return stockReservationService.reserve(id, reservationRequestDto);
+  }
+
+  @Override
+  @PostMapping("/reservations/{reservationId}/commit")
+  public BeerDto commitReservation(@PathVariable Long reservationId)
+      throws ReservationNotFoundException, BeerNotFoundException, BeerStockExceededException {
+    return stockReservationService.commit(reservationId);
+  }
+
+  @Override
+  @DeleteMapping("/reservations/{reservationId}")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void releaseReservation(@PathVariable Long reservationId)
+      throws ReservationNotFoundException {
+    stockReservationService.release(reservationId);
+  }
+
+  @Override
+  @PatchMapping("/{id}/low-stock")
+  public BeerDto updateLowStock(@PathVariable Long id, @RequestBody @Valid LowStockDto lowStockDto)
+      throws BeerNotFoundException {
+    return beerService.updateLowStock(id, lowStockDto.getLowStock());
+  }
+
+  @Override
+  @PatchMapping("/stock")
+  public ResponseEntity<List<StockAdjustmentResultDto>> adjustStock(
+      @RequestBody @Valid StockAdjustmentRequestDto stockAdjustmentRequestDto)
+      throws StockLedgerEnabledException {
+    try {
+      return ResponseEntity.ok(beerService.adjustStock(stockAdjustmentRequestDto));
+    } catch (StockAdjustmentRejectedException e) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getResults());
+    }
+  }
+
+  /**
+   * Responde 304 sem consultar o serviço quando o ETag da coleção informado pelo cliente ainda
+   * é o atual. O ETag é lido antes dos dados, para nunca ser mais novo que eles.
+   */
+  private <T> ResponseEntity<T> collection(WebRequest webRequest, Supplier<T> body) {
+    String eTag = BeerETags.forRepresentation(beerETags.ofCollection(), webRequest);
+    if (webRequest.checkNotModified(eTag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                           .eTag(eTag)
+                           .varyBy(HttpHeaders.ACCEPT)
+                           .build();
+    }
+    return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(body.get());
+  }
 }
@@ -4,15 +4,41 @@ import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
 import javax.validation.Valid;
 import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.BeerImportReportDto;
+import one.digitalinnovation.beerstockapi.dto.BeerPageDto;
+import one.digitalinnovation.beerstockapi.dto.BeerStatsDto;
+import one.digitalinnovation.beerstockapi.dto.BeerStockDto;
+import one.digitalinnovation.beerstockapi.dto.LowStockDto;
+import one.digitalinnovation.beerstockapi.dto.MaxDto;
 import one.digitalinnovation.beerstockapi.dto.QuantityDto;
+import one.digitalinnovation.beerstockapi.dto.ReservationDto;
+import one.digitalinnovation.beerstockapi.dto.ReservationRequestDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentRequestDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentResultDto;
+import one.digitalinnovation.beerstockapi.dto.StockMovementTotalDto;
+import one.digitalinnovation.beerstockapi.dto.WarehouseStockDto;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import one.digitalinnovation.beerstockapi.enums.StockMovementInterval;
 import one.digitalinnovation.beerstockapi.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstockapi.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstockapi.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstockapi.exception.InvalidTimeRangeException;
+import one.digitalinnovation.beerstockapi.exception.ReservationNotFoundException;
+import one.digitalinnovation.beerstockapi.exception.StockLedgerEnabledException;
+import one.digitalinnovation.beerstockapi.exception.WarehouseStockNotFoundException;
+import one.digitalinnovation.beerstockapi.listing.BeerListing;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Documentação Swagger do {@link BeerController}.
@@ -29,18 +55,92 @@ public interface BeerControllerDocs {
   })
   BeerDto createBeer(BeerDto beerDto) throws BeerAlreadyRegisteredException;
 
+  @ApiOperation(value = "Bulk beer creation from a JSON array or newline delimited JSON")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Number of beers created and the rejected rows")
+  })
+  BeerImportReportDto importBeers(InputStream inputStream) throws IOException;
+
+  @ApiOperation(value = "Bulk beer creation from CSV with a name,brand,max,quantity,type header")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Number of beers created and the rejected rows")
+  })
+  BeerImportReportDto importBeersFromCsv(InputStream inputStream) throws IOException;
+
   @ApiOperation(value = "Returns beer found by a given name")
   @ApiResponses(value = {
       @ApiResponse(code = 200, message = "Success beer found in the system"),
+      @ApiResponse(code = 304, message = "Beer not modified since the given ETag"),
       @ApiResponse(code = 404, message = "Beer with given name not found")
   })
-  BeerDto findByName(@PathVariable String name) throws BeerNotFoundException;
+  ResponseEntity<BeerDto> findByName(@PathVariable String name, WebRequest webRequest)
+      throws BeerNotFoundException;
 
-  @ApiOperation(value = "Returns a list of all beers registered in the system")
+  @ApiOperation(value = "Returns a list of all beers registered in the system",
+      response = BeerDto.class, responseContainer = "List")
   @ApiResponses(value = {
       @ApiResponse(code = 200, message = "List of all beers registered in the system"),
+      @ApiResponse(code = 304, message = "No beer changed since the given ETag"),
+  })
+  ResponseEntity<BeerListing> listBeers(WebRequest webRequest);
+
+  @ApiOperation(value = "Returns a page of beers ordered by id, starting after the given cursor")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Page of beers and the cursor of the next page"),
+      @ApiResponse(code = 304, message = "No beer changed since the given ETag"),
+  })
+  ResponseEntity<BeerPageDto> listBeersPage(int limit, Long after, BeerType type, String brand,
+                                            WebRequest webRequest);
+
+  @ApiOperation(value = "Streams all beers as newline delimited JSON")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "One beer per line, ordered by id"),
+      @ApiResponse(code = 304, message = "No beer changed since the given ETag"),
+  })
+  ResponseEntity<StreamingResponseBody> streamBeers(BeerType type, String brand,
+                                                    WebRequest webRequest);
+
+  @ApiOperation(value = "Returns stock totals and fill ratios of all beers, per type and per "
+                        + "brand, from in-memory aggregates")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Count, quantity, max and fill ratio of each group"),
   })
-  List<BeerDto> listBeers();
+  BeerStatsDto stats();
+
+  @ApiOperation(value = "Searches beers by the words of their name and brand, matching "
+                        + "prefixes and small typos, most relevant first")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Beers matching every word of the query"),
+  })
+  List<BeerDto> search(String q, int limit);
+
+  @ApiOperation(value = "Streams beer changes as Server-Sent Events, resuming after "
+                        + "Last-Event-ID when given")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "One event per committed change; a RESET event "
+                                         + "asks the client to reload the list"),
+  })
+  SseEmitter streamChanges(String lastEventId);
+
+  @ApiOperation(value = "Returns the stock movement totals of a beer per hour or day (UTC), "
+                        + "extending the time range to whole hours")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Totals of each interval with movements, in order"),
+      @ApiResponse(code = 400, message = "Time range start is not before its end")
+  })
+  List<StockMovementTotalDto> movementsOfBeer(Long id, Instant from, Instant to,
+                                              StockMovementInterval interval)
+      throws InvalidTimeRangeException;
+
+  @ApiOperation(value = "Returns the stock movement totals of a beer type, or of all beers, "
+                        + "per hour or day (UTC), extending the time range to whole hours")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Totals of each interval with movements, in order"),
+      @ApiResponse(code = 400, message = "Time range start is not before its end")
+  })
+  List<StockMovementTotalDto> movementsOfType(BeerType type, Instant from, Instant to,
+                                              StockMovementInterval interval)
+      throws InvalidTimeRangeException;
 
   @ApiOperation(value = "Delete a beer found by a given valid Id")
   @ApiResponses(value = {
@@ -66,4 +166,88 @@ public interface BeerControllerDocs {
   })
   BeerDto decrement(@PathVariable Long id, @RequestBody @Valid QuantityDto quantityDto)
       throws BeerNotFoundException, BeerStockExceededException;
+
+  @ApiOperation(value = "Increment the quantity of a beer at a stock location")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Success in increasing the quantity at the location"),
+      @ApiResponse(code = 400, message = "Quantity of beer above the location stock"),
+      @ApiResponse(code = 404, message = "Beer or stock location not found")
+  })
+  WarehouseStockDto incrementAt(Long id, String location,
+                                @RequestBody @Valid QuantityDto quantityDto)
+      throws BeerNotFoundException, WarehouseStockNotFoundException, BeerStockExceededException;
+
+  @ApiOperation(value = "Decrement the quantity of a beer at a stock location")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Success in decreasing the quantity at the location"),
+      @ApiResponse(code = 400, message = "Quantity of beer above the location stock"),
+      @ApiResponse(code = 404, message = "Beer or stock location not found")
+  })
+  WarehouseStockDto decrementAt(Long id, String location,
+                                @RequestBody @Valid QuantityDto quantityDto)
+      throws BeerNotFoundException, WarehouseStockNotFoundException, BeerStockExceededException;
+
+  @ApiOperation(value = "Returns the stock of a beer summed over all locations, and of each one")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Success beer stock found"),
+      @ApiResponse(code = 404, message = "Beer with given id not found")
+  })
+  BeerStockDto stockOf(@PathVariable Long id) throws BeerNotFoundException;
+
+  @ApiOperation(value = "Create a stock location of a beer, or change its max")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Success stock location updated"),
+      @ApiResponse(code = 400, message = "Max out of range or below the location quantity"),
+      @ApiResponse(code = 404, message = "Beer with given id not found")
+  })
+  WarehouseStockDto updateLocationMax(Long id, String location, @RequestBody @Valid MaxDto maxDto)
+      throws BeerNotFoundException, BeerStockExceededException;
+
+  @ApiOperation(value = "Hold a quantity of beer until the reservation is committed, released "
+                        + "or expires")
+  @ApiResponses(value = {
+      @ApiResponse(code = 201, message = "Success reservation created"),
+      @ApiResponse(code = 400, message = "Quantity above the stock not yet reserved"),
+      @ApiResponse(code = 404, message = "Beer with given id not found"),
+      @ApiResponse(code = 501, message = "Reservations are disabled by the stock ledger")
+  })
+  ReservationDto reserve(@PathVariable Long id,
+                         @RequestBody @Valid ReservationRequestDto reservationRequestDto)
+      throws BeerNotFoundException, BeerStockExceededException, StockLedgerEnabledException;
+
+  @ApiOperation(value = "Decrement the reserved quantity of beer and remove the reservation")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Success in decreasing the quantity of beer"),
+      @ApiResponse(code = 400, message = "Quantity of beer above stock, reservation kept"),
+      @ApiResponse(code = 404, message = "Reservation not found or expired")
+  })
+  BeerDto commitReservation(@PathVariable Long reservationId)
+      throws ReservationNotFoundException, BeerNotFoundException, BeerStockExceededException;
+
+  @ApiOperation(value = "Release a reservation without changing the stock")
+  @ApiResponses(value = {
+      @ApiResponse(code = 204, message = "Success reservation released"),
+      @ApiResponse(code = 404, message = "Reservation not found or expired")
+  })
+  void releaseReservation(@PathVariable Long reservationId) throws ReservationNotFoundException;
+
+  @ApiOperation(value = "Set the low stock alert threshold of a beer, or reset it to the default")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Success beer threshold updated"),
+      @ApiResponse(code = 400, message = "Threshold out of range"),
+      @ApiResponse(code = 404, message = "Beer with given id not found")
+  })
+  BeerDto updateLowStock(@PathVariable Long id, @RequestBody @Valid LowStockDto lowStockDto)
+      throws BeerNotFoundException;
+
+  @ApiOperation(value = "Adjust the stock of many beers in a single batch")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Result of each adjustment, in the request order"),
+      @ApiResponse(code = 400, message = "Missing required fields or wrong field range value"),
+      @ApiResponse(code = 409, message = "Atomic batch rolled back because an adjustment failed"),
+      @ApiResponse(code = 501, message = "Batch adjustments are disabled by the stock ledger")
+  })
+  ResponseEntity<List<StockAdjustmentResultDto>> adjustStock(
+      @RequestBody @Valid StockAdjustmentRequestDto stockAdjustmentRequestDto)
+      throws StockLedgerEnabledException;
 }
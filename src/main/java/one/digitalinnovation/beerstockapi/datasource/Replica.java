@@ -0,0 +1,37 @@
+package one.digitalinnovation.beerstockapi.datasource;
+
+import javax.sql.DataSource;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Réplica de leitura e o último estado observado pelo {@link ReplicaLagMonitor}.
+ *
+ * @author Marcelo dos Santos
+ */
+@Getter
+@RequiredArgsConstructor
+public class Replica {
+
+  private final String name;
+  private final DataSource dataSource;
+  private volatile boolean available;
+  private volatile long appliedUpTo;
+
+  /**
+   * @return há quantos milissegundos foi gravado no primário o último heartbeat que a réplica
+   *     já aplicou
+   */
+  public long lagMillis(long now) {
+    return now - appliedUpTo;
+  }
+
+  void heartbeat(long beat) {
+    appliedUpTo = beat;
+    available = true;
+  }
+
+  void markUnavailable() {
+    available = false;
+  }
+}
@@ -0,0 +1,116 @@
+package one.digitalinnovation.beerstockapi.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import one.digitalinnovation.beerstockapi.event.StockLedgerFlushEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Mede o atraso das réplicas por heartbeat: a cada intervalo grava o instante atual no primário
+ * e lê, em cada réplica, o último valor replicado. Uma réplica que não responde fica
+ * indisponível até a próxima leitura bem-sucedida.
+ *
+ * @author Marcelo dos Santos
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+  public static final String LAG_METRIC = "beerstock.replication.lag";
+  public static final String AVAILABLE_METRIC = "beerstock.replication.available";
+
+  private static final String WRITE_HEARTBEAT_SQL =
+      "update replication_heartbeat set beat = ? where id = 1";
+  private static final String READ_HEARTBEAT_SQL =
+      "select beat from replication_heartbeat where id = 1";
+
+  private final JdbcTemplate primary;
+  private final ReplicaRoutingDataSource routingDataSource;
+  private final BeerStockProperties.Replication properties;
+  private ScheduledExecutorService checker;
+
+  public ReplicaLagMonitor(DataSource primary, ReplicaRoutingDataSource routingDataSource,
+                           BeerStockProperties properties, MeterRegistry meterRegistry) {
+    this.primary = new JdbcTemplate(primary);
+    this.routingDataSource = routingDataSource;
+    this.properties = properties.getReplication();
+    for (Replica replica : routingDataSource.getReplicas()) {
+      TimeGauge.builder(LAG_METRIC, replica,
+                        TimeUnit.MILLISECONDS, r -> r.lagMillis(System.currentTimeMillis()))
+               .tag("replica", replica.getName())
+               .register(meterRegistry);
+      Gauge.builder(AVAILABLE_METRIC, replica, r -> r.isAvailable() ? 1 : 0)
+           .tag("replica", replica.getName())
+           .register(meterRegistry);
+    }
+  }
+
+  @PostConstruct
+  public void start() {
+    long interval = properties.getCheckInterval().toMillis();
+    checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "replica-lag-monitor");
+      thread.setDaemon(true);
+      return thread;
+    });
+    checker.scheduleWithFixedDelay(this::check, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    checker.shutdownNow();
+  }
+
+  public void check() {
+    try {
+      primary.update(WRITE_HEARTBEAT_SQL, System.currentTimeMillis());
+    } catch (DataAccessException e) {
+      log.warn("Could not write the replication heartbeat", e);
+    }
+    for (Replica replica : routingDataSource.getReplicas()) {
+      try {
+        Long beat = new JdbcTemplate(replica.getDataSource())
+            .queryForObject(READ_HEARTBEAT_SQL, Long.class);
+        replica.heartbeat(beat == null ? 0L : beat);
+      } catch (DataAccessException e) {
+        if (replica.isAvailable()) {
+          log.warn("Replica {} unavailable, reading from the primary", replica.getName(), e);
+        }
+        replica.markUnavailable();
+      }
+    }
+  }
+
+  /**
+   * Registra a escrita para que as leituras só voltem a uma réplica depois que ela a aplicar.
+   * Executa antes dos demais ouvintes do commit, em especial do que avança o ETag das coleções.
+   */
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBeerEvent(BeerEvent event) {
+    routingDataSource.recordWrite();
+  }
+
+  /**
+   * Registra a gravação dos deltas do livro-razão, também antes do ETag das coleções avançar.
+   */
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @EventListener
+  public void onStockLedgerFlush(StockLedgerFlushEvent event) {
+    routingDataSource.recordWrite();
+  }
+}
@@ -0,0 +1,105 @@
+package one.digitalinnovation.beerstockapi.datasource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link DataSource} que envia as transações {@code readOnly} às réplicas e o restante ao
+ * primário.
+ *
+ * <p>As réplicas são usadas em rodízio, e apenas as que responderam ao último
+ * {@link ReplicaLagMonitor#check()} com atraso até {@code maxLag}. Com {@code readYourWrites},
+ * uma réplica também precisa ter aplicado um heartbeat posterior à última escrita desta
+ * instância, para que os ETags e o cache nunca sejam mais novos que os dados lidos. Sem réplica
+ * elegível, ou se a conexão com ela falhar, a leitura vai ao primário.
+ *
+ * <p>Deve ser envolvido por um {@link LazyConnectionDataSourceProxy}: o Spring só marca a
+ * transação como {@code readOnly} depois de pedir a conexão ao JPA.
+ *
+ * @author Marcelo dos Santos
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+  private final DataSource primary;
+  @Getter
+  private final List<Replica> replicas;
+  private final long maxLagMillis;
+  private final boolean readYourWrites;
+  private final AtomicInteger next = new AtomicInteger();
+  private volatile long lastWrite;
+
+  public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas,
+                                  BeerStockProperties.Replication properties) {
+    this.primary = primary;
+    this.replicas = replicas;
+    this.maxLagMillis = properties.getMaxLag().toMillis();
+    this.readYourWrites = properties.isReadYourWrites();
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      Replica replica = selectReplica();
+      if (replica != null) {
+        try {
+          return replica.getDataSource().getConnection();
+        } catch (SQLException e) {
+          replica.markUnavailable();
+          log.warn("Replica {} unavailable, reading from the primary", replica.getName(), e);
+        }
+      }
+    }
+    return primary.getConnection();
+  }
+
+  /**
+   * Credenciais explícitas não são roteadas.
+   */
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return primary.getConnection(username, password);
+  }
+
+  public void recordWrite() {
+    lastWrite = System.currentTimeMillis();
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (Replica replica : replicas) {
+      if (replica.getDataSource() instanceof Closeable) {
+        ((Closeable) replica.getDataSource()).close();
+      }
+    }
+  }
+
+  private Replica selectReplica() {
+    long now = System.currentTimeMillis();
+    int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+    for (int i = 0; i < replicas.size(); i++) {
+      Replica replica = replicas.get((start + i) % replicas.size());
+      if (isEligible(replica, now)) {
+        return replica;
+      }
+    }
+    return null;
+  }
+
+  private boolean isEligible(Replica replica, long now) {
+    return replica.isAvailable()
+           && replica.lagMillis(now) <= maxLagMillis
+           && (!readYourWrites || replica.getAppliedUpTo() >= lastWrite);
+  }
+}
@@ -0,0 +1,25 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+
+/**
+ * DTO de uma alteração de Beer publicada no fluxo de alterações.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerChangeDto {
+
+  private long sequence;
+
+  private BeerEventType type;
+
+  private BeerDto beer;
+}
@@ -1,9 +1,12 @@
 package one.digitalinnovation.beerstockapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,10 +26,18 @@ import one.digitalinnovation.beerstockapi.enums.BeerType;
 @AllArgsConstructor
 public class BeerDto {
 
+  /**
+   * Nomes que coincidem, sem diferenciar maiúsculas, com as rotas de coleção
+   * {@code GET /api/v1/beers/...}, que têm precedência sobre {@code GET /api/v1/beers/{name}}.
+   */
+  public static final String NOT_RESERVED_NAME =
+      "(?is)(?!(?:changes|movements|search|stats)$).*";
+
   private Long id;
 
   @NotNull
   @Size(min = 1, max = 200)
+  @Pattern(regexp = NOT_RESERVED_NAME, message = "must not be a reserved path of the beers API")
   private String name;
 
   @NotNull
@@ -44,4 +55,11 @@ public class BeerDto {
   @Enumerated(EnumType.STRING)
   @NotNull
   private BeerType type;
+
+  @Min(0)
+  @Max(500)
+  private Integer lowStock;
+
+  @JsonIgnore
+  private Long version;
 }
@@ -0,0 +1,29 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+
+/**
+ * Contagem e somas de quantidade e máximo das Beers de um tipo e uma marca.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerGroupTotalsDto {
+
+  private BeerType type;
+
+  private String brand;
+
+  private long count;
+
+  private long quantity;
+
+  private long max;
+}
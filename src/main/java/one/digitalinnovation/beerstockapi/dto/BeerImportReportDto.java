@@ -0,0 +1,25 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para o relatório da importação de Beers: total criado e linhas rejeitadas.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerImportReportDto {
+
+  private long created;
+
+  @Builder.Default
+  private List<BeerImportRowDto> rejected = new ArrayList<>();
+}
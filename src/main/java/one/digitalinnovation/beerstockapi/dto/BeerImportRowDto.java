@@ -0,0 +1,27 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstockapi.enums.BeerImportStatus;
+
+/**
+ * DTO para uma linha rejeitada na importação de Beers.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerImportRowDto {
+
+  private long row;
+
+  private String name;
+
+  private BeerImportStatus status;
+
+  private String message;
+}
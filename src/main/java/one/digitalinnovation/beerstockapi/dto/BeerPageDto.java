@@ -0,0 +1,26 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para uma página de {@link BeerDto} paginada por cursor.
+ *
+ * <p>O campo {@code next} contém o cursor a ser informado em {@code after} para obter a
+ * próxima página, sendo {@code null} na última página.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerPageDto {
+
+  private List<BeerDto> content;
+
+  private Long next;
+}
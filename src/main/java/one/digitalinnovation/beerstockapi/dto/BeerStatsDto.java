@@ -0,0 +1,26 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+
+/**
+ * DTO com os totais de estoque de todas as Beers, por tipo e por marca.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerStatsDto {
+
+  private BeerStockTotalsDto total;
+
+  private Map<BeerType, BeerStockTotalsDto> types;
+
+  private Map<String, BeerStockTotalsDto> brands;
+}
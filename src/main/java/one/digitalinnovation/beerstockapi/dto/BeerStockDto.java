@@ -0,0 +1,28 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estoque de uma Beer somado em todos os locais. Os totais incluem o estoque sem local, o da
+ * própria Beer, e {@code locations} traz cada local em ordem de nome.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerStockDto {
+
+  private Long id;
+
+  private long quantity;
+
+  private long max;
+
+  private List<WarehouseStockDto> locations;
+}
@@ -0,0 +1,27 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totais de estoque de um grupo de Beers. O {@code fillRatio} é a razão entre a soma das
+ * quantidades e a soma dos máximos.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerStockTotalsDto {
+
+  private long count;
+
+  private long quantity;
+
+  private long max;
+
+  private double fillRatio;
+}
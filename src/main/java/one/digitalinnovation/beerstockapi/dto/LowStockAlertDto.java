@@ -0,0 +1,32 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstockapi.enums.LowStockAlertType;
+
+/**
+ * DTO de um alerta de estoque baixo ou de sua recuperação.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockAlertDto {
+
+  private LowStockAlertType type;
+
+  private Long beerId;
+
+  private String name;
+
+  private int quantity;
+
+  private int lowStock;
+
+  private Instant createdAt;
+}
@@ -0,0 +1,24 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para alteração do limite inferior de estoque.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockDto {
+
+  @Min(0)
+  @Max(500)
+  private Integer lowStock;
+}
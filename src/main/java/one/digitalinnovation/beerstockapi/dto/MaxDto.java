@@ -0,0 +1,26 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para extração do máximo de estoque.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaxDto {
+
+  @NotNull
+  @Min(0)
+  @Max(500)
+  private Integer max;
+}
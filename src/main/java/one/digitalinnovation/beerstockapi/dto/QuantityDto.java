@@ -1,6 +1,7 @@
 package one.digitalinnovation.beerstockapi.dto;
 
 import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,6 +20,7 @@ import lombok.NoArgsConstructor;
 public class QuantityDto {
 
   @NotNull
+  @Min(1)
   @Max(100)
   private Integer quantity;
 }
@@ -0,0 +1,27 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reserva de estoque de uma Beer, válida até {@code expiresAt}.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDto {
+
+  private Long id;
+
+  private Long beerId;
+
+  private int quantity;
+
+  private Instant expiresAt;
+}
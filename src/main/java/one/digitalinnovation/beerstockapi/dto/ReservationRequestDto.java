@@ -0,0 +1,30 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para reserva de estoque. Sem {@code ttlSeconds}, vale
+ * {@code beerstock.reservations.default-ttl}.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationRequestDto {
+
+  @NotNull
+  @Min(1)
+  @Max(100)
+  private Integer quantity;
+
+  @Min(1)
+  private Long ttlSeconds;
+}
@@ -0,0 +1,29 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para um ajuste de estoque: delta positivo incrementa, negativo decrementa.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentDto {
+
+  @NotNull
+  private Long id;
+
+  @NotNull
+  @Min(-100)
+  @Max(100)
+  private Integer delta;
+}
@@ -0,0 +1,31 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para um lote de {@link StockAdjustmentDto}.
+ *
+ * <p>Com {@code atomic} habilitado, qualquer falha desfaz todo o lote.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentRequestDto {
+
+  @Valid
+  @NotEmpty
+  @Size(max = 1000)
+  private List<StockAdjustmentDto> adjustments;
+
+  private boolean atomic;
+}
@@ -0,0 +1,27 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstockapi.enums.StockAdjustmentStatus;
+
+/**
+ * DTO para o resultado de um {@link StockAdjustmentDto}.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentResultDto {
+
+  private Long id;
+
+  private Integer delta;
+
+  private StockAdjustmentStatus status;
+
+  private Integer quantity;
+}
@@ -0,0 +1,29 @@
+package one.digitalinnovation.beerstockapi.dto;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totais de movimentação de estoque em um intervalo iniciado em {@code start}.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementTotalDto {
+
+  private Instant start;
+
+  private long added;
+
+  private long removed;
+
+  private long net;
+
+  private long movements;
+}
@@ -1,5 +1,6 @@
 package one.digitalinnovation.beerstockapi.entity;
 
+import java.util.Locale;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -7,6 +8,10 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -24,12 +29,16 @@ import one.digitalinnovation.beerstockapi.enums.BeerType;
 public class Beer {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beer_sequence")
+  @SequenceGenerator(name = "beer_sequence", sequenceName = "beer_sequence", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false, unique = true)
   private String name;
 
+  @Column(nullable = false, unique = true)
+  private String nameKey;
+
   @Column(nullable = false)
   private String brand;
 
@@ -42,4 +51,24 @@ public class Beer {
   @Enumerated(EnumType.STRING)
   @Column(nullable = false)
   private BeerType type;
+
+  private Integer lowStock;
+
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
+  /**
+   * @return a chave do nome, única entre as Beers, para a consulta sem diferenciar maiúsculas e
+   *     minúsculas
+   */
+  public static String nameKeyOf(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  @PrePersist
+  @PreUpdate
+  void updateNameKey() {
+    nameKey = nameKeyOf(name);
+  }
 }
@@ -0,0 +1,28 @@
+package one.digitalinnovation.beerstockapi.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Representa o último segmento do diário de estoque já gravado em {@link Beer}.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLedgerCheckpoint {
+
+  public static final long SINGLETON_ID = 1L;
+
+  @Id
+  private Long id;
+
+  @Column(nullable = false)
+  private long segment;
+}
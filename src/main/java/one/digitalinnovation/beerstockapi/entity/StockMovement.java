@@ -0,0 +1,46 @@
+package one.digitalinnovation.beerstockapi.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+
+/**
+ * Representa uma alteração de estoque de {@link Beer}, registrada na mesma transação da
+ * alteração. O registro só recebe inclusões.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovement {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private Long beerId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private BeerType beerType;
+
+  @Column(nullable = false)
+  private int delta;
+
+  /**
+   * Instante da alteração, em milissegundos desde a época.
+   */
+  @Column(nullable = false)
+  private long createdAt;
+}
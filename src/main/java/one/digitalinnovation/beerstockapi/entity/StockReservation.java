@@ -0,0 +1,38 @@
+package one.digitalinnovation.beerstockapi.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Representa uma quantidade de {@link Beer} reservada até ser confirmada, liberada ou expirar.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private Long beerId;
+
+  @Column(nullable = false)
+  private int quantity;
+
+  /**
+   * Instante da expiração, em milissegundos desde a época.
+   */
+  @Column(nullable = false)
+  private long expiresAt;
+}
@@ -0,0 +1,40 @@
+package one.digitalinnovation.beerstockapi.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Representa o estoque de uma {@link Beer} em um local, com quantidade e máximo próprios. Cada
+ * local é uma linha, de modo que alterações em locais diferentes da mesma Beer não disputam o
+ * mesmo bloqueio.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseStock {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private Long beerId;
+
+  @Column(nullable = false)
+  private String location;
+
+  @Column(nullable = false)
+  private int max;
+
+  @Column(nullable = false)
+  private int quantity;
+}
@@ -0,0 +1,22 @@
+package one.digitalinnovation.beerstockapi.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+
+/**
+ * Representa os tipos de {@link BeerEvent}.
+ *
+ * @author Marcelo dos Santos
+ */
+@Getter
+@AllArgsConstructor
+public enum BeerEventType {
+
+  CREATED("Created"),
+  DELETED("Deleted"),
+  STOCK_CHANGED("Stock changed"),
+  UPDATED("Updated");
+
+  private final String description;
+}
@@ -0,0 +1,19 @@
+package one.digitalinnovation.beerstockapi.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Representa os motivos de rejeição de uma linha na importação de Beers.
+ *
+ * @author Marcelo dos Santos
+ */
+@Getter
+@AllArgsConstructor
+public enum BeerImportStatus {
+
+  DUPLICATED("Beer name already registered"),
+  INVALID("Missing required fields or wrong field range value");
+
+  private final String description;
+}
@@ -0,0 +1,20 @@
+package one.digitalinnovation.beerstockapi.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import one.digitalinnovation.beerstockapi.dto.LowStockAlertDto;
+
+/**
+ * Representa os tipos de {@link LowStockAlertDto}.
+ *
+ * @author Marcelo dos Santos
+ */
+@Getter
+@AllArgsConstructor
+public enum LowStockAlertType {
+
+  LOW("Low stock"),
+  RECOVERED("Stock recovered");
+
+  private final String description;
+}
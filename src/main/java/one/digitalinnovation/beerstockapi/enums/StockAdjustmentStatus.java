@@ -0,0 +1,21 @@
+package one.digitalinnovation.beerstockapi.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Representa os resultados possíveis de um ajuste de estoque em lote.
+ *
+ * @author Marcelo dos Santos
+ */
+@Getter
+@AllArgsConstructor
+public enum StockAdjustmentStatus {
+
+  APPLIED("Applied"),
+  NOT_FOUND("Beer not found"),
+  STOCK_EXCEEDED("Stock bounds exceeded"),
+  ROLLED_BACK("Rolled back");
+
+  private final String description;
+}
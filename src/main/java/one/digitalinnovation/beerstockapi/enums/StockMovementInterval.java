@@ -0,0 +1,21 @@
+package one.digitalinnovation.beerstockapi.enums;
+
+import java.time.temporal.ChronoUnit;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Representa os intervalos dos totais de movimentação de estoque, em UTC.
+ *
+ * @author Marcelo dos Santos
+ */
+@Getter
+@AllArgsConstructor
+public enum StockMovementInterval {
+
+  HOUR("Hour", ChronoUnit.HOURS),
+  DAY("Day", ChronoUnit.DAYS);
+
+  private final String description;
+  private final ChronoUnit unit;
+}
@@ -0,0 +1,92 @@
+package one.digitalinnovation.beerstockapi.etag;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import one.digitalinnovation.beerstockapi.config.BinaryFormatConfig;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import one.digitalinnovation.beerstockapi.event.StockLedgerFlushEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * ETags das representações de Beer, sem serializar o conteúdo.
+ *
+ * <p>O ETag de uma Beer deriva da sua versão e quantidade, já que a quantidade pode mudar no
+ * livro-razão em memória antes de a versão ser incrementada no banco. O ETag das coleções
+ * avança a cada {@link BeerEvent} após o commit e traz a época da instância, para não coincidir
+ * com valores anteriores a uma reinicialização. Com o livro-razão, as listagens só veem a nova
+ * quantidade depois da gravação no banco, e por isso o ETag avança de novo a cada
+ * {@link StockLedgerFlushEvent}; do contrário, uma listagem lida entre o ajuste e a gravação
+ * ficaria guardada pelo cliente sob o ETag atual. Em ambos os casos ele avança depois de a
+ * escrita ser registrada no roteamento das réplicas, de modo que uma leitura que já vê o novo
+ * ETag não é atendida por uma réplica atrasada. Como ETags fortes distinguem representações, as
+ * que não são JSON (NDJSON e as binárias) recebem o formato como sufixo.
+ *
+ * @author Marcelo dos Santos
+ */
+@Component
+public class BeerETags {
+
+  private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+  private final AtomicLong collectionVersion = new AtomicLong();
+
+  public static String of(BeerDto beerDto) {
+    return beerDto.getId() + "-" + beerDto.getVersion() + "-" + beerDto.getQuantity();
+  }
+
+  public String ofCollection() {
+    return epoch + "-" + collectionVersion.get();
+  }
+
+  /**
+   * @return o ETag acrescido do formato preferido no {@code Accept}, ou o próprio ETag quando
+   *     a representação é JSON
+   */
+  public static String forRepresentation(String eTag, WebRequest webRequest) {
+    String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+    if (accept == null) {
+      return eTag;
+    }
+    try {
+      List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+      MediaType.sortBySpecificityAndQuality(mediaTypes);
+      for (MediaType mediaType : mediaTypes) {
+        if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+          return eTag;
+        }
+        if (mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+          return eTag + "-ndjson";
+        }
+        if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+          return eTag + "-cbor";
+        }
+        if (mediaType.isCompatibleWith(BinaryFormatConfig.APPLICATION_SMILE)) {
+          return eTag + "-smile";
+        }
+      }
+    } catch (InvalidMediaTypeException e) {
+      return eTag;
+    }
+    return eTag;
+  }
+
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBeerEvent(BeerEvent event) {
+    collectionVersion.incrementAndGet();
+  }
+
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  @EventListener
+  public void onStockLedgerFlush(StockLedgerFlushEvent event) {
+    collectionVersion.incrementAndGet();
+  }
+}
@@ -0,0 +1,23 @@
+package one.digitalinnovation.beerstockapi.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.service.BeerService;
+
+/**
+ * Evento publicado pelo {@link BeerService} a cada alteração de Beer.
+ *
+ * <p>O {@code beer} contém o estado após a alteração (ou o último estado, na exclusão).
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@AllArgsConstructor
+public class BeerEvent {
+
+  private final BeerEventType type;
+
+  private final BeerDto beer;
+}
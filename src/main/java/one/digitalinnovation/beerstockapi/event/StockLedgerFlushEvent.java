@@ -0,0 +1,19 @@
+package one.digitalinnovation.beerstockapi.event;
+
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import one.digitalinnovation.beerstockapi.ledger.StockLedger;
+
+/**
+ * Evento publicado pelo {@link StockLedger} depois que uma gravação confirma no banco os deltas
+ * das Beers em {@code beerIds}.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@AllArgsConstructor
+public class StockLedgerFlushEvent {
+
+  private final Set<Long> beerIds;
+}
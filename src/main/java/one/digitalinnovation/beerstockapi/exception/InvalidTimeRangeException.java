@@ -0,0 +1,21 @@
+package one.digitalinnovation.beerstockapi.exception;
+
+import java.io.Serializable;
+import java.time.Instant;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção de intervalo de tempo inválido para Bad Request.
+ *
+ * @author Marcelo dos Santos
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidTimeRangeException extends Exception implements Serializable {
+
+  private static final long serialVersionUID = 42L;
+
+  public InvalidTimeRangeException(Instant from, Instant to) {
+    super(String.format("Time range start %s must be before its end %s", from, to));
+  }
+}
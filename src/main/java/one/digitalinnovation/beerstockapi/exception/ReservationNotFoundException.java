@@ -0,0 +1,20 @@
+package one.digitalinnovation.beerstockapi.exception;
+
+import java.io.Serializable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção de reserva não encontrada ou expirada para Not Found.
+ *
+ * @author Marcelo dos Santos
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ReservationNotFoundException extends Exception implements Serializable {
+
+  private static final long serialVersionUID = 42L;
+
+  public ReservationNotFoundException(Long id) {
+    super(String.format("Reservation with id %s not found in the system or expired.", id));
+  }
+}
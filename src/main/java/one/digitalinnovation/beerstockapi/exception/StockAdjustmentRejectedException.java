@@ -0,0 +1,30 @@
+package one.digitalinnovation.beerstockapi.exception;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentResultDto;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção de lote atômico de ajustes de estoque desfeito para Conflict.
+ *
+ * @author Marcelo dos Santos
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class StockAdjustmentRejectedException extends Exception implements Serializable {
+
+  private static final long serialVersionUID = 42L;
+
+  private final ArrayList<StockAdjustmentResultDto> results;
+
+  public StockAdjustmentRejectedException(List<StockAdjustmentResultDto> results) {
+    super("Stock adjustments were rolled back because at least one of them failed.");
+    this.results = new ArrayList<>(results);
+  }
+
+  public List<StockAdjustmentResultDto> getResults() {
+    return results;
+  }
+}
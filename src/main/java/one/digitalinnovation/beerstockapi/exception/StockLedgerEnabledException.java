@@ -0,0 +1,20 @@
+package one.digitalinnovation.beerstockapi.exception;
+
+import java.io.Serializable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção de operação indisponível com o livro-razão de estoque habilitado para Not Implemented.
+ *
+ * @author Marcelo dos Santos
+ */
+@ResponseStatus(HttpStatus.NOT_IMPLEMENTED)
+public class StockLedgerEnabledException extends Exception implements Serializable {
+
+  private static final long serialVersionUID = 42L;
+
+  public StockLedgerEnabledException(String operation) {
+    super(String.format("%s is not available while the stock ledger is enabled.", operation));
+  }
+}
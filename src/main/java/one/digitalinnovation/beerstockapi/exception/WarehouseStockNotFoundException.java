@@ -0,0 +1,20 @@
+package one.digitalinnovation.beerstockapi.exception;
+
+import java.io.Serializable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção de local de estoque não encontrado para Not Found.
+ *
+ * @author Marcelo dos Santos
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class WarehouseStockNotFoundException extends Exception implements Serializable {
+
+  private static final long serialVersionUID = 42L;
+
+  public WarehouseStockNotFoundException(Long beerId, String location) {
+    super(String.format("Beer with id %s has no stock at location %s.", beerId, location));
+  }
+}
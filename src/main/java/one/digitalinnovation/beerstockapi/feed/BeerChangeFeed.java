@@ -0,0 +1,274 @@
+package one.digitalinnovation.beerstockapi.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.dto.BeerChangeDto;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Fluxo de alterações de Beer por Server-Sent Events.
+ *
+ * <p>Cada {@link BeerEvent} confirmado recebe um número de sequência, é serializado uma única
+ * vez e guardado em um histórico limitado; a entrega à fila de cada assinante é feita por uma
+ * thread de distribuição, fora da thread que confirmou a alteração. O id dos eventos traz a
+ * época da instância, de modo que um cliente reconectado com {@code Last-Event-ID} recebe apenas
+ * o que perdeu ou, quando isso não é possível, um evento {@value #RESET_EVENT} indicando que a
+ * listagem deve ser recarregada. Um assinante cuja fila enche, ou cujo envio fica bloqueado por
+ * mais de {@code send-timeout}, é desconectado e pode retomar do último evento recebido; a
+ * thread de envio presa nele é reposta no pool até o envio terminar, para não atrasar os demais.
+ *
+ * @author Marcelo dos Santos
+ */
+@Component
+public class BeerChangeFeed {
+
+  public static final String RESET_EVENT = "RESET";
+  public static final String SUBSCRIBERS_METRIC = "beerstock.changes.subscribers";
+  public static final String DROPPED_METRIC = "beerstock.changes.dropped";
+
+  private static final char ID_SEPARATOR = '-';
+
+  private final BeerStockProperties.Changes properties;
+  private final ObjectMapper objectMapper;
+  private final Executor dispatcher;
+  private final Executor sender;
+  private final Counter droppedSubscribers;
+  private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+  private final Set<ChangeSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final Set<ChangeSubscriber> draining = ConcurrentHashMap.newKeySet();
+  private final Deque<FeedEvent> history = new ArrayDeque<>();
+  private final Object lock = new Object();
+  private long sequence;
+  private ScheduledExecutorService heartbeat;
+
+  @Autowired
+  public BeerChangeFeed(BeerStockProperties properties, ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry) {
+    this(properties, objectMapper, meterRegistry,
+         Executors.newSingleThreadExecutor(threadFactory("beer-changes-dispatcher")),
+         Executors.newFixedThreadPool(properties.getChanges().getSenderThreads(),
+                                      threadFactory("beer-changes-")));
+  }
+
+  BeerChangeFeed(BeerStockProperties properties, ObjectMapper objectMapper,
+                 MeterRegistry meterRegistry, Executor dispatcher, Executor sender) {
+    this.properties = properties.getChanges();
+    this.objectMapper = objectMapper;
+    this.dispatcher = dispatcher;
+    this.sender = sender;
+    this.droppedSubscribers = meterRegistry.counter(DROPPED_METRIC);
+    meterRegistry.gauge(SUBSCRIBERS_METRIC, subscribers, Set::size);
+  }
+
+  @PostConstruct
+  public void start() {
+    long interval = properties.getHeartbeatInterval().toMillis();
+    long stallCheckInterval = Math.max(1L, properties.getSendTimeout().toMillis() / 2);
+    heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "beer-changes-heartbeat");
+      thread.setDaemon(true);
+      return thread;
+    });
+    heartbeat.scheduleWithFixedDelay(this::sendHeartbeat, interval, interval,
+                                     TimeUnit.MILLISECONDS);
+    heartbeat.scheduleWithFixedDelay(this::dropStalledSubscribers, stallCheckInterval,
+                                     stallCheckInterval, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    heartbeat.shutdownNow();
+    subscribers.forEach(ChangeSubscriber::complete);
+    subscribers.clear();
+    if (dispatcher instanceof ExecutorService) {
+      ((ExecutorService) dispatcher).shutdown();
+    }
+    if (sender instanceof ExecutorService) {
+      ((ExecutorService) sender).shutdown();
+    }
+  }
+
+  public SseEmitter subscribe(String lastEventId) {
+    SseEmitter emitter = newEmitter(properties.getTimeout().toMillis());
+    synchronized (lock) {
+      ChangeSubscriber subscriber =
+          new ChangeSubscriber(emitter, properties.getBufferSize(), sequence);
+      emitter.onCompletion(() -> subscribers.remove(subscriber));
+      emitter.onError(error -> subscribers.remove(subscriber));
+      if (lastEventId == null || replay(subscriber, lastEventId)) {
+        subscribers.add(subscriber);
+      }
+    }
+    return emitter;
+  }
+
+  /**
+   * Numera e guarda o evento; a entrega aos assinantes fica com a thread de distribuição, na
+   * ordem da sequência.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBeerEvent(BeerEvent event) {
+    synchronized (lock) {
+      sequence++;
+      FeedEvent change = new FeedEvent(sequence, idOf(sequence), event.getType().name(),
+                                       toJson(new BeerChangeDto(sequence, event.getType(),
+                                                                event.getBeer())));
+      history.addLast(change);
+      if (history.size() > properties.getReplaySize()) {
+        history.removeFirst();
+      }
+      dispatcher.execute(() -> fanOut(change));
+    }
+  }
+
+  void sendHeartbeat() {
+    subscribers.forEach(subscriber -> deliver(subscriber, FeedEvent.HEARTBEAT));
+  }
+
+  /**
+   * Desconecta os assinantes com um envio bloqueado há {@code send-timeout} ou mais e repõe no
+   * pool a thread de envio presa em cada um.
+   */
+  void dropStalledSubscribers() {
+    long now = System.nanoTime();
+    long timeout = properties.getSendTimeout().toNanos();
+    for (ChangeSubscriber subscriber : draining) {
+      if (subscriber.markStalled(now, timeout)) {
+        drop(subscriber);
+        resizeSender(1);
+      }
+    }
+  }
+
+  SseEmitter newEmitter(long timeout) {
+    return new SseEmitter(timeout);
+  }
+
+  /**
+   * Os assinantes mais novos que o evento já o receberam pelo histórico.
+   */
+  private void fanOut(FeedEvent change) {
+    for (ChangeSubscriber subscriber : subscribers) {
+      if (change.getSequence() > subscriber.getStartAfter()) {
+        deliver(subscriber, change);
+      }
+    }
+  }
+
+  /**
+   * Entrega ao assinante os eventos posteriores a {@code lastEventId}, ou um evento de
+   * {@value #RESET_EVENT} quando eles não estão mais no histórico.
+   */
+  private boolean replay(ChangeSubscriber subscriber, String lastEventId) {
+    long after = sequenceOf(lastEventId);
+    long oldest = history.isEmpty() ? sequence + 1 : history.peekFirst().getSequence();
+    if (after < 0 || after > sequence || after + 1 < oldest) {
+      return deliver(subscriber, new FeedEvent(sequence, idOf(sequence), RESET_EVENT,
+                                               Long.toString(sequence)));
+    }
+    for (FeedEvent change : history) {
+      if (change.getSequence() > after && !deliver(subscriber, change)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean deliver(ChangeSubscriber subscriber, FeedEvent event) {
+    if (!subscriber.offer(event)) {
+      drop(subscriber);
+    }
+    if (subscriber.schedule()) {
+      sender.execute(() -> drain(subscriber));
+    }
+    return !subscriber.isDropped();
+  }
+
+  private void drain(ChangeSubscriber subscriber) {
+    draining.add(subscriber);
+    try {
+      subscriber.drain();
+    } finally {
+      draining.remove(subscriber);
+      if (subscriber.releaseStalled()) {
+        resizeSender(-1);
+      }
+    }
+  }
+
+  private void drop(ChangeSubscriber subscriber) {
+    if (!subscriber.isDropped()) {
+      subscriber.drop();
+      droppedSubscribers.increment();
+    }
+    subscribers.remove(subscriber);
+  }
+
+  private synchronized void resizeSender(int delta) {
+    if (!(sender instanceof ThreadPoolExecutor)) {
+      return;
+    }
+    ThreadPoolExecutor pool = (ThreadPoolExecutor) sender;
+    int size = pool.getCorePoolSize() + delta;
+    if (delta > 0) {
+      pool.setMaximumPoolSize(size);
+      pool.setCorePoolSize(size);
+    } else {
+      pool.setCorePoolSize(size);
+      pool.setMaximumPoolSize(size);
+    }
+  }
+
+  private String idOf(long sequence) {
+    return epoch + ID_SEPARATOR + sequence;
+  }
+
+  /**
+   * @return a sequência do id, ou -1 se o id é de outra instância ou inválido
+   */
+  private long sequenceOf(String id) {
+    int separator = id.lastIndexOf(ID_SEPARATOR);
+    if (separator < 0 || !epoch.equals(id.substring(0, separator))) {
+      return -1L;
+    }
+    try {
+      return Long.parseLong(id.substring(separator + 1));
+    } catch (NumberFormatException e) {
+      return -1L;
+    }
+  }
+
+  private String toJson(BeerChangeDto change) {
+    try {
+      return objectMapper.writeValueAsString(change);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static CustomizableThreadFactory threadFactory(String threadNamePrefix) {
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+    threadFactory.setDaemon(true);
+    return threadFactory;
+  }
+}
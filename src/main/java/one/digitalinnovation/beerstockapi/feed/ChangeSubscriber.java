@@ -0,0 +1,126 @@
+package one.digitalinnovation.beerstockapi.feed;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Assinante do fluxo de alterações, com uma fila limitada esvaziada por no máximo uma thread
+ * de envio por vez. O início do envio em andamento é registrado para que um envio bloqueado por
+ * um cliente lento possa ser detectado.
+ *
+ * @author Marcelo dos Santos
+ */
+final class ChangeSubscriber {
+
+  private final SseEmitter emitter;
+  private final BlockingQueue<FeedEvent> events;
+  private final long startAfter;
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+  private volatile boolean dropped;
+  private volatile boolean completed;
+  private boolean sending;
+  private long sendingSince;
+  private boolean stalled;
+
+  /**
+   * @param startAfter a última sequência já entregue na assinatura, pelo histórico
+   */
+  ChangeSubscriber(SseEmitter emitter, int bufferSize, long startAfter) {
+    this.emitter = emitter;
+    this.events = new ArrayBlockingQueue<>(bufferSize);
+    this.startAfter = startAfter;
+  }
+
+  long getStartAfter() {
+    return startAfter;
+  }
+
+  boolean isDropped() {
+    return dropped;
+  }
+
+  boolean offer(FeedEvent event) {
+    return !dropped && events.offer(event);
+  }
+
+  /**
+   * Descarta os eventos pendentes; o emitter é encerrado pela próxima drenagem.
+   */
+  void drop() {
+    dropped = true;
+    events.clear();
+  }
+
+  /**
+   * @return {@code true} se a drenagem deve ser agendada pelo chamador
+   */
+  boolean schedule() {
+    return scheduled.compareAndSet(false, true);
+  }
+
+  void drain() {
+    do {
+      try {
+        FeedEvent event;
+        while (!dropped && (event = events.poll()) != null) {
+          send(event);
+        }
+      } catch (IOException | IllegalStateException e) {
+        // Conexão encerrada pelo cliente; o contêiner completa a requisição assíncrona.
+        drop();
+        completed = true;
+      }
+      if (dropped && !completed) {
+        completed = true;
+        emitter.complete();
+      }
+      scheduled.set(false);
+    } while (!dropped && !events.isEmpty() && schedule());
+  }
+
+  /**
+   * Marca o envio em andamento como bloqueado se ele começou há {@code timeoutNanos} ou mais.
+   *
+   * @return {@code true} se o envio foi marcado nesta chamada
+   */
+  synchronized boolean markStalled(long nowNanos, long timeoutNanos) {
+    if (!sending || stalled || nowNanos - sendingSince < timeoutNanos) {
+      return false;
+    }
+    stalled = true;
+    return true;
+  }
+
+  /**
+   * @return {@code true} se um envio havia sido marcado como bloqueado
+   */
+  synchronized boolean releaseStalled() {
+    boolean wasStalled = stalled;
+    stalled = false;
+    return wasStalled;
+  }
+
+  void complete() {
+    drop();
+    if (schedule()) {
+      drain();
+    }
+  }
+
+  private void send(FeedEvent event) throws IOException {
+    synchronized (this) {
+      sending = true;
+      sendingSince = System.nanoTime();
+    }
+    try {
+      emitter.send(event.toSseEvent());
+    } finally {
+      synchronized (this) {
+        sending = false;
+      }
+    }
+  }
+}
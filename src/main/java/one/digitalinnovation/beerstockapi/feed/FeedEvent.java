@@ -0,0 +1,30 @@
+package one.digitalinnovation.beerstockapi.feed;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Evento do fluxo de alterações, com os dados já serializados uma única vez para todos os
+ * assinantes.
+ *
+ * @author Marcelo dos Santos
+ */
+@Getter
+@RequiredArgsConstructor
+final class FeedEvent {
+
+  static final FeedEvent HEARTBEAT = new FeedEvent(0L, null, null, null);
+
+  private final long sequence;
+  private final String id;
+  private final String name;
+  private final String data;
+
+  SseEmitter.SseEventBuilder toSseEvent() {
+    if (this == HEARTBEAT) {
+      return SseEmitter.event().comment("heartbeat");
+    }
+    return SseEmitter.event().id(id).name(name).data(data);
+  }
+}
@@ -0,0 +1,266 @@
+package one.digitalinnovation.beerstockapi.idempotency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Atende novamente, a partir do {@link IdempotencyStore}, as requisições POST e PATCH repetidas
+ * com o mesmo cabeçalho {@code Idempotency-Key}, sem chegar ao controlador.
+ *
+ * <p>Só as respostas de sucesso são guardadas, com os cabeçalhos {@code ETag} e
+ * {@code Location}, de modo que um erro pode ser tentado outra vez com a mesma chave. As chaves
+ * são separadas por cliente, o usuário autenticado ou, na falta dele, o endereço remoto, para que
+ * um cliente não receba a resposta guardada para outro. A chave fica presa ao método, ao caminho
+ * e ao corpo da primeira requisição: uma requisição diferente com a mesma chave recebe 422, e uma
+ * repetição enquanto a primeira ainda é processada nesta instância recebe 409.
+ *
+ * @author Marcelo dos Santos
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+  public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+  public static final String IDEMPOTENCY_METRIC = "beerstock.idempotency";
+  public static final int MAX_KEY_LENGTH = 255;
+
+  private final IdempotencyStore store;
+  private final MeterRegistry meterRegistry;
+  private final Set<String> inFlightKeys = ConcurrentHashMap.newKeySet();
+
+  public IdempotencyFilter(IdempotencyStore store, MeterRegistry meterRegistry) {
+    this.store = store;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !HttpMethod.POST.matches(request.getMethod())
+           && !HttpMethod.PATCH.matches(request.getMethod())
+           || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+    if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+      response.sendError(HttpStatus.BAD_REQUEST.value(),
+                         IDEMPOTENCY_KEY_HEADER + " must have 1 to " + MAX_KEY_LENGTH
+                         + " characters");
+      return;
+    }
+    String key = keyOf(request, idempotencyKey);
+    Optional<IdempotentResponse> storedResponse = store.find(key);
+    if (storedResponse.isPresent()) {
+      replay(request, response, storedResponse.get());
+      return;
+    }
+    if (!inFlightKeys.add(key)) {
+      count("in_flight");
+      response.sendError(HttpStatus.CONFLICT.value(),
+                         "A request with this " + IDEMPOTENCY_KEY_HEADER + " is in progress");
+      return;
+    }
+    try {
+      storedResponse = store.find(key);
+      if (storedResponse.isPresent()) {
+        replay(request, response, storedResponse.get());
+        return;
+      }
+      FingerprintingRequest fingerprintingRequest = new FingerprintingRequest(request);
+      ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+      filterChain.doFilter(fingerprintingRequest, cachingResponse);
+      if (HttpStatus.Series.resolve(cachingResponse.getStatus()) == HttpStatus.Series.SUCCESSFUL) {
+        store.save(key, new IdempotentResponse(fingerprintingRequest.fingerprint(),
+                                               cachingResponse.getStatus(),
+                                               cachingResponse.getContentType(),
+                                               cachingResponse.getHeader(HttpHeaders.ETAG),
+                                               cachingResponse.getHeader(HttpHeaders.LOCATION),
+                                               cachingResponse.getContentAsByteArray()));
+        count("stored");
+      }
+      cachingResponse.copyBodyToResponse();
+    } finally {
+      inFlightKeys.remove(key);
+    }
+  }
+
+  private void replay(HttpServletRequest request, HttpServletResponse response,
+                      IdempotentResponse storedResponse) throws IOException {
+    if (!storedResponse.getFingerprint().equals(new FingerprintingRequest(request).fingerprint())) {
+      count("mismatch");
+      response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                         IDEMPOTENCY_KEY_HEADER + " was used with a different request");
+      return;
+    }
+    count("replayed");
+    response.setStatus(storedResponse.getStatus());
+    response.setHeader(REPLAYED_HEADER, Boolean.TRUE.toString());
+    if (storedResponse.getContentType() != null) {
+      response.setContentType(storedResponse.getContentType());
+    }
+    if (storedResponse.getEtag() != null) {
+      response.setHeader(HttpHeaders.ETAG, storedResponse.getEtag());
+    }
+    if (storedResponse.getLocation() != null) {
+      response.setHeader(HttpHeaders.LOCATION, storedResponse.getLocation());
+    }
+    response.setContentLength(storedResponse.getBody().length);
+    response.getOutputStream().write(storedResponse.getBody());
+  }
+
+  /**
+   * @return o SHA-256 do cliente e da chave informada, de tamanho fixo
+   */
+  private static String keyOf(HttpServletRequest request, String idempotencyKey) {
+    Principal principal = request.getUserPrincipal();
+    String client = principal == null ? request.getRemoteAddr() : principal.getName();
+    MessageDigest digest = FingerprintingRequest.sha256();
+    digest.update(client.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) '\n');
+    digest.update(idempotencyKey.getBytes(StandardCharsets.UTF_8));
+    return String.format("%064x", new BigInteger(1, digest.digest()));
+  }
+
+  private void count(String result) {
+    meterRegistry.counter(IDEMPOTENCY_METRIC, "result", result).increment();
+  }
+
+  /**
+   * Calcula o SHA-256 do método, do caminho com a consulta e do corpo à medida que o corpo é
+   * lido, sem guardá-lo; o restante não lido é consumido ao fim.
+   */
+  private static final class FingerprintingRequest extends HttpServletRequestWrapper {
+
+    private final MessageDigest digest;
+    private DigestingInputStream inputStream;
+
+    FingerprintingRequest(HttpServletRequest request) {
+      super(request);
+      digest = sha256();
+      digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) ' ');
+      digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+      if (request.getQueryString() != null) {
+        digest.update((byte) '?');
+        digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+      }
+      digest.update((byte) '\n');
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+      if (inputStream == null) {
+        inputStream = new DigestingInputStream(super.getInputStream(), digest);
+      }
+      return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+      String encoding = getCharacterEncoding();
+      Charset charset = encoding == null ? StandardCharsets.ISO_8859_1 : Charset.forName(encoding);
+      return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+
+    String fingerprint() throws IOException {
+      ((DigestingInputStream) getInputStream()).drain();
+      return String.format("%064x", new BigInteger(1, digest.digest()));
+    }
+
+    private static MessageDigest sha256() {
+      try {
+        return MessageDigest.getInstance("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  private static final class DigestingInputStream extends ServletInputStream {
+
+    private final ServletInputStream delegate;
+    private final MessageDigest digest;
+    private boolean closed;
+
+    DigestingInputStream(ServletInputStream delegate, MessageDigest digest) {
+      this.delegate = delegate;
+      this.digest = digest;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int read = delegate.read();
+      if (read != -1) {
+        digest.update((byte) read);
+      }
+      return read;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int read = delegate.read(buffer, offset, length);
+      if (read > 0) {
+        digest.update(buffer, offset, read);
+      }
+      return read;
+    }
+
+    @Override
+    public boolean isFinished() {
+      return delegate.isFinished();
+    }
+
+    @Override
+    public boolean isReady() {
+      return delegate.isReady();
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+      delegate.setReadListener(readListener);
+    }
+
+    /**
+     * Fechar o corpo, como faz o Jackson ao terminar a leitura, consome antes o restante.
+     */
+    @Override
+    public void close() throws IOException {
+      drain();
+      closed = true;
+      delegate.close();
+    }
+
+    void drain() throws IOException {
+      if (!closed) {
+        transferTo(OutputStream.nullOutputStream());
+      }
+    }
+  }
+}
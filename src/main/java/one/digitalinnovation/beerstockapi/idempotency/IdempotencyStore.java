@@ -0,0 +1,18 @@
+package one.digitalinnovation.beerstockapi.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Armazenamento das respostas recentes por {@code Idempotency-Key}, com expiração.
+ *
+ * @author Marcelo dos Santos
+ */
+public interface IdempotencyStore {
+
+  Optional<IdempotentResponse> find(String key);
+
+  /**
+   * Guarda a resposta, mantendo a primeira quando a chave já existe.
+   */
+  void save(String key, IdempotentResponse response);
+}
@@ -0,0 +1,29 @@
+package one.digitalinnovation.beerstockapi.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resposta guardada para uma {@code Idempotency-Key}, com o fingerprint da requisição que a
+ * produziu e os cabeçalhos {@code ETag} e {@code Location}, repetidos junto com o corpo.
+ *
+ * @author Marcelo dos Santos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotentResponse {
+
+  private String fingerprint;
+
+  private int status;
+
+  private String contentType;
+
+  private String etag;
+
+  private String location;
+
+  private byte[] body;
+}
@@ -0,0 +1,46 @@
+package one.digitalinnovation.beerstockapi.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Optional;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Respostas por {@code Idempotency-Key} em um cache limitado, expiradas após o TTL.
+ *
+ * @author Marcelo dos Santos
+ */
+@Component
+@ConditionalOnProperty(prefix = "beerstock.idempotency", name = "persistent",
+    havingValue = "false", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+  public static final String CACHE_NAME = "idempotency";
+
+  private final Cache<String, IdempotentResponse> responses;
+
+  public InMemoryIdempotencyStore(BeerStockProperties properties, MeterRegistry meterRegistry) {
+    BeerStockProperties.Idempotency idempotencyProperties = properties.getIdempotency();
+    responses = Caffeine.newBuilder()
+                        .maximumSize(idempotencyProperties.getMaximumSize())
+                        .expireAfterWrite(idempotencyProperties.getTtl())
+                        .executor(Runnable::run)
+                        .recordStats()
+                        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, responses, CACHE_NAME);
+  }
+
+  @Override
+  public Optional<IdempotentResponse> find(String key) {
+    return Optional.ofNullable(responses.getIfPresent(key));
+  }
+
+  @Override
+  public void save(String key, IdempotentResponse response) {
+    responses.asMap().putIfAbsent(key, response);
+  }
+}
@@ -0,0 +1,109 @@
+package one.digitalinnovation.beerstockapi.idempotency;
+
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Respostas por {@code Idempotency-Key} na tabela {@code idempotent_response}, compartilhadas
+ * entre as instâncias e mantidas após uma reinicialização. As linhas expiradas são ignoradas na
+ * leitura e removidas a cada {@code purgeInterval}.
+ *
+ * @author Marcelo dos Santos
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "beerstock.idempotency", name = "persistent", havingValue = "true")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+  private static final String SELECT_SQL =
+      "select fingerprint, status, content_type, etag, location, body from idempotent_response "
+      + "where idempotency_key = ? and created_at > ?";
+  private static final String INSERT_SQL =
+      "insert into idempotent_response "
+      + "(idempotency_key, fingerprint, status, content_type, etag, location, body, created_at) "
+      + "values (?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final String REPLACE_EXPIRED_SQL =
+      "update idempotent_response "
+      + "set fingerprint = ?, status = ?, content_type = ?, etag = ?, location = ?, body = ?, "
+      + "created_at = ? "
+      + "where idempotency_key = ? and created_at <= ?";
+  private static final String PURGE_SQL = "delete from idempotent_response where created_at <= ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final BeerStockProperties.Idempotency properties;
+  private ScheduledExecutorService purger;
+
+  public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, BeerStockProperties properties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.properties = properties.getIdempotency();
+  }
+
+  @PostConstruct
+  public void start() {
+    long interval = properties.getPurgeInterval().toMillis();
+    purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "idempotency-purger");
+      thread.setDaemon(true);
+      return thread;
+    });
+    purger.scheduleWithFixedDelay(this::purgeQuietly, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    purger.shutdownNow();
+  }
+
+  @Override
+  public Optional<IdempotentResponse> find(String key) {
+    return jdbcTemplate.query(SELECT_SQL,
+                              (resultSet, rowNum) -> new IdempotentResponse(
+                                  resultSet.getString(1), resultSet.getInt(2),
+                                  resultSet.getString(3), resultSet.getString(4),
+                                  resultSet.getString(5), resultSet.getBytes(6)),
+                              key, expiredBefore())
+                       .stream()
+                       .findFirst();
+  }
+
+  @Override
+  public void save(String key, IdempotentResponse response) {
+    long now = System.currentTimeMillis();
+    try {
+      jdbcTemplate.update(INSERT_SQL, key, response.getFingerprint(), response.getStatus(),
+                          response.getContentType(), response.getEtag(), response.getLocation(),
+                          response.getBody(), now);
+    } catch (DuplicateKeyException e) {
+      jdbcTemplate.update(REPLACE_EXPIRED_SQL, response.getFingerprint(), response.getStatus(),
+                          response.getContentType(), response.getEtag(), response.getLocation(),
+                          response.getBody(), now, key, expiredBefore());
+    }
+  }
+
+  public int purge() {
+    return jdbcTemplate.update(PURGE_SQL, expiredBefore());
+  }
+
+  private void purgeQuietly() {
+    try {
+      purge();
+    } catch (DataAccessException e) {
+      log.warn("Could not purge expired idempotent responses", e);
+    }
+  }
+
+  private long expiredBefore() {
+    return System.currentTimeMillis() - properties.getTtl().toMillis();
+  }
+}
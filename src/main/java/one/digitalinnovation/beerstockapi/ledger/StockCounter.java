@@ -0,0 +1,76 @@
+package one.digitalinnovation.beerstockapi.ledger;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+
+/**
+ * Quantidade em memória de uma Beer e o delta ainda não gravado no banco.
+ *
+ * @author Marcelo dos Santos
+ */
+class StockCounter {
+
+  private volatile BeerDto beer;
+  private final AtomicInteger quantity;
+  private final AtomicInteger pending = new AtomicInteger();
+
+  StockCounter(BeerDto beer) {
+    this.beer = beer;
+    this.quantity = new AtomicInteger(beer.getQuantity());
+  }
+
+  /**
+   * Soma o delta com CAS, respeitando os limites de zero e {@code max}.
+   *
+   * @return a nova quantidade, ou {@code -1} se o limite for excedido
+   */
+  int add(int delta) {
+    int current;
+    int next;
+    do {
+      current = quantity.get();
+      next = current + delta;
+      if (next < 0 || next > beer.getMax()) {
+        return -1;
+      }
+    } while (!quantity.compareAndSet(current, next));
+    return next;
+  }
+
+  void revert(int delta) {
+    quantity.addAndGet(-delta);
+  }
+
+  void addPending(int delta) {
+    pending.addAndGet(delta);
+  }
+
+  int drainPending() {
+    return pending.getAndSet(0);
+  }
+
+  int getQuantity() {
+    return quantity.get();
+  }
+
+  /**
+   * Substitui os demais campos da Beer, mantendo a quantidade em memória.
+   */
+  void update(BeerDto updatedBeer) {
+    beer = updatedBeer;
+  }
+
+  /**
+   * Recomeça da Beer lida do banco, que já inclui os deltas gravados, somando os deltas ainda
+   * pendentes. Deve ser chamado sem ajustes em andamento.
+   */
+  void resync(BeerDto storedBeer) {
+    beer = storedBeer;
+    quantity.set(storedBeer.getQuantity() + pending.get());
+  }
+
+  BeerDto toDto(int currentQuantity) {
+    return new BeerDto(beer.getId(), beer.getName(), beer.getBrand(), beer.getMax(),
+                       currentQuantity, beer.getType(), beer.getLowStock(), beer.getVersion());
+  }
+}
@@ -0,0 +1,131 @@
+package one.digitalinnovation.beerstockapi.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Diário de ajustes de estoque em segmentos numerados ({@code stock-<n>.journal}), com uma linha
+ * {@code id,delta} por ajuste.
+ *
+ * <p>Escritas concorrentes são seguras; a rotação deve ser feita sem escritas em andamento.
+ *
+ * @author Marcelo dos Santos
+ */
+class StockJournal implements Closeable {
+
+  private static final String SEGMENT_PREFIX = "stock-";
+  private static final String SEGMENT_SUFFIX = ".journal";
+
+  private final Path directory;
+  private final boolean fsync;
+  private FileChannel channel;
+  private long segment;
+  private volatile boolean dirty;
+
+  StockJournal(Path directory, boolean fsync, long segment) throws IOException {
+    this.directory = directory;
+    this.fsync = fsync;
+    this.segment = segment;
+    Files.createDirectories(directory);
+    channel = open(segment);
+  }
+
+  void append(long id, int delta) throws IOException {
+    ByteBuffer entry = ByteBuffer.wrap((id + "," + delta + "\n").getBytes(StandardCharsets.UTF_8));
+    while (entry.hasRemaining()) {
+      channel.write(entry);
+    }
+    if (fsync) {
+      channel.force(false);
+    }
+    dirty = true;
+  }
+
+  boolean isDirty() {
+    return dirty;
+  }
+
+  /**
+   * Fecha o segmento atual e passa a escrever no seguinte.
+   *
+   * @return o número do segmento fechado
+   */
+  long rotate() throws IOException {
+    channel.close();
+    long closedSegment = segment;
+    segment++;
+    channel = open(segment);
+    dirty = false;
+    return closedSegment;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private FileChannel open(long segmentNumber) throws IOException {
+    return FileChannel.open(segmentPath(directory, segmentNumber), StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+  static SortedMap<Long, Path> segments(Path directory) throws IOException {
+    SortedMap<Long, Path> segments = new TreeMap<>();
+    if (!Files.isDirectory(directory)) {
+      return segments;
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      files.forEach(file -> {
+        String name = file.getFileName().toString();
+        if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+          String number = name.substring(SEGMENT_PREFIX.length(),
+                                         name.length() - SEGMENT_SUFFIX.length());
+          segments.put(Long.parseLong(number), file);
+        }
+      });
+    }
+    return segments;
+  }
+
+  /**
+   * Soma os deltas do segmento por id. Uma última linha incompleta é de uma escrita interrompida,
+   * nunca confirmada ao cliente, e é ignorada.
+   */
+  static void read(Path segmentPath, Map<Long, Integer> deltas) throws IOException {
+    String[] lines = new String(Files.readAllBytes(segmentPath), StandardCharsets.UTF_8)
+        .split("\n", -1);
+    for (int i = 0; i < lines.length - 1; i++) {
+      String[] entry = lines[i].split(",");
+      deltas.merge(Long.parseLong(entry[0]), Integer.parseInt(entry[1]), Integer::sum);
+    }
+  }
+
+  static void deleteUpTo(Path directory, long lastSegment) throws IOException {
+    for (Path segmentPath : segments(directory).headMap(lastSegment + 1).values()) {
+      Files.deleteIfExists(segmentPath);
+    }
+  }
+
+  static Map<Long, Integer> readAll(Iterable<Path> segmentPaths) throws IOException {
+    Map<Long, Integer> deltas = new HashMap<>();
+    for (Path segmentPath : segmentPaths) {
+      read(segmentPath, deltas);
+    }
+    return deltas;
+  }
+
+  private static Path segmentPath(Path directory, long segmentNumber) {
+    return directory.resolve(SEGMENT_PREFIX + segmentNumber + SEGMENT_SUFFIX);
+  }
+}
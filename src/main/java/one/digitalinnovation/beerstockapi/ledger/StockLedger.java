@@ -0,0 +1,287 @@
+package one.digitalinnovation.beerstockapi.ledger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentDto;
+import one.digitalinnovation.beerstockapi.entity.StockLedgerCheckpoint;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import one.digitalinnovation.beerstockapi.event.StockLedgerFlushEvent;
+import one.digitalinnovation.beerstockapi.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstockapi.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstockapi.mapper.BeerMapper;
+import one.digitalinnovation.beerstockapi.repository.BeerRepository;
+import one.digitalinnovation.beerstockapi.repository.StockLedgerCheckpointRepository;
+import one.digitalinnovation.beerstockapi.repository.StockMovementRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Livro-razão de estoque em memória com gravação posterior no banco.
+ *
+ * <p>Os ajustes são aplicados com CAS em um contador por Beer e registrados no
+ * {@link StockJournal} antes de serem confirmados. Um agendador agrupa os deltas pendentes e os
+ * grava em lote, junto com o {@link StockLedgerCheckpoint} do segmento do diário que eles cobrem.
+ * Na inicialização, os segmentos posteriores ao checkpoint são reaplicados, de modo que uma queda
+ * não perde nem duplica ajustes.
+ *
+ * <p>Enquanto o modo estiver habilitado, o livro-razão é a fonte da quantidade das Beers que já
+ * carregou; as listagens lidas do banco podem atrasar até um intervalo de gravação, e cada
+ * gravação publica um {@link StockLedgerFlushEvent} para que o ETag das coleções avance quando
+ * os novos valores chegam ao banco. Pelo mesmo
+ * motivo, cada gravação registra um único {@code StockMovement} por Beer, com o delta líquido do
+ * intervalo. A cada gravação, os contadores são relidos do banco, de modo que as escritas feitas
+ * fora do livro-razão, como as de outras instâncias, passam a valer em até um intervalo.
+ *
+ * @author Marcelo dos Santos
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "beerstock.ledger", name = "enabled", havingValue = "true")
+public class StockLedger {
+
+  private static final BeerMapper BEER_MAPPER = BeerMapper.INSTANCE;
+
+  private final BeerRepository beerRepository;
+  private final StockLedgerCheckpointRepository checkpointRepository;
+  private final StockMovementRepository stockMovementRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final BeerStockProperties.Ledger properties;
+  private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+  private final ReadWriteLock journalLock = new ReentrantReadWriteLock();
+  private StockJournal journal;
+  private long lastClosedSegment;
+  private ScheduledExecutorService flusher;
+
+  public StockLedger(BeerRepository beerRepository,
+                     StockLedgerCheckpointRepository checkpointRepository,
+                     StockMovementRepository stockMovementRepository,
+                     TransactionTemplate transactionTemplate,
+                     ApplicationEventPublisher eventPublisher, BeerStockProperties properties) {
+    this.beerRepository = beerRepository;
+    this.checkpointRepository = checkpointRepository;
+    this.stockMovementRepository = stockMovementRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.eventPublisher = eventPublisher;
+    this.properties = properties.getLedger();
+  }
+
+  @PostConstruct
+  public void start() throws IOException {
+    long lastSegment = recover();
+    lastClosedSegment = lastSegment;
+    journal = new StockJournal(properties.getJournalDirectory(), properties.isFsync(),
+                               lastSegment + 1);
+    long interval = properties.getFlushInterval().toMillis();
+    flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "stock-ledger-flusher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() throws IOException, InterruptedException {
+    flusher.shutdown();
+    flusher.awaitTermination(properties.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+    flush();
+    journal.close();
+  }
+
+  public BeerDto apply(Long id, int delta)
+      throws BeerNotFoundException, BeerStockExceededException {
+    StockCounter counter = counter(id);
+    journalLock.readLock().lock();
+    try {
+      int quantity = counter.add(delta);
+      if (quantity < 0) {
+        throw new BeerStockExceededException(id, Math.abs(delta));
+      }
+      try {
+        journal.append(id, delta);
+      } catch (IOException e) {
+        counter.revert(delta);
+        throw new UncheckedIOException(e);
+      }
+      counter.addPending(delta);
+      return counter.toDto(quantity);
+    } finally {
+      journalLock.readLock().unlock();
+    }
+  }
+
+  public OptionalInt quantityOf(Long id) {
+    StockCounter counter = counters.get(id);
+    return counter == null ? OptionalInt.empty() : OptionalInt.of(counter.getQuantity());
+  }
+
+  /**
+   * Grava os deltas pendentes e o checkpoint dos segmentos fechados em uma única transação e, na
+   * mesma transação, relê as Beers carregadas para ressincronizar os contadores. Os deltas de uma
+   * gravação que falhou voltam a ficar pendentes e são gravados na seguinte, mesmo que não haja
+   * novos ajustes. Após o commit dos deltas é publicado um {@link StockLedgerFlushEvent}.
+   */
+  public void flush() throws IOException {
+    boolean rotated;
+    long segment;
+    Map<Long, Integer> deltas = new HashMap<>();
+    journalLock.writeLock().lock();
+    try {
+      rotated = journal.isDirty();
+      if (rotated) {
+        lastClosedSegment = journal.rotate();
+      }
+      segment = lastClosedSegment;
+      counters.forEach((id, counter) -> {
+        int delta = counter.drainPending();
+        if (delta != 0) {
+          deltas.put(id, delta);
+        }
+      });
+    } finally {
+      journalLock.writeLock().unlock();
+    }
+    if (counters.isEmpty() && deltas.isEmpty() && !rotated) {
+      return;
+    }
+    Set<Long> ids = new HashSet<>(counters.keySet());
+    List<BeerDto> storedBeers;
+    try {
+      storedBeers = transactionTemplate.execute(status -> {
+        if (rotated || !deltas.isEmpty()) {
+          persist(deltas, segment);
+        }
+        return beerRepository.findAllById(ids)
+                             .stream()
+                             .map(BEER_MAPPER::toDto)
+                             .collect(Collectors.toList());
+      });
+    } catch (RuntimeException e) {
+      deltas.forEach((id, delta) -> {
+        StockCounter counter = counters.get(id);
+        if (counter != null) {
+          counter.addPending(delta);
+        }
+      });
+      throw e;
+    }
+    if (rotated || !deltas.isEmpty()) {
+      StockJournal.deleteUpTo(properties.getJournalDirectory(), segment);
+    }
+    resync(ids, storedBeers);
+    if (!deltas.isEmpty()) {
+      eventPublisher.publishEvent(new StockLedgerFlushEvent(deltas.keySet()));
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBeerEvent(BeerEvent beerEvent) {
+    if (beerEvent.getType() == BeerEventType.DELETED) {
+      counters.remove(beerEvent.getBeer().getId());
+    } else if (beerEvent.getType() == BeerEventType.UPDATED) {
+      StockCounter counter = counters.get(beerEvent.getBeer().getId());
+      if (counter != null) {
+        counter.update(beerEvent.getBeer());
+      }
+    }
+  }
+
+  private StockCounter counter(Long id) throws BeerNotFoundException {
+    StockCounter counter = counters.get(id);
+    if (counter != null) {
+      return counter;
+    }
+    BeerDto beerDto = beerRepository.findById(id)
+                                    .map(BEER_MAPPER::toDto)
+                                    .orElseThrow(() -> new BeerNotFoundException(id));
+    StockCounter loadedCounter = new StockCounter(beerDto);
+    StockCounter concurrentCounter = counters.putIfAbsent(id, loadedCounter);
+    return concurrentCounter == null ? loadedCounter : concurrentCounter;
+  }
+
+  /**
+   * Os contadores das Beers que não existem mais no banco são descartados.
+   */
+  private void resync(Set<Long> ids, List<BeerDto> storedBeers) {
+    journalLock.writeLock().lock();
+    try {
+      for (BeerDto storedBeer : storedBeers) {
+        StockCounter counter = counters.get(storedBeer.getId());
+        if (counter != null) {
+          counter.resync(storedBeer);
+        }
+        ids.remove(storedBeer.getId());
+      }
+      ids.forEach(counters::remove);
+    } finally {
+      journalLock.writeLock().unlock();
+    }
+  }
+
+  private long recover() throws IOException {
+    Path directory = properties.getJournalDirectory();
+    long checkpoint = checkpointRepository.findById(StockLedgerCheckpoint.SINGLETON_ID)
+                                          .map(StockLedgerCheckpoint::getSegment)
+                                          .orElse(0L);
+    SortedMap<Long, Path> segments = StockJournal.segments(directory);
+    if (segments.isEmpty()) {
+      return checkpoint;
+    }
+    SortedMap<Long, Path> pendingSegments = segments.tailMap(checkpoint + 1);
+    long lastSegment = Math.max(checkpoint, segments.lastKey());
+    if (!pendingSegments.isEmpty()) {
+      Map<Long, Integer> deltas = StockJournal.readAll(pendingSegments.values());
+      log.info("Replaying {} stock journal segments with {} beers", pendingSegments.size(),
+               deltas.size());
+      persist(deltas, lastSegment);
+    }
+    StockJournal.deleteUpTo(directory, lastSegment);
+    return lastSegment;
+  }
+
+  private void persist(Map<Long, Integer> deltas, long segment) {
+    transactionTemplate.executeWithoutResult(status -> {
+      beerRepository.addQuantities(deltas);
+      stockMovementRepository.appendAll(
+          deltas.entrySet()
+                .stream()
+                .map(delta -> new StockAdjustmentDto(delta.getKey(), delta.getValue()))
+                .collect(Collectors.toList()));
+      checkpointRepository.save(
+          new StockLedgerCheckpoint(StockLedgerCheckpoint.SINGLETON_ID, segment));
+    });
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Stock ledger flush failed, pending deltas will be retried", e);
+    }
+  }
+}
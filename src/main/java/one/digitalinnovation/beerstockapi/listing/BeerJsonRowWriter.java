@@ -0,0 +1,87 @@
+package one.digitalinnovation.beerstockapi.listing;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.repository.BeerRepositoryCustom;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * Escreve cada linha de {@link BeerRepositoryCustom#queryAll} como um objeto com os mesmos campos
+ * do {@link BeerDto}, direto no {@link JsonGenerator}.
+ *
+ * <p>Os nomes dos campos são pré-codificados e os números são lidos como primitivos, de modo que
+ * por linha restam apenas as alocações do próprio driver JDBC.
+ *
+ * @author Marcelo dos Santos
+ */
+public final class BeerJsonRowWriter implements RowCallbackHandler {
+
+  private static final SerializableString ID = new SerializedString("id");
+  private static final SerializableString NAME = new SerializedString("name");
+  private static final SerializableString BRAND = new SerializedString("brand");
+  private static final SerializableString MAX = new SerializedString("max");
+  private static final SerializableString QUANTITY = new SerializedString("quantity");
+  private static final SerializableString TYPE = new SerializedString("type");
+  private static final SerializableString LOW_STOCK = new SerializedString("lowStock");
+
+  private final JsonGenerator generator;
+  private final boolean lineDelimited;
+
+  private BeerJsonRowWriter(JsonGenerator generator, boolean lineDelimited) {
+    this.generator = generator;
+    this.lineDelimited = lineDelimited;
+  }
+
+  /**
+   * @return o escritor de objetos sucessivos, como elementos de um array já aberto
+   */
+  public static BeerJsonRowWriter elements(JsonGenerator generator) {
+    return new BeerJsonRowWriter(generator, false);
+  }
+
+  /**
+   * @return o escritor de um objeto por linha, em NDJSON
+   */
+  public static BeerJsonRowWriter lines(JsonGenerator generator) {
+    generator.setRootValueSeparator(null);
+    return new BeerJsonRowWriter(generator, true);
+  }
+
+  @Override
+  public void processRow(ResultSet resultSet) throws SQLException {
+    try {
+      generator.writeStartObject();
+      generator.writeFieldName(ID);
+      generator.writeNumber(resultSet.getLong(1));
+      generator.writeFieldName(NAME);
+      generator.writeString(resultSet.getString(2));
+      generator.writeFieldName(BRAND);
+      generator.writeString(resultSet.getString(3));
+      generator.writeFieldName(MAX);
+      generator.writeNumber(resultSet.getInt(4));
+      generator.writeFieldName(QUANTITY);
+      generator.writeNumber(resultSet.getInt(5));
+      generator.writeFieldName(TYPE);
+      generator.writeString(resultSet.getString(6));
+      generator.writeFieldName(LOW_STOCK);
+      int lowStock = resultSet.getInt(7);
+      if (resultSet.wasNull()) {
+        generator.writeNull();
+      } else {
+        generator.writeNumber(lowStock);
+      }
+      generator.writeEndObject();
+      if (lineDelimited) {
+        generator.writeRaw('\n');
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
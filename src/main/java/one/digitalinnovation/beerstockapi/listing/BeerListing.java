@@ -0,0 +1,16 @@
+package one.digitalinnovation.beerstockapi.listing;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+
+/**
+ * Listagem de Beers escrita sob demanda por {@link BeerListingHttpMessageConverter}, no formato
+ * negociado com o cliente, como os elementos de um array.
+ *
+ * @author Marcelo dos Santos
+ */
+@FunctionalInterface
+public interface BeerListing {
+
+  void writeTo(JsonGenerator generator) throws IOException;
+}
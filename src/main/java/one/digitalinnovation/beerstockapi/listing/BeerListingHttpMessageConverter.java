@@ -0,0 +1,86 @@
+package one.digitalinnovation.beerstockapi.listing;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import one.digitalinnovation.beerstockapi.config.BinaryFormatConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Escreve uma {@link BeerListing} como array em JSON, CBOR ou Smile, com a fábrica de geradores
+ * do conversor Jackson de cada formato.
+ *
+ * @author Marcelo dos Santos
+ */
+@Component
+public class BeerListingHttpMessageConverter extends AbstractHttpMessageConverter<BeerListing> {
+
+  private final Map<MediaType, JsonFactory> factories;
+
+  @Autowired
+  public BeerListingHttpMessageConverter(ObjectMapper objectMapper,
+                                         MappingJackson2CborHttpMessageConverter cborConverter,
+                                         MappingJackson2SmileHttpMessageConverter smileConverter) {
+    this(objectMapper.getFactory(), cborConverter.getObjectMapper().getFactory(),
+         smileConverter.getObjectMapper().getFactory());
+  }
+
+  public BeerListingHttpMessageConverter(JsonFactory jsonFactory, JsonFactory cborFactory,
+                                         JsonFactory smileFactory) {
+    super(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+          BinaryFormatConfig.APPLICATION_SMILE);
+    this.factories = Map.of(MediaType.APPLICATION_JSON, jsonFactory,
+                            MediaType.APPLICATION_CBOR, cborFactory,
+                            BinaryFormatConfig.APPLICATION_SMILE, smileFactory);
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return BeerListing.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  protected boolean canRead(MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected BeerListing readInternal(Class<? extends BeerListing> clazz,
+                                     HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException("Beer listings are write-only", inputMessage);
+  }
+
+  @Override
+  protected void writeInternal(BeerListing listing, HttpOutputMessage outputMessage)
+      throws IOException {
+    JsonFactory factory = factoryFor(outputMessage.getHeaders().getContentType());
+    try (JsonGenerator generator = factory.createGenerator(outputMessage.getBody())) {
+      generator.writeStartArray();
+      listing.writeTo(generator);
+      generator.writeEndArray();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private JsonFactory factoryFor(MediaType contentType) {
+    return factories.entrySet()
+                    .stream()
+                    .filter(factory -> factory.getKey().isCompatibleWith(contentType))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(
+                        "Unsupported listing media type " + contentType));
+  }
+}
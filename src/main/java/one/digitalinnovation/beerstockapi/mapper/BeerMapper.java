@@ -3,6 +3,7 @@ package one.digitalinnovation.beerstockapi.mapper;
 import one.digitalinnovation.beerstockapi.dto.BeerDto;
 import one.digitalinnovation.beerstockapi.entity.Beer;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 /**
@@ -15,6 +16,8 @@ public interface BeerMapper {
 
   BeerMapper INSTANCE = Mappers.getMapper(BeerMapper.class);
 
+  @Mapping(target = "nameKey", ignore = true)
+  @Mapping(target = "version", ignore = true)
   Beer toModel(BeerDto beerDto);
 
   BeerDto toDto(Beer beer);
@@ -0,0 +1,51 @@
+package one.digitalinnovation.beerstockapi.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métricas dos métodos públicos dos serviços: tempo de execução, incluindo o commit da
+ * transação, e contagem das exceções lançadas.
+ *
+ * <p>Executa dentro da nova tentativa em conflitos, portanto cada tentativa é medida.
+ *
+ * @author Marcelo dos Santos
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+  public static final String SERVICE_TIMER = "beerstock.service";
+  public static final String EXCEPTIONS_COUNTER = "beerstock.exceptions";
+
+  private static final String NONE = "none";
+
+  private final MeterRegistry meterRegistry;
+
+  @Around("execution(public * one.digitalinnovation.beerstockapi.service..*(..))")
+  public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+    Tags tags = Tags.of("class", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                        "method", joinPoint.getSignature().getName());
+    String exception = NONE;
+    Timer.Sample sample = Timer.start(meterRegistry);
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable e) {
+      exception = e.getClass().getSimpleName();
+      meterRegistry.counter(EXCEPTIONS_COUNTER, tags.and("exception", exception)).increment();
+      throw e;
+    } finally {
+      sample.stop(meterRegistry.timer(SERVICE_TIMER, tags.and("exception", exception)));
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package one.digitalinnovation.beerstockapi.movement;
+
+import java.time.Clock;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.entity.StockMovement;
+import one.digitalinnovation.beerstockapi.repository.StockMovementRepository;
+import one.digitalinnovation.beerstockapi.repository.StockMovementRepositoryCustom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Consolida periodicamente os {@link StockMovement} das horas encerradas em totais por hora, que
+ * mantêm as consultas de longos períodos rápidas.
+ *
+ * <p>Uma hora só é consolidada {@code rollupDelay} após o seu fim, para incluir as transações
+ * iniciadas nela e confirmadas logo depois; as confirmadas ainda mais tarde são somadas na
+ * execução seguinte. Do registro só é alterada a marca do lote de consolidação, e as horas
+ * ainda não consolidadas são consultadas nele.
+ *
+ * @author Marcelo dos Santos
+ */
+@Slf4j
+@Component
+public class StockMovementRollup {
+
+  private final StockMovementRepository stockMovementRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final BeerStockProperties.Movements properties;
+  private final Clock clock;
+  private ScheduledExecutorService roller;
+
+  @Autowired
+  public StockMovementRollup(StockMovementRepository stockMovementRepository,
+                             TransactionTemplate transactionTemplate,
+                             BeerStockProperties properties) {
+    this(stockMovementRepository, transactionTemplate, properties, Clock.systemUTC());
+  }
+
+  StockMovementRollup(StockMovementRepository stockMovementRepository,
+                      TransactionTemplate transactionTemplate, BeerStockProperties properties,
+                      Clock clock) {
+    this.stockMovementRepository = stockMovementRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.properties = properties.getMovements();
+    this.clock = clock;
+  }
+
+  @PostConstruct
+  public void start() {
+    long interval = properties.getRollupInterval().toMillis();
+    roller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "stock-movement-rollup");
+      thread.setDaemon(true);
+      return thread;
+    });
+    roller.scheduleWithFixedDelay(this::rollUpQuietly, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    roller.shutdownNow();
+  }
+
+  /**
+   * @return até onde (exclusive) as movimentações estão consolidadas
+   */
+  public long rollUp() {
+    long closedUpTo = clock.millis() - properties.getRollupDelay().toMillis();
+    long before = closedUpTo - closedUpTo % StockMovementRepositoryCustom.HOUR_MILLIS;
+    Long rolledUpTo = transactionTemplate.execute(
+        status -> stockMovementRepository.rollUp(before));
+    return rolledUpTo == null ? 0L : rolledUpTo;
+  }
+
+  private void rollUpQuietly() {
+    try {
+      rollUp();
+    } catch (DataAccessException e) {
+      log.warn("Stock movement rollup failed, it will be retried", e);
+    }
+  }
+}
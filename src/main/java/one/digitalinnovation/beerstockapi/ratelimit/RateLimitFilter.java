@@ -0,0 +1,133 @@
+package one.digitalinnovation.beerstockapi.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.security.Principal;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Limita as requisições à API por cliente e descarta carga quando a concorrência satura.
+ *
+ * <p>Cada cliente, identificado pelo usuário autenticado ou, na falta dele, pelo endereço remoto,
+ * tem um {@link TokenBucket}; sem token, a resposta é 429. Cabeçalhos informados pelo próprio
+ * cliente não são usados, pois bastaria variá-los para obter um balde novo; atrás de um proxy, o
+ * endereço remoto só é o do cliente com {@code server.forward-headers-strategy} configurado e o
+ * proxy entre os {@code internal-proxies} confiáveis. Os baldes ficam em
+ * um cache limitado, particionado como o {@code ConcurrentHashMap}, e são descartados após
+ * {@code idleTimeout} sem uso, quando já estariam cheios. Depois disso, cada requisição espera
+ * no máximo {@code maxQueueTime} por uma das {@code maxConcurrentRequests} vagas; sem vaga, a
+ * resposta é 503. As duas respostas trazem {@code Retry-After} e não têm corpo, para que
+ * recusar custe pouco. As respostas assíncronas liberam a vaga quando o controlador retorna.
+ *
+ * @author Marcelo dos Santos
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "beerstock.rate-limit", name = "enabled", havingValue = "true",
+    matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  public static final String API_PATH = "/api/";
+  public static final String REJECTED_METRIC = "beerstock.ratelimit.rejected";
+  public static final String CONCURRENT_METRIC = "beerstock.ratelimit.concurrent";
+
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final BeerStockProperties.RateLimit properties;
+  private final LongSupplier nanoClock;
+  private final Cache<String, TokenBucket> buckets;
+  private final Semaphore concurrentRequests;
+  private final Counter rateLimited;
+  private final Counter shed;
+
+  @Autowired
+  public RateLimitFilter(BeerStockProperties properties, MeterRegistry meterRegistry) {
+    this(properties, meterRegistry, System::nanoTime);
+  }
+
+  RateLimitFilter(BeerStockProperties properties, MeterRegistry meterRegistry,
+                  LongSupplier nanoClock) {
+    this.properties = properties.getRateLimit();
+    this.nanoClock = nanoClock;
+    this.buckets = Caffeine.newBuilder()
+                           .maximumSize(this.properties.getMaximumClients())
+                           .expireAfterAccess(this.properties.getIdleTimeout())
+                           .executor(Runnable::run)
+                           .build();
+    int maxConcurrentRequests = this.properties.getMaxConcurrentRequests();
+    this.concurrentRequests = new Semaphore(maxConcurrentRequests);
+    this.rateLimited = meterRegistry.counter(REJECTED_METRIC, "reason", "rate");
+    this.shed = meterRegistry.counter(REJECTED_METRIC, "reason", "concurrency");
+    meterRegistry.gauge(CONCURRENT_METRIC, concurrentRequests,
+                        semaphore -> maxConcurrentRequests - semaphore.availablePermits());
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !request.getRequestURI().startsWith(request.getContextPath() + API_PATH);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    long now = nanoClock.getAsLong();
+    long wait = buckets.get(clientOf(request),
+                            client -> new TokenBucket(properties.getRequestsPerSecond(),
+                                                      properties.getBurst(), now))
+                       .tryConsume(now);
+    if (wait > 0) {
+      rateLimited.increment();
+      reject(response, HttpStatus.TOO_MANY_REQUESTS, wait);
+      return;
+    }
+    if (!acquire()) {
+      shed.increment();
+      reject(response, HttpStatus.SERVICE_UNAVAILABLE, properties.getMaxQueueTime().toNanos());
+      return;
+    }
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      concurrentRequests.release();
+    }
+  }
+
+  private static String clientOf(HttpServletRequest request) {
+    Principal principal = request.getUserPrincipal();
+    return principal == null ? request.getRemoteAddr() : principal.getName();
+  }
+
+  private boolean acquire() {
+    try {
+      return concurrentRequests.tryAcquire(properties.getMaxQueueTime().toNanos(),
+                                           TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static void reject(HttpServletResponse response, HttpStatus status, long waitNanos) {
+    long retryAfterSeconds = Math.max(1L, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+    response.setStatus(status.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+  }
+}
@@ -0,0 +1,42 @@
+package one.digitalinnovation.beerstockapi.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket de um cliente, guardado em um único {@code long} atualizado por CAS.
+ *
+ * <p>Em vez de contar os tokens, guarda o instante teórico em que o balde estará vazio (o
+ * algoritmo GCRA, equivalente ao token bucket): uma requisição é aceita se esse instante não
+ * passar de agora mais a tolerância de rajada, e o avança de um intervalo de emissão.
+ *
+ * @author Marcelo dos Santos
+ */
+final class TokenBucket {
+
+  private final long emissionInterval;
+  private final long burstTolerance;
+  private final AtomicLong theoreticalArrival;
+
+  TokenBucket(double tokensPerSecond, int capacity, long now) {
+    this.emissionInterval = Math.max(1L, Math.round(1_000_000_000L / tokensPerSecond));
+    this.burstTolerance = emissionInterval * (Math.max(1, capacity) - 1);
+    this.theoreticalArrival = new AtomicLong(now);
+  }
+
+  /**
+   * @return zero quando um token foi consumido ou, caso contrário, os nanossegundos até o próximo
+   */
+  long tryConsume(long now) {
+    while (true) {
+      long current = theoreticalArrival.get();
+      long arrival = Math.max(current, now);
+      long wait = arrival - burstTolerance - now;
+      if (wait > 0) {
+        return wait;
+      }
+      if (theoreticalArrival.compareAndSet(current, arrival + emissionInterval)) {
+        return 0;
+      }
+    }
+  }
+}
@@ -1,15 +1,63 @@
 package one.digitalinnovation.beerstockapi.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import javax.persistence.LockModeType;
+import one.digitalinnovation.beerstockapi.dto.BeerGroupTotalsDto;
 import one.digitalinnovation.beerstockapi.entity.Beer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repositório para a entidade {@link Beer}.
  *
  * @author Marcelo dos Santos
  */
-public interface BeerRepository extends JpaRepository<Beer, Long> {
+public interface BeerRepository extends JpaRepository<Beer, Long>, BeerRepositoryCustom {
 
-  Optional<Beer> findByName(String name);
+  /**
+   * @param nameKey a chave do nome, {@link Beer#nameKeyOf(String)}
+   */
+  @Transactional(readOnly = true)
+  Optional<Beer> findByNameKey(String nameKey);
+
+  @Query("select b.nameKey from Beer b where b.nameKey in :nameKeys")
+  Set<String> findNameKeysIn(@Param("nameKeys") Collection<String> nameKeys);
+
+  /**
+   * Lê a Beer bloqueando a linha até o fim da transação, de modo que as reservas e as retiradas
+   * da mesma Beer leiam e alterem as reservas ativas uma de cada vez.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select b from Beer b where b.id = :id")
+  Optional<Beer> findAndLockById(@Param("id") Long id);
+
+  @Query("select new one.digitalinnovation.beerstockapi.dto.BeerGroupTotalsDto("
+         + "b.type, b.brand, count(b), sum(b.quantity), sum(b.max)) "
+         + "from Beer b group by b.type, b.brand")
+  List<BeerGroupTotalsDto> sumByTypeAndBrand();
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Beer b set b.quantity = b.quantity + :quantity, b.version = b.version + 1 "
+         + "where b.id = :id and :quantity > 0 and b.quantity + :quantity <= b.max")
+  int incrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+  /**
+   * Retira a quantidade sem alcançar as reservas da Beer que ainda não expiraram em {@code now}.
+   * A Beer deve estar bloqueada com {@link #findAndLockById(Long)}: sem o bloqueio, uma reserva
+   * gravada ao mesmo tempo não é vista pela subconsulta.
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Beer b set b.quantity = b.quantity - :quantity, b.version = b.version + 1 "
+         + "where b.id = :id and :quantity > 0 and b.quantity - :quantity >= "
+         + "(select coalesce(sum(r.quantity), 0) from StockReservation r "
+         + "where r.beerId = :id and r.expiresAt > :now)")
+  int decrementQuantity(@Param("id") Long id, @Param("quantity") int quantity,
+                        @Param("now") long now);
 }
@@ -0,0 +1,51 @@
+package one.digitalinnovation.beerstockapi.repository;
+
+import java.util.List;
+import java.util.Map;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentDto;
+import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * Operações do {@link BeerRepository} com consultas montadas sob medida ou em JDBC.
+ *
+ * @author Marcelo dos Santos
+ */
+public interface BeerRepositoryCustom {
+
+  /**
+   * Página de Beers com id maior que {@code after}, em ordem de id. Apenas os filtros informados
+   * entram na consulta, para que cada combinação use o seu índice.
+   */
+  List<BeerDto> findPageAfter(Long after, BeerType type, String brand, Pageable pageable);
+
+  /**
+   * Entrega as linhas de todas as Beers, em ordem de id, direto do JDBC, sem criar entidades ou
+   * DTOs. As colunas são, nesta ordem: id, name, brand, max, quantity, type e low_stock.
+   */
+  void queryAll(BeerType type, String brand, RowCallbackHandler rowCallbackHandler);
+
+  /**
+   * Aplica os ajustes em um único lote JDBC, respeitando os limites de {@code max} e das reservas
+   * ativas da Beer (zero, se não houver). As Beers são bloqueadas antes do lote, em ordem de id,
+   * para que as reservas somadas não mudem até o fim da transação.
+   *
+   * @return a quantidade de linhas alteradas por ajuste, na mesma ordem; para os ajustes cujo
+   *     driver não informa a contagem ({@link java.sql.Statement#SUCCESS_NO_INFO}), ela é obtida
+   *     pela versão das Beers antes e depois do lote
+   */
+  int[] adjustQuantities(List<StockAdjustmentDto> adjustments);
+
+  /**
+   * Soma os deltas às quantidades, sem verificar limites, em um único lote JDBC.
+   */
+  void addQuantities(Map<Long, Integer> deltas);
+
+  /**
+   * Insere as Beers em lotes JDBC e libera o contexto de persistência em seguida.
+   */
+  void insertAll(List<Beer> beers);
+}
@@ -0,0 +1,206 @@
+package one.digitalinnovation.beerstockapi.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentDto;
+import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementação de {@link BeerRepositoryCustom} com JPQL montado por filtro e JDBC.
+ *
+ * @author Marcelo dos Santos
+ */
+@RequiredArgsConstructor
+public class BeerRepositoryImpl implements BeerRepositoryCustom {
+
+  private static final String LOCK_BEERS_SQL = "select id, version from beer where id in (%s) "
+                                               + "order by id for update";
+
+  private static final ResultSetExtractor<Map<Long, Long>> VERSIONS = resultSet -> {
+    Map<Long, Long> versions = new HashMap<>();
+    while (resultSet.next()) {
+      versions.put(resultSet.getLong(1), resultSet.getLong(2));
+    }
+    return versions;
+  };
+
+  private static final String ADJUST_QUANTITY_SQL =
+      "update beer set quantity = quantity + ?, version = version + 1 "
+      + "where id = ? and quantity + ? between "
+      + "(select coalesce(sum(r.quantity), 0) from stock_reservation r "
+      + "where r.beer_id = beer.id and r.expires_at > ?) and max";
+
+  private static final String ADD_QUANTITY_SQL =
+      "update beer set quantity = quantity + ?, version = version + 1 where id = ?";
+
+  private static final String SELECT_BEER_DTO =
+      "select new one.digitalinnovation.beerstockapi.dto.BeerDto("
+      + "b.id, b.name, b.brand, b.max, b.quantity, b.type, b.lowStock, b.version) from Beer b";
+
+  private static final String SELECT_BEER_ROWS =
+      "select id, name, brand, max, quantity, type, low_stock from beer";
+
+  private static final int STREAM_FETCH_SIZE = 500;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final EntityManager entityManager;
+
+  @Override
+  public List<BeerDto> findPageAfter(Long after, BeerType type, String brand,
+                                     Pageable pageable) {
+    TypedQuery<BeerDto> query = selectBeerDto(after, type, brand);
+    return query.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+  }
+
+  @Override
+  public void queryAll(BeerType type, String brand, RowCallbackHandler rowCallbackHandler) {
+    StringJoiner conditions = new StringJoiner(" and ", " where ", "").setEmptyValue("");
+    List<Object> arguments = new ArrayList<>(2);
+    if (type != null) {
+      conditions.add("type = ?");
+      arguments.add(type.name());
+    }
+    if (brand != null) {
+      conditions.add("brand = ?");
+      arguments.add(brand);
+    }
+    jdbcTemplate.query(connection -> {
+      PreparedStatement statement =
+          connection.prepareStatement(SELECT_BEER_ROWS + conditions + " order by id");
+      statement.setFetchSize(STREAM_FETCH_SIZE);
+      for (int i = 0; i < arguments.size(); i++) {
+        statement.setObject(i + 1, arguments.get(i));
+      }
+      return statement;
+    }, rowCallbackHandler);
+  }
+
+  private TypedQuery<BeerDto> selectBeerDto(Long after, BeerType type, String brand) {
+    StringJoiner conditions = new StringJoiner(" and ", " where ", "").setEmptyValue("");
+    if (after != null) {
+      conditions.add("b.id > :after");
+    }
+    if (type != null) {
+      conditions.add("b.type = :type");
+    }
+    if (brand != null) {
+      conditions.add("b.brand = :brand");
+    }
+    TypedQuery<BeerDto> query = entityManager.createQuery(
+        SELECT_BEER_DTO + conditions + " order by b.id", BeerDto.class);
+    if (after != null) {
+      query.setParameter("after", after);
+    }
+    if (type != null) {
+      query.setParameter("type", type);
+    }
+    if (brand != null) {
+      query.setParameter("brand", brand);
+    }
+    return query;
+  }
+
+  @Override
+  public int[] adjustQuantities(List<StockAdjustmentDto> adjustments) {
+    if (adjustments.isEmpty()) {
+      return new int[0];
+    }
+    Object[] ids = adjustments.stream().map(StockAdjustmentDto::getId).distinct().toArray();
+    String lockBeersSql =
+        String.format(LOCK_BEERS_SQL, String.join(", ", Collections.nCopies(ids.length, "?")));
+    Map<Long, Long> versionsBefore = jdbcTemplate.query(lockBeersSql, VERSIONS, ids);
+    long now = System.currentTimeMillis();
+    int[] updatedRows =
+        jdbcTemplate.batchUpdate(ADJUST_QUANTITY_SQL, adjustments, adjustments.size(),
+                                 (statement, adjustment) -> {
+                                   statement.setInt(1, adjustment.getDelta());
+                                   statement.setLong(2, adjustment.getId());
+                                   statement.setInt(3, adjustment.getDelta());
+                                   statement.setLong(4, now);
+                                 })[0];
+    if (Arrays.stream(updatedRows).anyMatch(rows -> rows == Statement.SUCCESS_NO_INFO)) {
+      resolveUnreportedCounts(adjustments, updatedRows, versionsBefore,
+                              jdbcTemplate.query(lockBeersSql, VERSIONS, ids));
+    }
+    return updatedRows;
+  }
+
+  /**
+   * Cada ajuste aplicado incrementa a versão da Beer uma vez e as Beers estão bloqueadas desde a
+   * leitura das versões, de modo que a diferença entre elas é o número de ajustes aplicados. Os
+   * ajustes sem contagem de uma Beer são todos aplicados ou todos recusados quando a diferença o
+   * determina; do contrário, não há como saber quais foram aplicados e o lote falha.
+   */
+  private static void resolveUnreportedCounts(List<StockAdjustmentDto> adjustments,
+                                              int[] updatedRows, Map<Long, Long> versionsBefore,
+                                              Map<Long, Long> versionsAfter) {
+    Map<Long, Integer> reportedRows = new HashMap<>();
+    Map<Long, Integer> unreported = new HashMap<>();
+    for (int i = 0; i < updatedRows.length; i++) {
+      Long id = adjustments.get(i).getId();
+      if (updatedRows[i] == Statement.SUCCESS_NO_INFO) {
+        unreported.merge(id, 1, Integer::sum);
+      } else {
+        reportedRows.merge(id, updatedRows[i], Integer::sum);
+      }
+    }
+    for (int i = 0; i < updatedRows.length; i++) {
+      if (updatedRows[i] != Statement.SUCCESS_NO_INFO) {
+        continue;
+      }
+      Long id = adjustments.get(i).getId();
+      long unreportedRows = versionsAfter.getOrDefault(id, 0L)
+                            - versionsBefore.getOrDefault(id, 0L)
+                            - reportedRows.getOrDefault(id, 0);
+      if (unreportedRows == 0) {
+        updatedRows[i] = 0;
+      } else if (unreportedRows == unreported.get(id)) {
+        updatedRows[i] = 1;
+      } else {
+        throw new IncorrectUpdateSemanticsDataAccessException(
+            "Could not tell which of the " + unreported.get(id) + " adjustments of beer " + id
+            + " were applied");
+      }
+    }
+  }
+
+  @Override
+  public void addQuantities(Map<Long, Integer> deltas) {
+    if (deltas.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(ADD_QUANTITY_SQL, deltas.entrySet(), deltas.size(),
+                             (statement, delta) -> {
+                               statement.setInt(1, delta.getValue());
+                               statement.setLong(2, delta.getKey());
+                             });
+  }
+
+  @Override
+  @Transactional
+  public void insertAll(List<Beer> beers) {
+    beers.forEach(entityManager::persist);
+    entityManager.flush();
+    entityManager.clear();
+  }
+}
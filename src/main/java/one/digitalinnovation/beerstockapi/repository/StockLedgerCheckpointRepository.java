@@ -0,0 +1,14 @@
+package one.digitalinnovation.beerstockapi.repository;
+
+import one.digitalinnovation.beerstockapi.entity.StockLedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repositório para a entidade {@link StockLedgerCheckpoint}.
+ *
+ * @author Marcelo dos Santos
+ */
+public interface StockLedgerCheckpointRepository
+    extends JpaRepository<StockLedgerCheckpoint, Long> {
+
+}
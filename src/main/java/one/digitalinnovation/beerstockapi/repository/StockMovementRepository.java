@@ -0,0 +1,14 @@
+package one.digitalinnovation.beerstockapi.repository;
+
+import one.digitalinnovation.beerstockapi.entity.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repositório para a entidade {@link StockMovement}.
+ *
+ * @author Marcelo dos Santos
+ */
+public interface StockMovementRepository
+    extends JpaRepository<StockMovement, Long>, StockMovementRepositoryCustom {
+
+}
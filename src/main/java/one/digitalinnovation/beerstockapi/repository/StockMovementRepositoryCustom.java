@@ -0,0 +1,42 @@
+package one.digitalinnovation.beerstockapi.repository;
+
+import java.util.List;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentDto;
+import one.digitalinnovation.beerstockapi.dto.StockMovementTotalDto;
+import one.digitalinnovation.beerstockapi.entity.StockMovement;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+
+/**
+ * Operações do {@link StockMovementRepository} em JDBC: inclusão em lote, consolidação por hora
+ * e totais.
+ *
+ * @author Marcelo dos Santos
+ */
+public interface StockMovementRepositoryCustom {
+
+  long HOUR_MILLIS = 3_600_000L;
+
+  /**
+   * Registra um {@link StockMovement} por ajuste, com o tipo atual da Beer, em um único lote
+   * JDBC. Deve participar da transação que alterou o estoque.
+   */
+  void appendAll(List<StockAdjustmentDto> movements);
+
+  /**
+   * Consolida em totais por hora as movimentações anteriores a {@code before}, que deve ser o
+   * início de uma hora, e as de horas já consolidadas que foram confirmadas depois disso. Cada
+   * movimentação é marcada com o lote em que foi somada, e a marca de consolidação é bloqueada,
+   * de modo que nenhuma seja somada duas vezes.
+   *
+   * @return a marca de consolidação após a execução
+   */
+  long rollUp(long before);
+
+  /**
+   * Totais por hora, em ordem, das horas de {@code from} (inclusive) a {@code to} (exclusive),
+   * ambos inícios de hora, de uma Beer, de um tipo ou, sem filtros, de todas. As horas já
+   * consolidadas são lidas dos totais, que só incluem uma movimentação confirmada depois da
+   * consolidação quando ela é executada outra vez, e as demais, do registro.
+   */
+  List<StockMovementTotalDto> hourlyTotals(Long beerId, BeerType type, long from, long to);
+}
@@ -0,0 +1,164 @@
+package one.digitalinnovation.beerstockapi.repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import lombok.RequiredArgsConstructor;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentDto;
+import one.digitalinnovation.beerstockapi.dto.StockMovementTotalDto;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Implementação de {@link StockMovementRepositoryCustom} com JDBC.
+ *
+ * @author Marcelo dos Santos
+ */
+@RequiredArgsConstructor
+public class StockMovementRepositoryImpl implements StockMovementRepositoryCustom {
+
+  private static final String INSERT_MOVEMENT_SQL =
+      "insert into stock_movement (beer_id, beer_type, delta, created_at) "
+      + "select id, type, ?, ? from beer where id = ?";
+
+  private static final String LOCK_ROLLUP_SQL =
+      "select rolled_up_to, last_batch from stock_movement_rollup where id = 1 for update";
+
+  private static final String SELECT_ROLLUP_SQL =
+      "select rolled_up_to from stock_movement_rollup where id = 1";
+
+  private static final String UPDATE_ROLLUP_SQL =
+      "update stock_movement_rollup set rolled_up_to = ?, last_batch = ? where id = 1";
+
+  private static final String CLAIM_MOVEMENTS_SQL =
+      "update stock_movement set rollup_batch = ? "
+      + "where rollup_batch is null and created_at < ?";
+
+  private static final String HOUR_OF_CREATED_AT =
+      "created_at - mod(created_at, " + HOUR_MILLIS + ")";
+
+  private static final String MOVEMENT_TOTALS =
+      "sum(case when delta > 0 then delta else 0 end), "
+      + "sum(case when delta < 0 then -delta else 0 end), count(*)";
+
+  private static final String SELECT_BATCH_TOTALS_SQL =
+      "select beer_id, beer_type, " + HOUR_OF_CREATED_AT + ", " + MOVEMENT_TOTALS
+      + " from stock_movement where rollup_batch = ? "
+      + "group by beer_id, beer_type, " + HOUR_OF_CREATED_AT;
+
+  private static final String ADD_HOURLY_SQL =
+      "update stock_movement_hourly "
+      + "set added = added + ?, removed = removed + ?, movements = movements + ? "
+      + "where beer_id = ? and beer_type = ? and hour_start = ?";
+
+  private static final String INSERT_HOURLY_SQL =
+      "insert into stock_movement_hourly "
+      + "(added, removed, movements, beer_id, beer_type, hour_start) "
+      + "values (?, ?, ?, ?, ?, ?)";
+
+  private static final String SELECT_HOURLY_TOTALS =
+      "select hour_start, sum(added), sum(removed), sum(movements) from stock_movement_hourly";
+
+  private static final String SELECT_MOVEMENT_TOTALS =
+      "select " + HOUR_OF_CREATED_AT + ", " + MOVEMENT_TOTALS + " from stock_movement";
+
+  private static final RowMapper<StockMovementTotalDto> TOTAL_ROW_MAPPER =
+      (resultSet, rowNum) -> {
+        long added = resultSet.getLong(2);
+        long removed = resultSet.getLong(3);
+        return new StockMovementTotalDto(Instant.ofEpochMilli(resultSet.getLong(1)), added,
+                                         removed, added - removed, resultSet.getLong(4));
+      };
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void appendAll(List<StockAdjustmentDto> movements) {
+    if (movements.isEmpty()) {
+      return;
+    }
+    long createdAt = System.currentTimeMillis();
+    jdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, movements, movements.size(),
+                             (statement, movement) -> {
+                               statement.setInt(1, movement.getDelta());
+                               statement.setLong(2, createdAt);
+                               statement.setLong(3, movement.getId());
+                             });
+  }
+
+  @Override
+  public long rollUp(long before) {
+    long[] rollup = jdbcTemplate.queryForObject(
+        LOCK_ROLLUP_SQL, (resultSet, rowNum) -> new long[] {resultSet.getLong(1),
+                                                            resultSet.getLong(2)});
+    long rolledUpTo = Math.max(rollup[0], before);
+    long batch = rollup[1] + 1;
+    boolean claimed = jdbcTemplate.update(CLAIM_MOVEMENTS_SQL, batch, before) > 0;
+    if (!claimed && rolledUpTo == rollup[0]) {
+      return rolledUpTo;
+    }
+    if (claimed) {
+      addToHourly(batch);
+    }
+    jdbcTemplate.update(UPDATE_ROLLUP_SQL, rolledUpTo, batch);
+    return rolledUpTo;
+  }
+
+  @Override
+  public List<StockMovementTotalDto> hourlyTotals(Long beerId, BeerType type, long from,
+                                                  long to) {
+    Long rolledUpTo = jdbcTemplate.queryForObject(SELECT_ROLLUP_SQL, Long.class);
+    long boundary = Math.max(from, Math.min(to, rolledUpTo == null ? 0L : rolledUpTo));
+    List<StockMovementTotalDto> totals = new ArrayList<>();
+    if (from < boundary) {
+      totals.addAll(totals(SELECT_HOURLY_TOTALS, "hour_start", "hour_start", beerId, type,
+                           from, boundary));
+    }
+    if (boundary < to) {
+      totals.addAll(totals(SELECT_MOVEMENT_TOTALS, "created_at", HOUR_OF_CREATED_AT, beerId,
+                           type, boundary, to));
+    }
+    return totals;
+  }
+
+  /**
+   * Soma as movimentações do lote aos totais por hora existentes e inclui os que faltam.
+   */
+  private void addToHourly(long batch) {
+    List<Object[]> totals = jdbcTemplate.query(
+        SELECT_BATCH_TOTALS_SQL,
+        (resultSet, rowNum) -> new Object[] {resultSet.getLong(4), resultSet.getLong(5),
+                                             resultSet.getLong(6), resultSet.getLong(1),
+                                             resultSet.getString(2), resultSet.getLong(3)},
+        batch);
+    int[] updatedRows = jdbcTemplate.batchUpdate(ADD_HOURLY_SQL, totals);
+    List<Object[]> missing = new ArrayList<>();
+    for (int i = 0; i < updatedRows.length; i++) {
+      if (updatedRows[i] == 0) {
+        missing.add(totals.get(i));
+      }
+    }
+    jdbcTemplate.batchUpdate(INSERT_HOURLY_SQL, missing);
+  }
+
+  private List<StockMovementTotalDto> totals(String select, String timeColumn, String hour,
+                                             Long beerId, BeerType type, long from, long to) {
+    StringJoiner conditions = new StringJoiner(" and ", " where ", "");
+    List<Object> arguments = new ArrayList<>(4);
+    if (beerId != null) {
+      conditions.add("beer_id = ?");
+      arguments.add(beerId);
+    }
+    if (type != null) {
+      conditions.add("beer_type = ?");
+      arguments.add(type.name());
+    }
+    conditions.add(timeColumn + " >= ?").add(timeColumn + " < ?");
+    arguments.add(from);
+    arguments.add(to);
+    return jdbcTemplate.query(select + conditions + " group by " + hour + " order by 1",
+                              TOTAL_ROW_MAPPER, arguments.toArray());
+  }
+}
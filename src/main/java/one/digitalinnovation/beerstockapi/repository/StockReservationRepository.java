@@ -0,0 +1,28 @@
+package one.digitalinnovation.beerstockapi.repository;
+
+import one.digitalinnovation.beerstockapi.entity.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repositório para a entidade {@link StockReservation}.
+ *
+ * @author Marcelo dos Santos
+ */
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+  /**
+   * @return a soma das reservas da Beer que ainda não expiraram em {@code now}
+   */
+  @Query("select coalesce(sum(r.quantity), 0) from StockReservation r "
+         + "where r.beerId = :beerId and r.expiresAt > :now")
+  long sumActiveQuantity(@Param("beerId") Long beerId, @Param("now") long now);
+
+  @Transactional
+  @Modifying
+  @Query("delete from StockReservation r where r.id = :id and r.expiresAt <= :now")
+  int deleteExpired(@Param("id") Long id, @Param("now") long now);
+}
@@ -0,0 +1,41 @@
+package one.digitalinnovation.beerstockapi.repository;
+
+import java.util.List;
+import java.util.Optional;
+import one.digitalinnovation.beerstockapi.entity.WarehouseStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repositório para a entidade {@link WarehouseStock}.
+ *
+ * @author Marcelo dos Santos
+ */
+public interface WarehouseStockRepository extends JpaRepository<WarehouseStock, Long> {
+
+  Optional<WarehouseStock> findByBeerIdAndLocation(Long beerId, String location);
+
+  List<WarehouseStock> findByBeerIdOrderByLocation(Long beerId);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update WarehouseStock w set w.quantity = w.quantity + :quantity "
+         + "where w.beerId = :beerId and w.location = :location "
+         + "and :quantity > 0 and w.quantity + :quantity <= w.max")
+  int incrementQuantity(@Param("beerId") Long beerId, @Param("location") String location,
+                        @Param("quantity") int quantity);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update WarehouseStock w set w.quantity = w.quantity - :quantity "
+         + "where w.beerId = :beerId and w.location = :location "
+         + "and :quantity > 0 and w.quantity - :quantity >= 0")
+  int decrementQuantity(@Param("beerId") Long beerId, @Param("location") String location,
+                        @Param("quantity") int quantity);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update WarehouseStock w set w.max = :max "
+         + "where w.beerId = :beerId and w.location = :location and w.quantity <= :max")
+  int updateMax(@Param("beerId") Long beerId, @Param("location") String location,
+                @Param("max") int max);
+}
@@ -0,0 +1,89 @@
+package one.digitalinnovation.beerstockapi.reservation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstockapi.entity.StockReservation;
+import one.digitalinnovation.beerstockapi.repository.StockReservationRepository;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remove cada {@link StockReservation} no instante em que expira.
+ *
+ * <p>Cada reserva tem um temporizador na fila de atraso do executor (um heap ordenado pela
+ * expiração), de modo que a tabela não é percorrida periodicamente: só é lida na inicialização,
+ * para agendar as reservas existentes. Os temporizadores não são cancelados na confirmação ou
+ * liberação; ao disparar, removem a reserva apenas se ela ainda existir e tiver expirado. A
+ * remoção é só limpeza: as reservas expiradas já deixam de contar nas consultas.
+ *
+ * @author Marcelo dos Santos
+ */
+@Slf4j
+@Component
+public class StockReservationExpiry {
+
+  public static final String EXPIRED_METRIC = "beerstock.reservations.expired";
+
+  private static final long RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  private final StockReservationRepository stockReservationRepository;
+  private final Counter expired;
+  private ScheduledExecutorService timer;
+
+  public StockReservationExpiry(StockReservationRepository stockReservationRepository,
+                                MeterRegistry meterRegistry) {
+    this.stockReservationRepository = stockReservationRepository;
+    this.expired = meterRegistry.counter(EXPIRED_METRIC);
+  }
+
+  @PostConstruct
+  public void start() {
+    timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "stock-reservation-expiry");
+      thread.setDaemon(true);
+      return thread;
+    });
+    stockReservationRepository.findAll()
+                              .forEach(reservation -> schedule(reservation.getId(),
+                                                               reservation.getExpiresAt()));
+  }
+
+  @PreDestroy
+  public void stop() {
+    timer.shutdownNow();
+  }
+
+  /**
+   * Agenda a remoção da reserva para {@code expiresAt}, em milissegundos desde a época.
+   */
+  public void schedule(Long id, long expiresAt) {
+    long delay = Math.max(0, expiresAt - System.currentTimeMillis());
+    timer.schedule(() -> expireQuietly(id, expiresAt), delay, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * @return se a reserva existia e foi removida
+   */
+  public boolean expire(Long id) {
+    boolean removed = stockReservationRepository.deleteExpired(id, System.currentTimeMillis()) > 0;
+    if (removed) {
+      expired.increment();
+    }
+    return removed;
+  }
+
+  private void expireQuietly(Long id, long expiresAt) {
+    try {
+      expire(id);
+    } catch (DataAccessException e) {
+      log.warn("Stock reservation {} expiry failed, it will be retried", id, e);
+      schedule(id, Math.max(expiresAt, System.currentTimeMillis() + RETRY_DELAY_MILLIS));
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package one.digitalinnovation.beerstockapi.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Executa novamente o método em uma nova transação quando ocorre um conflito de concorrência.
+ *
+ * <p>O primeiro argumento do método identifica a Beer nas métricas de conflito.
+ *
+ * @author Marcelo dos Santos
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
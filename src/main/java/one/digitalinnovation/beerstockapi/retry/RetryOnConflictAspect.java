@@ -0,0 +1,84 @@
+package one.digitalinnovation.beerstockapi.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Nova tentativa com espera exponencial e aleatória dos métodos anotados com
+ * {@link RetryOnConflict}.
+ *
+ * <p>Tem precedência sobre o interceptador de transações, de modo que cada tentativa ocorre em
+ * uma nova transação. Se o método for chamado dentro de uma transação já iniciada, o conflito
+ * é devolvido sem nova tentativa, pois repetir só a chamada não desfaz o restante da
+ * transação, já marcada para reversão. Os conflitos são contados por operação, o que mantém o
+ * número de séries limitado aos métodos anotados; a Beer disputada é registrada no log.
+ *
+ * @author Marcelo dos Santos
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RetryOnConflictAspect {
+
+  public static final String CONFLICTS_METRIC = "beerstock.stock.conflicts";
+
+  private static final int MAX_BACKOFF_SHIFT = 20;
+
+  private final BeerStockProperties.Retry properties;
+  private final MeterRegistry meterRegistry;
+
+  public RetryOnConflictAspect(BeerStockProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties.getRetry();
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Around("@annotation(one.digitalinnovation.beerstockapi.retry.RetryOnConflict)")
+  public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      return joinPoint.proceed();
+    }
+    String operation = joinPoint.getSignature().getName();
+    Object beer = joinPoint.getArgs()[0];
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return joinPoint.proceed();
+      } catch (ConcurrencyFailureException e) {
+        boolean exhausted = attempt >= properties.getMaxAttempts();
+        meterRegistry.counter(CONFLICTS_METRIC, "operation", operation,
+                              "outcome", exhausted ? "exhausted" : "retried")
+                     .increment();
+        if (exhausted) {
+          log.warn("Conflict on beer {} in {} persisted after {} attempts", beer, operation,
+                   attempt);
+          throw e;
+        }
+        log.debug("Conflict on beer {} in {} at attempt {}, retrying", beer, operation, attempt);
+        backOff(attempt, e);
+      }
+    }
+  }
+
+  private void backOff(int attempt, ConcurrencyFailureException conflict) {
+    long ceiling = Math.min(properties.getMaxBackoff().toMillis(),
+                            properties.getInitialBackoff().toMillis()
+                            << Math.min(attempt - 1, MAX_BACKOFF_SHIFT));
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      conflict.addSuppressed(e);
+      throw conflict;
+    }
+  }
+}
@@ -0,0 +1,382 @@
+package one.digitalinnovation.beerstockapi.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import one.digitalinnovation.beerstockapi.repository.BeerRepository;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Índice em memória das palavras do nome e da marca de cada Beer, para a busca enquanto o
+ * usuário digita.
+ *
+ * <p>As palavras são comparadas sem maiúsculas nem acentos. Cada termo da busca encontra as
+ * palavras iguais a ele, as que começam por ele e, com 4 letras ou mais, as que diferem dele por
+ * uma edição (duas a partir de 8 letras), localizadas pelos trigramas em comum. Uma Beer precisa
+ * corresponder a todos os termos, e a ordem é dada pela qualidade das correspondências, com
+ * peso maior para o nome.
+ *
+ * <p>O índice é carregado na inicialização e atualizado pelos {@link BeerEvent} após o commit;
+ * as alterações de estoque não mudam as palavras e são ignoradas. Ele é recarregado a cada
+ * {@code refreshInterval} para incluir as alterações feitas por outras instâncias.
+ *
+ * @author Marcelo dos Santos
+ */
+@Slf4j
+@Component
+public class BeerSearchIndex {
+
+  static final int MIN_FUZZY_LENGTH = 4;
+  static final int MIN_TWO_EDITS_LENGTH = 8;
+  static final int MAX_PREFIX_TERMS = 100;
+
+  private static final int EXACT = 3;
+  private static final int PREFIX = 2;
+  private static final int FUZZY = 1;
+  private static final int TRIGRAMS_PER_EDIT = 4;
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+  private final BeerRepository beerRepository;
+  private final BeerStockProperties.Search properties;
+  private volatile Index index = new Index();
+  private List<Consumer<Index>> pendingUpdates;
+  private ScheduledExecutorService refresher;
+
+  public BeerSearchIndex(BeerRepository beerRepository, BeerStockProperties properties) {
+    this.beerRepository = beerRepository;
+    this.properties = properties.getSearch();
+  }
+
+  @PostConstruct
+  public void start() {
+    rebuild();
+    long interval = properties.getRefreshInterval().toMillis();
+    refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "beer-search-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+    refresher.scheduleWithFixedDelay(this::rebuildQuietly, interval, interval,
+                                     TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    refresher.shutdownNow();
+  }
+
+  /**
+   * @return os ids das Beers encontradas, da mais para a menos relevante
+   */
+  public List<Long> search(String query, int limit) {
+    List<String> terms = termsOf(query);
+    if (terms.isEmpty()) {
+      return Collections.emptyList();
+    }
+    Index current = index;
+    Map<Long, Integer> scores = null;
+    for (String term : terms) {
+      Map<Long, Integer> termScores = current.match(term);
+      if (scores != null) {
+        Map<Long, Integer> previousScores = scores;
+        termScores.keySet().retainAll(previousScores.keySet());
+        termScores.replaceAll((id, score) -> score + previousScores.get(id));
+      }
+      if (termScores.isEmpty()) {
+        return Collections.emptyList();
+      }
+      scores = termScores;
+    }
+    return current.top(scores, limit);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBeerEvent(BeerEvent beerEvent) {
+    BeerDto beer = beerEvent.getBeer();
+    if (beerEvent.getType() == BeerEventType.DELETED) {
+      update(current -> current.remove(beer.getId()));
+    } else if (beerEvent.getType() != BeerEventType.STOCK_CHANGED) {
+      update(current -> current.add(beer.getId(), beer.getName(), beer.getBrand()));
+    }
+  }
+
+  /**
+   * Carrega um novo índice do banco. As atualizações recebidas durante a carga são aplicadas a
+   * ele antes que substitua o atual.
+   */
+  public void rebuild() {
+    synchronized (this) {
+      pendingUpdates = new ArrayList<>();
+    }
+    Index rebuilt = new Index();
+    boolean loaded = false;
+    try {
+      beerRepository.queryAll(null, null, row -> rebuilt.add(row.getLong(1), row.getString(2),
+                                                             row.getString(3)));
+      loaded = true;
+    } finally {
+      synchronized (this) {
+        if (loaded) {
+          pendingUpdates.forEach(pendingUpdate -> pendingUpdate.accept(rebuilt));
+          index = rebuilt;
+        }
+        pendingUpdates = null;
+      }
+    }
+  }
+
+  private void rebuildQuietly() {
+    try {
+      rebuild();
+    } catch (DataAccessException e) {
+      log.warn("Beer search index refresh failed, it will be retried", e);
+    }
+  }
+
+  private synchronized void update(Consumer<Index> update) {
+    update.accept(index);
+    if (pendingUpdates != null) {
+      pendingUpdates.add(update);
+    }
+  }
+
+  /**
+   * @return as palavras de {@code text}, em minúsculas e sem acentos, na ordem em que aparecem
+   */
+  static List<String> termsOf(String text) {
+    if (text == null) {
+      return Collections.emptyList();
+    }
+    String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                         .replaceAll("")
+                         .toLowerCase(Locale.ROOT);
+    Set<String> terms = new LinkedHashSet<>();
+    for (String term : SEPARATORS.split(folded)) {
+      if (!term.isEmpty()) {
+        terms.add(term);
+      }
+    }
+    return new ArrayList<>(terms);
+  }
+
+  private static List<String> trigramsOf(String term) {
+    String padded = "^" + term + "$";
+    List<String> trigrams = new ArrayList<>(padded.length() - 2);
+    for (int i = 0; i + 3 <= padded.length(); i++) {
+      trigrams.add(padded.substring(i, i + 3));
+    }
+    return trigrams;
+  }
+
+  /**
+   * Distância de edição com transposições (Damerau-Levenshtein restrita).
+   */
+  static int distance(String first, String second) {
+    int[][] distances = new int[first.length() + 1][second.length() + 1];
+    for (int i = 0; i <= first.length(); i++) {
+      distances[i][0] = i;
+    }
+    for (int j = 0; j <= second.length(); j++) {
+      distances[0][j] = j;
+    }
+    for (int i = 1; i <= first.length(); i++) {
+      for (int j = 1; j <= second.length(); j++) {
+        int cost = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+        int distance = Math.min(Math.min(distances[i - 1][j] + 1, distances[i][j - 1] + 1),
+                                distances[i - 1][j - 1] + cost);
+        if (i > 1 && j > 1 && first.charAt(i - 1) == second.charAt(j - 2)
+            && first.charAt(i - 2) == second.charAt(j - 1)) {
+          distance = Math.min(distance, distances[i - 2][j - 2] + 1);
+        }
+        distances[i][j] = distance;
+      }
+    }
+    return distances[first.length()][second.length()];
+  }
+
+  /**
+   * Palavras de uma Beer. O nome é guardado para o desempate da ordenação.
+   */
+  private static final class Document {
+
+    private final String name;
+    private final Set<String> nameTerms;
+    private final Set<String> terms;
+
+    private Document(String name, String brand) {
+      this.name = name;
+      this.nameTerms = new HashSet<>(termsOf(name));
+      this.terms = new HashSet<>(nameTerms);
+      this.terms.addAll(termsOf(brand));
+    }
+  }
+
+  /**
+   * Estruturas do índice. As escritas são serializadas pelo {@link BeerSearchIndex}, e as
+   * buscas leem as coleções concorrentes sem bloqueio.
+   */
+  private static final class Index {
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<String, Set<Long>> postings =
+        new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> termsByTrigram = new ConcurrentHashMap<>();
+
+    private void add(Long id, String name, String brand) {
+      remove(id);
+      Document document = new Document(name, brand);
+      documents.put(id, document);
+      for (String term : document.terms) {
+        postings.computeIfAbsent(term, this::addTrigrams).add(id);
+      }
+    }
+
+    private void remove(Long id) {
+      Document document = documents.remove(id);
+      if (document == null) {
+        return;
+      }
+      for (String term : document.terms) {
+        Set<Long> ids = postings.get(term);
+        ids.remove(id);
+        if (ids.isEmpty()) {
+          postings.remove(term);
+          removeTrigrams(term);
+        }
+      }
+    }
+
+    private Set<Long> addTrigrams(String term) {
+      for (String trigram : trigramsOf(term)) {
+        termsByTrigram.computeIfAbsent(trigram, t -> ConcurrentHashMap.newKeySet()).add(term);
+      }
+      return ConcurrentHashMap.newKeySet();
+    }
+
+    private void removeTrigrams(String term) {
+      for (String trigram : trigramsOf(term)) {
+        Set<String> terms = termsByTrigram.get(trigram);
+        terms.remove(term);
+        if (terms.isEmpty()) {
+          termsByTrigram.remove(trigram);
+        }
+      }
+    }
+
+    /**
+     * @return a melhor pontuação de cada Beer com uma palavra correspondente a {@code term}
+     */
+    private Map<Long, Integer> match(String term) {
+      Map<Long, Integer> scores = new HashMap<>();
+      int prefixTerms = 0;
+      for (Map.Entry<String, Set<Long>> posting
+          : postings.subMap(term, true, term + Character.MAX_VALUE, true).entrySet()) {
+        collect(scores, posting.getKey(), posting.getValue(),
+                posting.getKey().equals(term) ? EXACT : PREFIX);
+        if (++prefixTerms == MAX_PREFIX_TERMS) {
+          break;
+        }
+      }
+      if (term.length() >= MIN_FUZZY_LENGTH) {
+        int maxDistance = term.length() >= MIN_TWO_EDITS_LENGTH ? 2 : 1;
+        for (String candidate : fuzzyCandidates(term, maxDistance)) {
+          Set<Long> ids = postings.get(candidate);
+          if (ids != null && distance(term, candidate) <= maxDistance) {
+            collect(scores, candidate, ids, FUZZY);
+          }
+        }
+      }
+      return scores;
+    }
+
+    /**
+     * Palavras com trigramas suficientes em comum com {@code term} para estarem a até
+     * {@code maxDistance} edições dele, exceto as já encontradas como prefixo.
+     */
+    private Set<String> fuzzyCandidates(String term, int maxDistance) {
+      Map<String, Integer> sharedTrigrams = new HashMap<>();
+      for (String trigram : trigramsOf(term)) {
+        for (String candidate : termsByTrigram.getOrDefault(trigram, Collections.emptySet())) {
+          if (Math.abs(candidate.length() - term.length()) <= maxDistance
+              && !candidate.startsWith(term)) {
+            sharedTrigrams.merge(candidate, 1, Integer::sum);
+          }
+        }
+      }
+      int minSharedTrigrams = Math.max(1, term.length() - TRIGRAMS_PER_EDIT * maxDistance);
+      Set<String> candidates = new HashSet<>();
+      sharedTrigrams.forEach((candidate, shared) -> {
+        if (shared >= minSharedTrigrams) {
+          candidates.add(candidate);
+        }
+      });
+      return candidates;
+    }
+
+    private void collect(Map<Long, Integer> scores, String term, Set<Long> ids, int quality) {
+      for (Long id : ids) {
+        Document document = documents.get(id);
+        if (document != null) {
+          int score = quality * 2 + (document.nameTerms.contains(term) ? 1 : 0);
+          scores.merge(id, score, Math::max);
+        }
+      }
+    }
+
+    /**
+     * @return os {@code limit} ids de maior pontuação; no empate, o de nome mais curto
+     */
+    private List<Long> top(Map<Long, Integer> scores, int limit) {
+      Comparator<Map.Entry<Long, Integer>> ranking =
+          Map.Entry.<Long, Integer>comparingByValue()
+                   .reversed()
+                   .thenComparing(entry -> nameOf(entry.getKey()).length())
+                   .thenComparing(entry -> nameOf(entry.getKey()))
+                   .thenComparing(Map.Entry::getKey);
+      PriorityQueue<Map.Entry<Long, Integer>> best = new PriorityQueue<>(ranking.reversed());
+      for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+        best.add(entry);
+        if (best.size() > limit) {
+          best.poll();
+        }
+      }
+      List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(best);
+      ranked.sort(ranking);
+      List<Long> ids = new ArrayList<>(ranked.size());
+      ranked.forEach(entry -> ids.add(entry.getKey()));
+      return ids;
+    }
+
+    private String nameOf(Long id) {
+      Document document = documents.get(id);
+      return document == null ? "" : document.name;
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package one.digitalinnovation.beerstockapi.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.BeerImportReportDto;
+import one.digitalinnovation.beerstockapi.dto.BeerImportRowDto;
+import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.enums.BeerImportStatus;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import one.digitalinnovation.beerstockapi.mapper.BeerMapper;
+import one.digitalinnovation.beerstockapi.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Regras de negócio para a importação em lote de {@link Beer}.
+ *
+ * <p>As linhas são processadas em blocos: cada bloco verifica os nomes já registrados, sem
+ * diferenciar maiúsculas e minúsculas, com uma única consulta {@code IN} e é inserido em lotes
+ * JDBC na sua própria transação.
+ *
+ * @author Marcelo dos Santos
+ */
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerImportService {
+
+  public static final int CHUNK_SIZE = 500;
+
+  private static final int CHUNK_INSERT_ATTEMPTS = 2;
+
+  private static final BeerMapper BEER_MAPPER = BeerMapper.INSTANCE;
+  private final BeerRepository beerRepository;
+  private final Validator validator;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public BeerImportReportDto importBeers(Iterator<BeerDto> beers) {
+    BeerImportReportDto report = new BeerImportReportDto();
+    List<BeerDto> chunk = new ArrayList<>(CHUNK_SIZE);
+    List<Long> chunkRows = new ArrayList<>(CHUNK_SIZE);
+    long row = 0;
+    BeerDto beerDto;
+    while ((beerDto = readNextRow(beers, row + 1, report)) != null) {
+      row++;
+      Set<ConstraintViolation<BeerDto>> violations = validator.validate(beerDto);
+      if (violations.isEmpty()) {
+        chunk.add(beerDto);
+        chunkRows.add(row);
+      } else {
+        report.getRejected().add(invalidRow(row, beerDto.getName(), violations));
+      }
+      if (chunk.size() == CHUNK_SIZE) {
+        importChunk(chunk, chunkRows, report);
+        chunk.clear();
+        chunkRows.clear();
+      }
+    }
+    importChunk(chunk, chunkRows, report);
+    report.getRejected().sort(Comparator.comparingLong(BeerImportRowDto::getRow));
+    return report;
+  }
+
+  /**
+   * Lê a próxima linha, retornando {@code null} ao fim da entrada. Uma linha malformada encerra a
+   * importação, pois não há como ressincronizar a leitura.
+   */
+  private BeerDto readNextRow(Iterator<BeerDto> beers, long row, BeerImportReportDto report) {
+    try {
+      return beers.hasNext() ? beers.next() : null;
+    } catch (RuntimeException e) {
+      report.getRejected().add(new BeerImportRowDto(row, null, BeerImportStatus.INVALID,
+                                                    "Malformed row, import stopped: "
+                                                    + e.getMessage()));
+      return null;
+    }
+  }
+
+  /**
+   * Uma importação concorrente pode registrar um nome entre a verificação e a inserção: a
+   * violação de unicidade desfaz o bloco, que é reclassificado e inserido de novo. Se a violação
+   * persistir, cada linha é inserida na sua própria transação, e só as que violarem a unicidade
+   * são rejeitadas como duplicadas.
+   */
+  private void importChunk(List<BeerDto> chunk, List<Long> chunkRows,
+                           BeerImportReportDto report) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    for (int attempt = 1; ; attempt++) {
+      List<BeerImportRowDto> duplicatedRows = new ArrayList<>();
+      List<Beer> beersToInsert = new ArrayList<>(chunk.size());
+      classifyChunk(chunk, chunkRows, duplicatedRows, beersToInsert, new ArrayList<>());
+      try {
+        beerRepository.insertAll(beersToInsert);
+      } catch (DataIntegrityViolationException e) {
+        if (attempt < CHUNK_INSERT_ATTEMPTS) {
+          continue;
+        }
+        importEachRow(chunk, chunkRows, report);
+        return;
+      }
+      report.getRejected().addAll(duplicatedRows);
+      report.setCreated(report.getCreated() + beersToInsert.size());
+      beersToInsert.forEach(beer -> eventPublisher.publishEvent(
+          new BeerEvent(BeerEventType.CREATED, BEER_MAPPER.toDto(beer))));
+      return;
+    }
+  }
+
+  private void importEachRow(List<BeerDto> chunk, List<Long> chunkRows,
+                             BeerImportReportDto report) {
+    List<BeerImportRowDto> duplicatedRows = new ArrayList<>();
+    List<Beer> beersToInsert = new ArrayList<>(chunk.size());
+    List<Long> rowsToInsert = new ArrayList<>(chunk.size());
+    classifyChunk(chunk, chunkRows, duplicatedRows, beersToInsert, rowsToInsert);
+    report.getRejected().addAll(duplicatedRows);
+    for (int i = 0; i < beersToInsert.size(); i++) {
+      Beer beer = beersToInsert.get(i);
+      try {
+        beerRepository.insertAll(List.of(beer));
+      } catch (DataIntegrityViolationException e) {
+        report.getRejected().add(duplicatedRow(rowsToInsert.get(i), beer.getName()));
+        continue;
+      }
+      report.setCreated(report.getCreated() + 1);
+      eventPublisher.publishEvent(new BeerEvent(BeerEventType.CREATED, BEER_MAPPER.toDto(beer)));
+    }
+  }
+
+  private void classifyChunk(List<BeerDto> chunk, List<Long> chunkRows,
+                             List<BeerImportRowDto> duplicatedRows, List<Beer> beersToInsert,
+                             List<Long> rowsToInsert) {
+    Set<String> registeredNameKeys = beerRepository.findNameKeysIn(
+        chunk.stream().map(beerDto -> Beer.nameKeyOf(beerDto.getName()))
+             .collect(Collectors.toSet()));
+    Set<String> chunkNameKeys = new HashSet<>();
+    for (int i = 0; i < chunk.size(); i++) {
+      BeerDto beerDto = chunk.get(i);
+      String nameKey = Beer.nameKeyOf(beerDto.getName());
+      if (registeredNameKeys.contains(nameKey) || !chunkNameKeys.add(nameKey)) {
+        duplicatedRows.add(duplicatedRow(chunkRows.get(i), beerDto.getName()));
+      } else {
+        Beer beer = BEER_MAPPER.toModel(beerDto);
+        beer.setId(null);
+        beersToInsert.add(beer);
+        rowsToInsert.add(chunkRows.get(i));
+      }
+    }
+  }
+
+  private static BeerImportRowDto duplicatedRow(long row, String name) {
+    return new BeerImportRowDto(row, name, BeerImportStatus.DUPLICATED,
+                                BeerImportStatus.DUPLICATED.getDescription());
+  }
+
+  private BeerImportRowDto invalidRow(long row, String name,
+                                      Set<ConstraintViolation<BeerDto>> violations) {
+    String message = violations.stream()
+                               .map(violation -> violation.getPropertyPath() + " "
+                                                 + violation.getMessage())
+                               .sorted()
+                               .collect(Collectors.joining(", "));
+    return new BeerImportRowDto(row, name, BeerImportStatus.INVALID, message);
+  }
+}
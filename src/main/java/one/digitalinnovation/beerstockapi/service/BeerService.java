@@ -1,18 +1,45 @@
 package one.digitalinnovation.beerstockapi.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstockapi.cache.BeerCache;
 import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.BeerPageDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentRequestDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentResultDto;
 import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import one.digitalinnovation.beerstockapi.enums.StockAdjustmentStatus;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
 import one.digitalinnovation.beerstockapi.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstockapi.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstockapi.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstockapi.exception.StockAdjustmentRejectedException;
+import one.digitalinnovation.beerstockapi.exception.StockLedgerEnabledException;
+import one.digitalinnovation.beerstockapi.ledger.StockLedger;
+import one.digitalinnovation.beerstockapi.listing.BeerJsonRowWriter;
 import one.digitalinnovation.beerstockapi.mapper.BeerMapper;
 import one.digitalinnovation.beerstockapi.repository.BeerRepository;
+import one.digitalinnovation.beerstockapi.repository.StockMovementRepository;
+import one.digitalinnovation.beerstockapi.retry.RetryOnConflict;
+import one.digitalinnovation.beerstockapi.search.BeerSearchIndex;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Regras de negócio para a entidade {@link Beer}.
@@ -23,22 +50,40 @@ import org.springframework.stereotype.Service;
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerService {
 
+  public static final int MAX_PAGE_SIZE = 500;
+  public static final int MAX_SEARCH_RESULTS = 50;
+
   private static final BeerMapper BEER_MAPPER = BeerMapper.INSTANCE;
   private final BeerRepository beerRepository;
+  private final BeerCache beerCache;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ObjectProvider<StockLedger> stockLedger;
+  private final StockMovementRepository stockMovementRepository;
+  private final BeerSearchIndex beerSearchIndex;
 
+  @Transactional
   public BeerDto createBeer(BeerDto beerDto) throws BeerAlreadyRegisteredException {
     verifyIfIsAlreadyRegistered(beerDto.getName());
     Beer beer = BEER_MAPPER.toModel(beerDto);
     Beer savedBeer = beerRepository.save(beer);
-    return BEER_MAPPER.toDto(savedBeer);
+    return publish(BeerEventType.CREATED, BEER_MAPPER.toDto(savedBeer));
   }
 
   public BeerDto findByName(String name) throws BeerNotFoundException {
-    Beer foundBeer = beerRepository.findByName(name)
+    Optional<BeerDto> cachedBeer = beerCache.get(name);
+    if (cachedBeer.isPresent()) {
+      return cachedBeer.get();
+    }
+    Beer foundBeer = beerRepository.findByNameKey(Beer.nameKeyOf(name))
                                    .orElseThrow(() -> new BeerNotFoundException(name));
-    return BEER_MAPPER.toDto(foundBeer);
+    BeerDto foundBeerDto = BEER_MAPPER.toDto(foundBeer);
+    stockLedger.ifAvailable(ledger -> ledger.quantityOf(foundBeerDto.getId())
+                                            .ifPresent(foundBeerDto::setQuantity));
+    beerCache.put(foundBeerDto);
+    return foundBeerDto;
   }
 
+  @Transactional(readOnly = true)
   public List<BeerDto> listAll() {
     return beerRepository.findAll()
                          .stream()
@@ -46,13 +91,67 @@ public class BeerService {
                          .collect(Collectors.toList());
   }
 
+  @Transactional(readOnly = true)
+  public BeerPageDto listPage(Long after, int limit, BeerType type, String brand) {
+    int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    long cursor = after == null ? 0L : after;
+    List<BeerDto> beers =
+        beerRepository.findPageAfter(cursor, type, brand, PageRequest.of(0, pageSize + 1));
+    if (beers.size() <= pageSize) {
+      return new BeerPageDto(beers, null);
+    }
+    List<BeerDto> content = beers.subList(0, pageSize);
+    return new BeerPageDto(content, content.get(pageSize - 1).getId());
+  }
+
+  /**
+   * Escreve as Beers, em ordem de id, direto das linhas JDBC, sem criar entidades ou DTOs.
+   */
+  @Transactional(readOnly = true)
+  public void writeAll(BeerType type, String brand, BeerJsonRowWriter writer) {
+    beerRepository.queryAll(type, brand, writer);
+  }
+
+  /**
+   * Busca pelas palavras do nome e da marca no {@link BeerSearchIndex}; só as Beers encontradas
+   * são lidas do banco, em uma consulta por id.
+   */
+  @Transactional(readOnly = true)
+  public List<BeerDto> search(String query, int limit) {
+    List<Long> ids =
+        beerSearchIndex.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+    if (ids.isEmpty()) {
+      return Collections.emptyList();
+    }
+    Map<Long, Beer> beers = beerRepository.findAllById(ids)
+                                          .stream()
+                                          .collect(Collectors.toMap(Beer::getId,
+                                                                    Function.identity()));
+    StockLedger ledger = stockLedger.getIfAvailable();
+    List<BeerDto> foundBeers = new ArrayList<>(beers.size());
+    for (Long id : ids) {
+      Beer beer = beers.get(id);
+      if (beer != null) {
+        BeerDto beerDto = BEER_MAPPER.toDto(beer);
+        if (ledger != null) {
+          ledger.quantityOf(id).ifPresent(beerDto::setQuantity);
+        }
+        foundBeers.add(beerDto);
+      }
+    }
+    return foundBeers;
+  }
+
+  @RetryOnConflict
+  @Transactional
   public void deleteById(Long id) throws BeerNotFoundException {
-    verifyIfExists(id);
+    Beer beerToDelete = verifyIfExists(id);
     beerRepository.deleteById(id);
+    publish(BeerEventType.DELETED, BEER_MAPPER.toDto(beerToDelete));
   }
 
   private void verifyIfIsAlreadyRegistered(String name) throws BeerAlreadyRegisteredException {
-    Optional<Beer> optSavedBeer = beerRepository.findByName(name);
+    Optional<Beer> optSavedBeer = beerRepository.findByNameKey(Beer.nameKeyOf(name));
     if (optSavedBeer.isPresent()) {
       throw new BeerAlreadyRegisteredException(name);
     }
@@ -63,27 +162,131 @@ public class BeerService {
                          .orElseThrow(() -> new BeerNotFoundException(id));
   }
 
+  @RetryOnConflict
+  @Transactional
   public BeerDto increment(Long id, int quantity)
       throws BeerNotFoundException, BeerStockExceededException {
-    Beer beerToIncrementStock = verifyIfExists(id);
-    int quantityAfterIncrement = quantity + beerToIncrementStock.getQuantity();
-    if (quantityAfterIncrement <= beerToIncrementStock.getMax()) {
-      beerToIncrementStock.setQuantity(beerToIncrementStock.getQuantity() + quantity);
-      Beer incrementedBeerStock = beerRepository.save(beerToIncrementStock);
-      return BEER_MAPPER.toDto(incrementedBeerStock);
+    StockLedger ledger = stockLedger.getIfAvailable();
+    if (ledger != null) {
+      return publish(BeerEventType.STOCK_CHANGED, ledger.apply(id, quantity));
     }
-    throw new BeerStockExceededException(id, quantity);
+    int updatedRows = beerRepository.incrementQuantity(id, quantity);
+    verifyIfStockWasUpdated(updatedRows, id, quantity);
+    stockMovementRepository.appendAll(List.of(new StockAdjustmentDto(id, quantity)));
+    return publish(BeerEventType.STOCK_CHANGED, BEER_MAPPER.toDto(verifyIfExists(id)));
   }
 
+  @RetryOnConflict
+  @Transactional
   public BeerDto decrement(long id, int quantity)
       throws BeerNotFoundException, BeerStockExceededException {
-    Beer beerToDecrementStock = verifyIfExists(id);
-    int quantityAfterDecrement = quantity + beerToDecrementStock.getQuantity();
-    if (quantityAfterDecrement <= beerToDecrementStock.getMax()) {
-      beerToDecrementStock.setQuantity(beerToDecrementStock.getQuantity() - quantity);
-      Beer decrementedBeerStock = beerRepository.save(beerToDecrementStock);
-      return BEER_MAPPER.toDto(decrementedBeerStock);
+    StockLedger ledger = stockLedger.getIfAvailable();
+    if (ledger != null) {
+      return publish(BeerEventType.STOCK_CHANGED, ledger.apply(id, -quantity));
+    }
+    // Bloqueia a Beer para que as reservas somadas na retirada não mudem até o fim da
+    // transação; a Beer inexistente é tratada pela contagem de linhas alteradas.
+    beerRepository.findAndLockById(id);
+    int updatedRows =
+        beerRepository.decrementQuantity(id, quantity, System.currentTimeMillis());
+    verifyIfStockWasUpdated(updatedRows, id, quantity);
+    stockMovementRepository.appendAll(List.of(new StockAdjustmentDto(id, -quantity)));
+    return publish(BeerEventType.STOCK_CHANGED, BEER_MAPPER.toDto(verifyIfExists(id)));
+  }
+
+  /**
+   * Altera o limite inferior de estoque da Beer; {@code null} volta ao percentual padrão.
+   */
+  @RetryOnConflict
+  @Transactional
+  public BeerDto updateLowStock(Long id, Integer lowStock) throws BeerNotFoundException {
+    Beer beer = verifyIfExists(id);
+    beer.setLowStock(lowStock);
+    BeerDto beerDto = BEER_MAPPER.toDto(beerRepository.saveAndFlush(beer));
+    stockLedger.ifAvailable(ledger -> ledger.quantityOf(id).ifPresent(beerDto::setQuantity));
+    return publish(BeerEventType.UPDATED, beerDto);
+  }
+
+  /**
+   * Aplica os ajustes em um único lote JDBC, ordenado por id para manter uma ordem de bloqueio
+   * consistente entre lotes concorrentes. Os resultados seguem a ordem da requisição. Com o
+   * {@link StockLedger} habilitado o lote é recusado, pois alteraria o banco sem passar pelos
+   * contadores em memória.
+   */
+  @Transactional(rollbackFor = StockAdjustmentRejectedException.class)
+  public List<StockAdjustmentResultDto> adjustStock(StockAdjustmentRequestDto request)
+      throws StockAdjustmentRejectedException, StockLedgerEnabledException {
+    if (stockLedger.getIfAvailable() != null) {
+      throw new StockLedgerEnabledException("Batch stock adjustment");
+    }
+    List<StockAdjustmentDto> adjustments = new ArrayList<>(request.getAdjustments());
+    adjustments.sort(Comparator.comparing(StockAdjustmentDto::getId));
+    int[] updatedRows = beerRepository.adjustQuantities(adjustments);
+
+    Set<Long> ids = adjustments.stream()
+                               .map(StockAdjustmentDto::getId)
+                               .collect(Collectors.toSet());
+    Map<Long, BeerDto> beers = beerRepository.findAllById(ids)
+                                             .stream()
+                                             .map(BEER_MAPPER::toDto)
+                                             .collect(Collectors.toMap(BeerDto::getId,
+                                                                       Function.identity()));
+    Map<StockAdjustmentDto, StockAdjustmentStatus> statuses = new IdentityHashMap<>();
+    for (int i = 0; i < adjustments.size(); i++) {
+      StockAdjustmentDto adjustment = adjustments.get(i);
+      statuses.put(adjustment, adjustmentStatus(updatedRows[i], beers.get(adjustment.getId())));
+    }
+
+    boolean rejected = request.isAtomic()
+                       && statuses.values().stream()
+                                  .anyMatch(status -> status != StockAdjustmentStatus.APPLIED);
+    List<StockAdjustmentResultDto> results = new ArrayList<>(adjustments.size());
+    for (StockAdjustmentDto adjustment : request.getAdjustments()) {
+      StockAdjustmentStatus status = statuses.get(adjustment);
+      BeerDto beerDto = beers.get(adjustment.getId());
+      Integer quantity = beerDto == null || rejected ? null : beerDto.getQuantity();
+      if (rejected && status == StockAdjustmentStatus.APPLIED) {
+        status = StockAdjustmentStatus.ROLLED_BACK;
+      }
+      results.add(new StockAdjustmentResultDto(adjustment.getId(), adjustment.getDelta(), status,
+                                               quantity));
+    }
+    if (rejected) {
+      throw new StockAdjustmentRejectedException(results);
+    }
+    stockMovementRepository.appendAll(
+        adjustments.stream()
+                   .filter(adjustment -> statuses.get(adjustment) == StockAdjustmentStatus.APPLIED)
+                   .collect(Collectors.toList()));
+    adjustments.stream()
+               .filter(adjustment -> statuses.get(adjustment) == StockAdjustmentStatus.APPLIED)
+               .map(StockAdjustmentDto::getId)
+               .distinct()
+               .forEach(id -> publish(BeerEventType.STOCK_CHANGED, beers.get(id)));
+    return results;
+  }
+
+  private StockAdjustmentStatus adjustmentStatus(int updatedRows, BeerDto beerDto) {
+    if (updatedRows > 0) {
+      return StockAdjustmentStatus.APPLIED;
+    }
+    return beerDto == null ? StockAdjustmentStatus.NOT_FOUND
+                           : StockAdjustmentStatus.STOCK_EXCEEDED;
+  }
+
+  private void verifyIfStockWasUpdated(int updatedRows, Long id, int quantity)
+      throws BeerNotFoundException, BeerStockExceededException {
+    if (updatedRows > 0) {
+      return;
+    }
+    if (!beerRepository.existsById(id)) {
+      throw new BeerNotFoundException(id);
     }
     throw new BeerStockExceededException(id, quantity);
   }
+
+  private BeerDto publish(BeerEventType type, BeerDto beerDto) {
+    eventPublisher.publishEvent(new BeerEvent(type, beerDto));
+    return beerDto;
+  }
 }
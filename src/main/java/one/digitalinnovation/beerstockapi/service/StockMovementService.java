@@ -0,0 +1,85 @@
+package one.digitalinnovation.beerstockapi.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstockapi.dto.StockMovementTotalDto;
+import one.digitalinnovation.beerstockapi.entity.StockMovement;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import one.digitalinnovation.beerstockapi.enums.StockMovementInterval;
+import one.digitalinnovation.beerstockapi.exception.InvalidTimeRangeException;
+import one.digitalinnovation.beerstockapi.repository.StockMovementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Totais de {@link StockMovement} por intervalo de tempo.
+ *
+ * <p>O período é estendido para horas inteiras. Os totais por hora vêm do repositório e são
+ * somados no intervalo pedido; intervalos sem movimentação não são retornados.
+ *
+ * @author Marcelo dos Santos
+ */
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class StockMovementService {
+
+  private final StockMovementRepository stockMovementRepository;
+
+  @Transactional(readOnly = true)
+  public List<StockMovementTotalDto> totalsOfBeer(Long id, Instant from, Instant to,
+                                                  StockMovementInterval interval)
+      throws InvalidTimeRangeException {
+    return totals(id, null, from, to, interval);
+  }
+
+  /**
+   * Sem {@code type}, totaliza todas as Beers.
+   */
+  @Transactional(readOnly = true)
+  public List<StockMovementTotalDto> totalsOfType(BeerType type, Instant from, Instant to,
+                                                  StockMovementInterval interval)
+      throws InvalidTimeRangeException {
+    return totals(null, type, from, to, interval);
+  }
+
+  private List<StockMovementTotalDto> totals(Long id, BeerType type, Instant from, Instant to,
+                                             StockMovementInterval interval)
+      throws InvalidTimeRangeException {
+    if (!from.isBefore(to)) {
+      throw new InvalidTimeRangeException(from, to);
+    }
+    long fromHour = from.truncatedTo(ChronoUnit.HOURS).toEpochMilli();
+    Instant toHour = to.truncatedTo(ChronoUnit.HOURS);
+    long toHourEnd = (toHour.equals(to) ? toHour : toHour.plus(1, ChronoUnit.HOURS))
+        .toEpochMilli();
+    List<StockMovementTotalDto> hourlyTotals =
+        stockMovementRepository.hourlyTotals(id, type, fromHour, toHourEnd);
+    if (interval == StockMovementInterval.HOUR) {
+      return hourlyTotals;
+    }
+    Map<Instant, StockMovementTotalDto> totals = new LinkedHashMap<>();
+    for (StockMovementTotalDto hourlyTotal : hourlyTotals) {
+      totals.merge(hourlyTotal.getStart().truncatedTo(interval.getUnit()), hourlyTotal,
+                   StockMovementService::sum);
+    }
+    List<StockMovementTotalDto> intervalTotals = new ArrayList<>(totals.size());
+    totals.forEach((start, total) -> intervalTotals.add(
+        new StockMovementTotalDto(start, total.getAdded(), total.getRemoved(), total.getNet(),
+                                  total.getMovements())));
+    return intervalTotals;
+  }
+
+  private static StockMovementTotalDto sum(StockMovementTotalDto first,
+                                           StockMovementTotalDto second) {
+    return new StockMovementTotalDto(first.getStart(), first.getAdded() + second.getAdded(),
+                                     first.getRemoved() + second.getRemoved(),
+                                     first.getNet() + second.getNet(),
+                                     first.getMovements() + second.getMovements());
+  }
+}
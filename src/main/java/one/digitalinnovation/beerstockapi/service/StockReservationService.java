@@ -0,0 +1,109 @@
+package one.digitalinnovation.beerstockapi.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.ReservationDto;
+import one.digitalinnovation.beerstockapi.dto.ReservationRequestDto;
+import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.entity.StockReservation;
+import one.digitalinnovation.beerstockapi.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstockapi.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstockapi.exception.ReservationNotFoundException;
+import one.digitalinnovation.beerstockapi.exception.StockLedgerEnabledException;
+import one.digitalinnovation.beerstockapi.ledger.StockLedger;
+import one.digitalinnovation.beerstockapi.repository.BeerRepository;
+import one.digitalinnovation.beerstockapi.repository.StockReservationRepository;
+import one.digitalinnovation.beerstockapi.reservation.StockReservationExpiry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Regras de negócio para as reservas de estoque, {@link StockReservation}.
+ *
+ * <p>A reserva só grava a própria linha: a quantidade da {@link Beer} é alterada uma única vez,
+ * na confirmação, e a liberação ou a expiração não alteram a Beer. A disponibilidade é a
+ * quantidade menos as reservas que não expiraram; a reserva bloqueia a linha da Beer antes de
+ * somá-las, assim como as retiradas, de modo que reservas e retiradas simultâneas não a
+ * ultrapassam. Com o {@link StockLedger} habilitado as reservas são recusadas, pois as retiradas
+ * pelos contadores em memória não consideram as reservas.
+ *
+ * @author Marcelo dos Santos
+ */
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class StockReservationService {
+
+  private final BeerRepository beerRepository;
+  private final StockReservationRepository stockReservationRepository;
+  private final ObjectProvider<StockLedger> stockLedger;
+  private final BeerService beerService;
+  private final StockReservationExpiry stockReservationExpiry;
+  private final BeerStockProperties properties;
+
+  @Transactional
+  public ReservationDto reserve(Long beerId, ReservationRequestDto reservationRequestDto)
+      throws BeerNotFoundException, BeerStockExceededException, StockLedgerEnabledException {
+    if (stockLedger.getIfAvailable() != null) {
+      throw new StockLedgerEnabledException("Stock reservation");
+    }
+    Beer beer = beerRepository.findAndLockById(beerId)
+                              .orElseThrow(() -> new BeerNotFoundException(beerId));
+    long now = System.currentTimeMillis();
+    int quantityToReserve = reservationRequestDto.getQuantity();
+    if (beer.getQuantity() - stockReservationRepository.sumActiveQuantity(beerId, now)
+        < quantityToReserve) {
+      throw new BeerStockExceededException(beerId, quantityToReserve);
+    }
+    long expiresAt = now + ttlOf(reservationRequestDto).toMillis();
+    StockReservation reservation = stockReservationRepository.save(
+        new StockReservation(null, beerId, quantityToReserve, expiresAt));
+    stockReservationExpiry.schedule(reservation.getId(), expiresAt);
+    return toDto(reservation);
+  }
+
+  /**
+   * Retira a quantidade reservada da Beer e remove a reserva. Se a retirada falhar, a reserva é
+   * mantida até ser liberada ou expirar. A retirada ocorre nesta transação e, por isso, um
+   * conflito não é repetido por ela, mas devolvido a quem confirmou.
+   */
+  @Transactional(rollbackFor = BeerStockExceededException.class)
+  public BeerDto commit(Long id)
+      throws ReservationNotFoundException, BeerNotFoundException, BeerStockExceededException {
+    StockReservation reservation = verifyIfIsActive(id);
+    stockReservationRepository.delete(reservation);
+    stockReservationRepository.flush();
+    return beerService.decrement(reservation.getBeerId(), reservation.getQuantity());
+  }
+
+  @Transactional
+  public void release(Long id) throws ReservationNotFoundException {
+    stockReservationRepository.delete(verifyIfIsActive(id));
+  }
+
+  private StockReservation verifyIfIsActive(Long id) throws ReservationNotFoundException {
+    return stockReservationRepository.findById(id)
+                                     .filter(reservation -> reservation.getExpiresAt()
+                                                            > System.currentTimeMillis())
+                                     .orElseThrow(() -> new ReservationNotFoundException(id));
+  }
+
+  private Duration ttlOf(ReservationRequestDto reservationRequestDto) {
+    BeerStockProperties.Reservations reservations = properties.getReservations();
+    if (reservationRequestDto.getTtlSeconds() == null) {
+      return reservations.getDefaultTtl();
+    }
+    Duration ttl = Duration.ofSeconds(reservationRequestDto.getTtlSeconds());
+    return ttl.compareTo(reservations.getMaxTtl()) > 0 ? reservations.getMaxTtl() : ttl;
+  }
+
+  private static ReservationDto toDto(StockReservation reservation) {
+    return new ReservationDto(reservation.getId(), reservation.getBeerId(),
+                              reservation.getQuantity(),
+                              Instant.ofEpochMilli(reservation.getExpiresAt()));
+  }
+}
@@ -0,0 +1,133 @@
+package one.digitalinnovation.beerstockapi.service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstockapi.dto.BeerStockDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentDto;
+import one.digitalinnovation.beerstockapi.dto.WarehouseStockDto;
+import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.entity.WarehouseStock;
+import one.digitalinnovation.beerstockapi.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstockapi.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstockapi.exception.WarehouseStockNotFoundException;
+import one.digitalinnovation.beerstockapi.ledger.StockLedger;
+import one.digitalinnovation.beerstockapi.repository.BeerRepository;
+import one.digitalinnovation.beerstockapi.repository.StockMovementRepository;
+import one.digitalinnovation.beerstockapi.repository.WarehouseStockRepository;
+import one.digitalinnovation.beerstockapi.retry.RetryOnConflict;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Regras de negócio para o estoque por local, {@link WarehouseStock}.
+ *
+ * <p>As alterações de um local atualizam só a linha dele, sem bloquear a {@link Beer}; a
+ * movimentação é registrada para a Beer, de modo que os totais de movimentação somam todos os
+ * locais.
+ *
+ * @author Marcelo dos Santos
+ */
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class WarehouseStockService {
+
+  private final BeerRepository beerRepository;
+  private final WarehouseStockRepository warehouseStockRepository;
+  private final ObjectProvider<StockLedger> stockLedger;
+  private final StockMovementRepository stockMovementRepository;
+
+  /**
+   * Soma o estoque da Beer, o sem local e o de cada local.
+   */
+  @Transactional(readOnly = true)
+  public BeerStockDto stockOf(Long beerId) throws BeerNotFoundException {
+    Beer beer = beerRepository.findById(beerId)
+                              .orElseThrow(() -> new BeerNotFoundException(beerId));
+    StockLedger ledger = stockLedger.getIfAvailable();
+    long quantity = ledger == null ? beer.getQuantity()
+                                   : ledger.quantityOf(beerId).orElse(beer.getQuantity());
+    long max = beer.getMax();
+    List<WarehouseStockDto> locations =
+        warehouseStockRepository.findByBeerIdOrderByLocation(beerId)
+                                .stream()
+                                .map(WarehouseStockService::toDto)
+                                .collect(Collectors.toList());
+    for (WarehouseStockDto location : locations) {
+      quantity += location.getQuantity();
+      max += location.getMax();
+    }
+    return new BeerStockDto(beerId, quantity, max, locations);
+  }
+
+  /**
+   * Cria o local, com quantidade zero, ou altera o seu máximo, que não pode ficar abaixo da
+   * quantidade atual. Se o local for criado por outra requisição ao mesmo tempo, a inserção viola
+   * a chave única e a nova tentativa, em outra transação, altera o máximo do local já criado.
+   */
+  @RetryOnConflict
+  @Transactional
+  public WarehouseStockDto updateMax(Long beerId, String location, int max)
+      throws BeerNotFoundException, BeerStockExceededException {
+    if (warehouseStockRepository.findByBeerIdAndLocation(beerId, location).isEmpty()) {
+      if (!beerRepository.existsById(beerId)) {
+        throw new BeerNotFoundException(beerId);
+      }
+      try {
+        return toDto(warehouseStockRepository.saveAndFlush(
+            new WarehouseStock(null, beerId, location, max, 0)));
+      } catch (DataIntegrityViolationException e) {
+        throw new ConcurrencyFailureException(
+            "Location " + location + " of beer " + beerId + " was created concurrently", e);
+      }
+    }
+    if (warehouseStockRepository.updateMax(beerId, location, max) == 0) {
+      throw new BeerStockExceededException(beerId, max);
+    }
+    return toDto(warehouseStockRepository.findByBeerIdAndLocation(beerId, location)
+                                         .orElseThrow());
+  }
+
+  @RetryOnConflict
+  @Transactional
+  public WarehouseStockDto increment(Long beerId, String location, int quantity)
+      throws BeerNotFoundException, WarehouseStockNotFoundException, BeerStockExceededException {
+    int updatedRows = warehouseStockRepository.incrementQuantity(beerId, location, quantity);
+    return afterUpdate(updatedRows, beerId, location, quantity);
+  }
+
+  @RetryOnConflict
+  @Transactional
+  public WarehouseStockDto decrement(Long beerId, String location, int quantity)
+      throws BeerNotFoundException, WarehouseStockNotFoundException, BeerStockExceededException {
+    int updatedRows = warehouseStockRepository.decrementQuantity(beerId, location, quantity);
+    return afterUpdate(updatedRows, beerId, location, -quantity);
+  }
+
+  private WarehouseStockDto afterUpdate(int updatedRows, Long beerId, String location, int delta)
+      throws BeerNotFoundException, WarehouseStockNotFoundException, BeerStockExceededException {
+    WarehouseStock warehouseStock = warehouseStockRepository
+        .findByBeerIdAndLocation(beerId, location)
+        .orElse(null);
+    if (warehouseStock == null) {
+      if (!beerRepository.existsById(beerId)) {
+        throw new BeerNotFoundException(beerId);
+      }
+      throw new WarehouseStockNotFoundException(beerId, location);
+    }
+    if (updatedRows == 0) {
+      throw new BeerStockExceededException(beerId, Math.abs(delta));
+    }
+    stockMovementRepository.appendAll(List.of(new StockAdjustmentDto(beerId, delta)));
+    return toDto(warehouseStock);
+  }
+
+  private static WarehouseStockDto toDto(WarehouseStock warehouseStock) {
+    return new WarehouseStockDto(warehouseStock.getLocation(), warehouseStock.getQuantity(),
+                                 warehouseStock.getMax());
+  }
+}
@@ -0,0 +1,325 @@
+package one.digitalinnovation.beerstockapi.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.BeerGroupTotalsDto;
+import one.digitalinnovation.beerstockapi.dto.BeerStatsDto;
+import one.digitalinnovation.beerstockapi.dto.BeerStockTotalsDto;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import one.digitalinnovation.beerstockapi.ledger.StockLedger;
+import one.digitalinnovation.beerstockapi.repository.BeerRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Totais de estoque por tipo e marca mantidos em memória pelos {@link BeerEvent} após o commit,
+ * de modo que a consulta percorre os grupos, e não as Beers.
+ *
+ * <p>Para calcular a diferença de cada alteração, guarda o grupo, a quantidade e o máximo de cada
+ * Beer. A cada {@code reconcileInterval} os totais são comparados com um {@code group by} no
+ * primário e, havendo diferença (por exemplo, de alterações feitas por outras instâncias), o
+ * estado é recarregado do banco. Só são comparados os grupos que não mudaram desde o início da
+ * consulta, já que nos demais a diferença pode vir apenas de uma alteração confirmada durante
+ * ela. Com o {@link StockLedger} habilitado as quantidades gravadas
+ * atrasam por projeto: só a contagem e os máximos são comparados, e a recarga usa as quantidades
+ * do livro-razão.
+ *
+ * @author Marcelo dos Santos
+ */
+@Slf4j
+@Component
+public class BeerInventoryStats {
+
+  public static final String DRIFT_METRIC = "beerstock.stats.drift";
+
+  private final BeerRepository beerRepository;
+  private final ObjectProvider<StockLedger> stockLedger;
+  private final TransactionTemplate transactionTemplate;
+  private final BeerStockProperties.Stats properties;
+  private final Counter drift;
+  private Inventory inventory = new Inventory();
+  private List<Consumer<Inventory>> pendingUpdates;
+  private ScheduledExecutorService reconciler;
+
+  public BeerInventoryStats(BeerRepository beerRepository, ObjectProvider<StockLedger> stockLedger,
+                            TransactionTemplate transactionTemplate,
+                            BeerStockProperties properties, MeterRegistry meterRegistry) {
+    this.beerRepository = beerRepository;
+    this.stockLedger = stockLedger;
+    this.transactionTemplate = transactionTemplate;
+    this.properties = properties.getStats();
+    this.drift = meterRegistry.counter(DRIFT_METRIC);
+  }
+
+  @PostConstruct
+  public void start() {
+    reload();
+    long interval = properties.getReconcileInterval().toMillis();
+    reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "beer-stats-reconcile");
+      thread.setDaemon(true);
+      return thread;
+    });
+    reconciler.scheduleWithFixedDelay(this::reconcileQuietly, interval, interval,
+                                      TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    reconciler.shutdownNow();
+  }
+
+  public synchronized BeerStatsDto stats() {
+    return inventory.toStats();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBeerEvent(BeerEvent beerEvent) {
+    BeerDto beer = beerEvent.getBeer();
+    if (beerEvent.getType() == BeerEventType.DELETED) {
+      update(current -> current.remove(beer.getId()));
+    } else {
+      update(current -> current.put(beer.getId(), beer.getType(), beer.getBrand(),
+                                    beer.getQuantity(), beer.getMax()));
+    }
+  }
+
+  /**
+   * Compara os totais com um {@code group by} no banco e recarrega o estado se forem diferentes.
+   *
+   * @return se havia diferença
+   */
+  public boolean reconcile() {
+    boolean compareQuantity = stockLedger.getIfAvailable() == null;
+    long since;
+    synchronized (this) {
+      since = inventory.changes;
+    }
+    List<BeerGroupTotalsDto> persistedTotals =
+        transactionTemplate.execute(status -> beerRepository.sumByTypeAndBrand());
+    boolean drifted;
+    synchronized (this) {
+      drifted = !inventory.matches(persistedTotals, compareQuantity, since);
+    }
+    if (drifted) {
+      drift.increment();
+      log.info("Beer stock totals differ from the database, reloading");
+      reload();
+    }
+    return drifted;
+  }
+
+  /**
+   * Carrega o estado do banco. As atualizações recebidas durante a carga são aplicadas a ele
+   * antes que substitua o atual.
+   */
+  public void reload() {
+    synchronized (this) {
+      pendingUpdates = new ArrayList<>();
+    }
+    StockLedger ledger = stockLedger.getIfAvailable();
+    Inventory reloaded = new Inventory();
+    boolean loaded = false;
+    try {
+      transactionTemplate.executeWithoutResult(status -> beerRepository.queryAll(
+          null, null, row -> {
+            long id = row.getLong(1);
+            int quantity = ledger == null ? row.getInt(5)
+                                          : ledger.quantityOf(id).orElse(row.getInt(5));
+            reloaded.put(id, BeerType.valueOf(row.getString(6)), row.getString(3), quantity,
+                         row.getInt(4));
+          }));
+      loaded = true;
+    } finally {
+      synchronized (this) {
+        if (loaded) {
+          pendingUpdates.forEach(pendingUpdate -> pendingUpdate.accept(reloaded));
+          inventory = reloaded;
+        }
+        pendingUpdates = null;
+      }
+    }
+  }
+
+  private void reconcileQuietly() {
+    try {
+      reconcile();
+    } catch (DataAccessException e) {
+      log.warn("Beer stock totals reconciliation failed, it will be retried", e);
+    }
+  }
+
+  private synchronized void update(Consumer<Inventory> update) {
+    update.accept(inventory);
+    if (pendingUpdates != null) {
+      pendingUpdates.add(update);
+    }
+  }
+
+  /**
+   * Estado de uma Beer, substituído a cada alteração.
+   */
+  private static final class BeerStock {
+
+    private final BeerType type;
+    private final String brand;
+    private final int quantity;
+    private final int max;
+
+    private BeerStock(BeerType type, String brand, int quantity, int max) {
+      this.type = type;
+      this.brand = brand;
+      this.quantity = quantity;
+      this.max = max;
+    }
+  }
+
+  /**
+   * Somas de um grupo de Beers.
+   */
+  private static final class Totals {
+
+    private long count;
+    private long quantity;
+    private long max;
+
+    private void add(Totals totals) {
+      count += totals.count;
+      quantity += totals.quantity;
+      max += totals.max;
+    }
+
+    private void add(BeerStock beerStock, int sign) {
+      count += sign;
+      quantity += sign * (long) beerStock.quantity;
+      max += sign * (long) beerStock.max;
+    }
+
+    private boolean matches(BeerGroupTotalsDto groupTotals, boolean compareQuantity) {
+      return count == groupTotals.getCount() && max == groupTotals.getMax()
+             && (!compareQuantity || quantity == groupTotals.getQuantity());
+    }
+
+    private BeerStockTotalsDto toDto() {
+      double fillRatio = max == 0 ? 0.0 : (double) quantity / max;
+      return new BeerStockTotalsDto(count, quantity, max, fillRatio);
+    }
+  }
+
+  /**
+   * Estado das Beers e totais por tipo e marca. O acesso é sincronizado pelo
+   * {@link BeerInventoryStats}.
+   */
+  private static final class Inventory {
+
+    private final Map<Long, BeerStock> beers = new HashMap<>();
+    private final Map<BeerType, Map<String, Totals>> groups = new EnumMap<>(BeerType.class);
+    private final Map<BeerType, Map<String, Long>> changedAt = new EnumMap<>(BeerType.class);
+    private long changes;
+
+    private void put(Long id, BeerType type, String brand, int quantity, int max) {
+      remove(id);
+      BeerStock beerStock = new BeerStock(type, brand, quantity, max);
+      beers.put(id, beerStock);
+      groups.computeIfAbsent(type, t -> new HashMap<>())
+            .computeIfAbsent(brand, b -> new Totals())
+            .add(beerStock, 1);
+      changed(type, brand);
+    }
+
+    private void remove(Long id) {
+      BeerStock beerStock = beers.remove(id);
+      if (beerStock == null) {
+        return;
+      }
+      changed(beerStock.type, beerStock.brand);
+      Map<String, Totals> brands = groups.get(beerStock.type);
+      Totals totals = brands.get(beerStock.brand);
+      totals.add(beerStock, -1);
+      if (totals.count == 0) {
+        brands.remove(beerStock.brand);
+        if (brands.isEmpty()) {
+          groups.remove(beerStock.type);
+        }
+      }
+    }
+
+    private void changed(BeerType type, String brand) {
+      changes++;
+      changedAt.computeIfAbsent(type, t -> new HashMap<>()).put(brand, changes);
+    }
+
+    private boolean changedSince(BeerType type, String brand, long since) {
+      return changedAt.getOrDefault(type, Map.of()).getOrDefault(brand, 0L) > since;
+    }
+
+    /**
+     * Compara os grupos que não mudaram depois de {@code since}.
+     */
+    private boolean matches(List<BeerGroupTotalsDto> persistedTotals, boolean compareQuantity,
+                            long since) {
+      Map<BeerType, Set<String>> persistedGroups = new EnumMap<>(BeerType.class);
+      for (BeerGroupTotalsDto groupTotals : persistedTotals) {
+        persistedGroups.computeIfAbsent(groupTotals.getType(), t -> new HashSet<>())
+                       .add(groupTotals.getBrand());
+        if (changedSince(groupTotals.getType(), groupTotals.getBrand(), since)) {
+          continue;
+        }
+        Totals totals = groups.getOrDefault(groupTotals.getType(), Map.of())
+                              .get(groupTotals.getBrand());
+        if (totals == null || !totals.matches(groupTotals, compareQuantity)) {
+          return false;
+        }
+      }
+      for (Map.Entry<BeerType, Map<String, Totals>> brands : groups.entrySet()) {
+        for (String brand : brands.getValue().keySet()) {
+          if (!changedSince(brands.getKey(), brand, since)
+              && !persistedGroups.getOrDefault(brands.getKey(), Set.of()).contains(brand)) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    private BeerStatsDto toStats() {
+      Totals total = new Totals();
+      Map<BeerType, BeerStockTotalsDto> types = new EnumMap<>(BeerType.class);
+      Map<String, Totals> brandTotals = new TreeMap<>();
+      groups.forEach((type, brands) -> {
+        Totals typeTotals = new Totals();
+        brands.forEach((brand, totals) -> {
+          typeTotals.add(totals);
+          brandTotals.computeIfAbsent(brand, b -> new Totals()).add(totals);
+        });
+        total.add(typeTotals);
+        types.put(type, typeTotals.toDto());
+      });
+      Map<String, BeerStockTotalsDto> brands = new TreeMap<>();
+      brandTotals.forEach((brand, totals) -> brands.put(brand, totals.toDto()));
+      return new BeerStatsDto(total.toDto(), types, brands);
+    }
+  }
+}
@@ -0,0 +1,10 @@
+-- Lote de consolidação de cada movimentação; nulo enquanto ela não foi somada a
+-- stock_movement_hourly, de modo que as confirmadas depois da consolidação da sua hora sejam
+-- somadas na seguinte.
+alter table stock_movement add column rollup_batch bigint;
+update stock_movement set rollup_batch = 0
+    where created_at < (select rolled_up_to from stock_movement_rollup where id = 1);
+create index ix_stock_movement_rollup_batch_created_at
+    on stock_movement (rollup_batch, created_at);
+
+alter table stock_movement_rollup add column last_batch bigint default 0 not null;
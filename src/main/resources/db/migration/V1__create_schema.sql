@@ -0,0 +1,28 @@
+create sequence beer_sequence start with 1 increment by 50;
+
+create table beer (
+    id         bigint       not null,
+    name       varchar(255) not null,
+    name_key   varchar(255) not null,
+    brand      varchar(255) not null,
+    max        integer      not null,
+    quantity   integer      not null,
+    type       varchar(255) not null,
+    version    bigint       not null,
+    constraint pk_beer primary key (id),
+    constraint uk_beer_name unique (name)
+);
+
+-- Consulta por nome sem diferenciar maiúsculas e minúsculas.
+create index ix_beer_name_key on beer (name_key);
+
+-- Listagens filtradas, paginadas e ordenadas por id. O filtro combinado usa o índice
+-- mais seletivo dos dois.
+create index ix_beer_type_id on beer (type, id);
+create index ix_beer_brand_id on beer (brand, id);
+
+create table stock_ledger_checkpoint (
+    id      bigint not null,
+    segment bigint not null,
+    constraint pk_stock_ledger_checkpoint primary key (id)
+);
@@ -0,0 +1,2 @@
+-- Limite inferior de estoque por Beer; nulo usa o percentual padrão de beerstock.alerts.
+alter table beer add column low_stock integer;
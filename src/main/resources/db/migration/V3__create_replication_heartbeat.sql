@@ -0,0 +1,9 @@
+-- Gravada periodicamente no primário; o valor lido em cada réplica indica até quando ela está
+-- atualizada.
+create table replication_heartbeat (
+    id   integer not null,
+    beat bigint  not null,
+    constraint pk_replication_heartbeat primary key (id)
+);
+
+insert into replication_heartbeat (id, beat) values (1, 0);
@@ -0,0 +1,13 @@
+-- Respostas guardadas por Idempotency-Key quando beerstock.idempotency.persistent está ativo.
+-- created_at, em milissegundos, define a expiração (beerstock.idempotency.ttl).
+create table idempotent_response (
+    idempotency_key varchar(255) not null,
+    fingerprint     varchar(64)  not null,
+    status          integer      not null,
+    content_type    varchar(255),
+    body            varbinary    not null,
+    created_at      bigint       not null,
+    constraint pk_idempotent_response primary key (idempotency_key)
+);
+
+create index ix_idempotent_response_created_at on idempotent_response (created_at);
@@ -0,0 +1,35 @@
+-- Registro, somente de inclusão, de cada alteração de estoque. created_at em milissegundos.
+create table stock_movement (
+    id         bigint generated by default as identity,
+    beer_id    bigint       not null,
+    beer_type  varchar(255) not null,
+    delta      integer      not null,
+    created_at bigint       not null,
+    constraint pk_stock_movement primary key (id)
+);
+
+create index ix_stock_movement_created_at on stock_movement (created_at);
+create index ix_stock_movement_beer_id_created_at on stock_movement (beer_id, created_at);
+
+-- Totais por Beer e hora, consolidados das horas já encerradas de stock_movement.
+create table stock_movement_hourly (
+    beer_id    bigint       not null,
+    beer_type  varchar(255) not null,
+    hour_start bigint       not null,
+    added      bigint       not null,
+    removed    bigint       not null,
+    movements  bigint       not null,
+    constraint pk_stock_movement_hourly primary key (beer_id, hour_start, beer_type)
+);
+
+create index ix_stock_movement_hourly_hour_start on stock_movement_hourly (hour_start);
+create index ix_stock_movement_hourly_type_hour on stock_movement_hourly (beer_type, hour_start);
+
+-- Até onde (exclusive) stock_movement já foi consolidado em stock_movement_hourly.
+create table stock_movement_rollup (
+    id           integer not null,
+    rolled_up_to bigint  not null,
+    constraint pk_stock_movement_rollup primary key (id)
+);
+
+insert into stock_movement_rollup (id, rolled_up_to) values (1, 0);
@@ -0,0 +1,13 @@
+-- Estoque de uma Beer em cada local, com limites próprios. O estoque da própria Beer é o que
+-- não tem local.
+create table warehouse_stock (
+    id       bigint generated by default as identity,
+    beer_id  bigint       not null,
+    location varchar(255) not null,
+    max      integer      not null,
+    quantity integer      not null,
+    constraint pk_warehouse_stock primary key (id),
+    constraint uk_warehouse_stock_beer_id_location unique (beer_id, location),
+    constraint fk_warehouse_stock_beer foreign key (beer_id) references beer (id)
+        on delete cascade
+);
@@ -0,0 +1,13 @@
+-- Quantidades reservadas de uma Beer até expires_at, em milissegundos. Reservas expiradas não
+-- contam, mesmo antes de serem removidas.
+create table stock_reservation (
+    id         bigint generated by default as identity,
+    beer_id    bigint  not null,
+    quantity   integer not null,
+    expires_at bigint  not null,
+    constraint pk_stock_reservation primary key (id),
+    constraint fk_stock_reservation_beer foreign key (beer_id) references beer (id)
+        on delete cascade
+);
+
+create index ix_stock_reservation_beer_id_expires_at on stock_reservation (beer_id, expires_at);
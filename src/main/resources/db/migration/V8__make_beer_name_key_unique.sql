@@ -0,0 +1,4 @@
+-- A consulta por nome sem diferenciar maiúsculas e minúsculas encontra no máximo uma Beer, de
+-- modo que variações de caixa de um nome já registrado são recusadas.
+drop index ix_beer_name_key;
+alter table beer add constraint uk_beer_name_key unique (name_key);
@@ -0,0 +1,3 @@
+-- Cabeçalhos da resposta guardada que são repetidos junto com ela.
+alter table idempotent_response add column etag varchar(255);
+alter table idempotent_response add column location varchar(2048);
@@ -0,0 +1,172 @@
+package one.digitalinnovation.beerstockapi.alert;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import one.digitalinnovation.beerstockapi.builder.BeerDtoBuilder;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.LowStockAlertDto;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.enums.LowStockAlertType;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Testes da avaliação de estoque baixo.
+ *
+ * @author Marcelo dos Santos
+ */
+@ExtendWith(MockitoExtension.class)
+class LowStockAlertEvaluatorTest {
+
+  static final int LOW_STOCK = 10;
+
+  @Mock
+  LowStockAlertSink failingSink;
+
+  BeerStockProperties properties = new BeerStockProperties();
+
+  MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  QueueLowStockAlertSink queueSink;
+
+  LowStockAlertEvaluator evaluator;
+
+  @BeforeEach
+  void setUp() {
+    queueSink = new QueueLowStockAlertSink(properties);
+    evaluator = new LowStockAlertEvaluator(properties, List.of(queueSink), meterRegistry);
+  }
+
+  @Test
+  void whenQuantityReachesLowStockThenLowAlertIsSent() {
+    stockChanged(LOW_STOCK + 1);
+    stockChanged(LOW_STOCK);
+
+    List<LowStockAlertDto> alerts = sentAlerts();
+    assertThat(types(alerts), contains(LowStockAlertType.LOW));
+    assertThat(alerts.get(0).getQuantity(), is(equalTo(LOW_STOCK)));
+    assertThat(alerts.get(0).getLowStock(), is(equalTo(LOW_STOCK)));
+    assertThat(meterRegistry.get(LowStockAlertEvaluator.ALERTS_METRIC)
+                            .tag("type", LowStockAlertType.LOW.name())
+                            .counter()
+                            .count(),
+               is(equalTo(1.0)));
+  }
+
+  @Test
+  void whenQuantityStaysLowThenTheAlertIsNotRepeated() {
+    stockChanged(LOW_STOCK);
+    stockChanged(LOW_STOCK - 3);
+    stockChanged(LOW_STOCK + 1);
+    stockChanged(LOW_STOCK);
+
+    assertThat(types(sentAlerts()), contains(LowStockAlertType.LOW));
+  }
+
+  @Test
+  void whenQuantityRecoversPastTheMarginThenRecoveredAlertIsSent() {
+    int recoveryLevel = LOW_STOCK + properties.getAlerts().getRecoveryMargin();
+
+    stockChanged(LOW_STOCK);
+    stockChanged(recoveryLevel - 1);
+    stockChanged(recoveryLevel);
+    stockChanged(LOW_STOCK);
+
+    assertThat(types(sentAlerts()), contains(LowStockAlertType.LOW, LowStockAlertType.RECOVERED,
+                                             LowStockAlertType.LOW));
+  }
+
+  @Test
+  void whenAnOlderVersionArrivesLateThenItIsIgnored() {
+    int recoveryLevel = LOW_STOCK + properties.getAlerts().getRecoveryMargin();
+
+    stockChanged(LOW_STOCK, 1L);
+    stockChanged(recoveryLevel, 3L);
+    stockChanged(LOW_STOCK, 2L);
+
+    assertThat(types(sentAlerts()), contains(LowStockAlertType.LOW, LowStockAlertType.RECOVERED));
+  }
+
+  @Test
+  void whenLowStockIsNotSetThenTheDefaultPercentOfMaxIsUsed() {
+    BeerDto beerDto = BeerDtoBuilder.builder().max(50).quantity(5).build().toBeerDto();
+
+    evaluator.onBeerEvent(new BeerEvent(BeerEventType.STOCK_CHANGED, beerDto));
+
+    List<LowStockAlertDto> alerts = sentAlerts();
+    assertThat(types(alerts), contains(LowStockAlertType.LOW));
+    assertThat(alerts.get(0).getLowStock(), is(equalTo(5)));
+  }
+
+  @Test
+  void whenBeerIsDeletedThenItsAlertStateIsCleared() {
+    stockChanged(LOW_STOCK);
+    evaluator.onBeerEvent(new BeerEvent(BeerEventType.DELETED, beer(LOW_STOCK)));
+    evaluator.onBeerEvent(new BeerEvent(BeerEventType.CREATED, beer(LOW_STOCK)));
+
+    assertThat(types(sentAlerts()), contains(LowStockAlertType.LOW, LowStockAlertType.LOW));
+  }
+
+  @Test
+  void whenASinkFailsThenTheOtherSinksStillReceiveTheAlert() {
+    doThrow(IllegalStateException.class).when(failingSink).send(any(LowStockAlertDto.class));
+    evaluator = new LowStockAlertEvaluator(properties, List.of(failingSink, queueSink),
+                                           meterRegistry);
+
+    stockChanged(LOW_STOCK);
+
+    assertThat(types(sentAlerts()), contains(LowStockAlertType.LOW));
+  }
+
+  @Test
+  void whenQuantityIsAboveLowStockThenNoAlertIsSent() {
+    stockChanged(LOW_STOCK + 1);
+
+    assertThat(sentAlerts(), is(empty()));
+  }
+
+  private void stockChanged(int quantity) {
+    stockChanged(quantity, null);
+  }
+
+  private void stockChanged(int quantity, Long version) {
+    evaluator.onBeerEvent(new BeerEvent(BeerEventType.STOCK_CHANGED, beer(quantity, version)));
+  }
+
+  private BeerDto beer(int quantity) {
+    return beer(quantity, null);
+  }
+
+  private BeerDto beer(int quantity, Long version) {
+    BeerDto beerDto = BeerDtoBuilder.builder().quantity(quantity).version(version).build()
+                                    .toBeerDto();
+    beerDto.setLowStock(LOW_STOCK);
+    return beerDto;
+  }
+
+  private List<LowStockAlertDto> sentAlerts() {
+    List<LowStockAlertDto> alerts = new ArrayList<>();
+    queueSink.drainTo(alerts);
+    return alerts;
+  }
+
+  private static List<LowStockAlertType> types(List<LowStockAlertDto> alerts) {
+    return alerts.stream().map(LowStockAlertDto::getType).collect(Collectors.toList());
+  }
+}
@@ -30,7 +30,9 @@ public class BeerDtoBuilder {
   @Builder.Default
   private BeerType type = BeerType.LAGER;
 
+  private Long version;
+
   public BeerDto toBeerDto() {
-    return new BeerDto(id, name, brand, max, quantity, type);
+    return new BeerDto(id, name, brand, max, quantity, type, null, version);
   }
 }
@@ -0,0 +1,140 @@
+package one.digitalinnovation.beerstockapi.cache;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import one.digitalinnovation.beerstockapi.builder.BeerDtoBuilder;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes do cache de {@link BeerDto} pela chave do nome.
+ *
+ * @author Marcelo dos Santos
+ */
+class BeerCacheTest {
+
+  MeterRegistry meterRegistry;
+
+  BeerCache beerCache;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    beerCache = new BeerCache(new BeerStockProperties(), meterRegistry);
+  }
+
+  @Test
+  void whenBeerIsPutThenItIsFoundByName() {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+
+    beerCache.put(beerDto);
+
+    assertThat(beerCache.get(beerDto.getName()), is(equalTo(Optional.of(beerDto))));
+    assertThat(hits(), is(equalTo(1.0)));
+  }
+
+  @Test
+  void whenNameDiffersOnlyInCaseThenTheSameEntryIsFound() {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+
+    beerCache.put(beerDto);
+
+    assertThat(beerCache.get(beerDto.getName().toUpperCase()),
+               is(equalTo(Optional.of(beerDto))));
+    assertThat(hits(), is(equalTo(1.0)));
+  }
+
+  @Test
+  void whenBeerIsEvictedByIdThenItsNameIsInvalidated() {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    beerCache.put(beerDto);
+
+    beerCache.evict(beerDto.getId());
+
+    assertThat(beerCache.get(beerDto.getName()), is(equalTo(Optional.empty())));
+    assertThat(misses(), is(equalTo(1.0)));
+  }
+
+  @Test
+  void whenBeerIsRenamedThenThePreviousNameIsInvalidated() {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    BeerDto renamedBeerDto = BeerDtoBuilder.builder().name("Brahma Duplo Malte").build()
+                                           .toBeerDto();
+    beerCache.put(beerDto);
+
+    beerCache.put(renamedBeerDto);
+
+    assertThat(beerCache.get(beerDto.getName()), is(equalTo(Optional.empty())));
+    assertThat(beerCache.get(renamedBeerDto.getName()), is(equalTo(Optional.of(renamedBeerDto))));
+  }
+
+  @Test
+  void whenStockChangedEventIsReceivedThenTheEntryIsUpdated() {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    BeerDto changedBeerDto = BeerDtoBuilder.builder().quantity(20).build().toBeerDto();
+    beerCache.put(beerDto);
+
+    beerCache.onBeerEvent(new BeerEvent(BeerEventType.STOCK_CHANGED, changedBeerDto));
+
+    assertThat(beerCache.get(beerDto.getName()), is(equalTo(Optional.of(changedBeerDto))));
+  }
+
+  @Test
+  void whenOlderVersionIsPutThenTheNewerEntryIsKept() {
+    BeerDto newerBeerDto = BeerDtoBuilder.builder().quantity(20).version(2L).build().toBeerDto();
+    BeerDto olderBeerDto = BeerDtoBuilder.builder().quantity(10).version(1L).build().toBeerDto();
+    beerCache.onBeerEvent(new BeerEvent(BeerEventType.STOCK_CHANGED, newerBeerDto));
+
+    beerCache.put(olderBeerDto);
+
+    assertThat(beerCache.get(newerBeerDto.getName()), is(equalTo(Optional.of(newerBeerDto))));
+  }
+
+  @Test
+  void whenCreatedEventIsReceivedThenTheBeerIsNotCached() {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+
+    beerCache.onBeerEvent(new BeerEvent(BeerEventType.CREATED, beerDto));
+
+    assertThat(beerCache.get(beerDto.getName()), is(equalTo(Optional.empty())));
+  }
+
+  @Test
+  void whenDeletedEventIsReceivedThenTheEntryIsInvalidated() {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    beerCache.put(beerDto);
+
+    beerCache.onBeerEvent(new BeerEvent(BeerEventType.DELETED, beerDto));
+
+    assertThat(beerCache.get(beerDto.getName()), is(equalTo(Optional.empty())));
+  }
+
+  @Test
+  void whenBeerLoadedBeforeItsDeletionIsPutThenItIsNotCached() {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    assertThat(beerCache.get(beerDto.getName()), is(equalTo(Optional.empty())));
+    BeerDto loadedBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
+
+    beerCache.onBeerEvent(new BeerEvent(BeerEventType.DELETED, beerDto));
+    beerCache.put(loadedBeerDto);
+
+    assertThat(beerCache.get(loadedBeerDto.getName()), is(equalTo(Optional.empty())));
+  }
+
+  double hits() {
+    return meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count();
+  }
+
+  double misses() {
+    return meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count();
+  }
+}
@@ -0,0 +1,75 @@
+package one.digitalinnovation.beerstockapi.config;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME;
+
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+/**
+ * Testes da configuração do modo de execução com virtual threads.
+ *
+ * @author Marcelo dos Santos
+ */
+class VirtualThreadConfigTest {
+
+  ApplicationContextRunner contextRunner =
+      new ApplicationContextRunner().withUserConfiguration(VirtualThreadConfig.class);
+
+  @Test
+  void whenModeIsNotVirtualThenTheConfigurationIsSkipped() {
+    contextRunner.withPropertyValues("beerstock.execution.mode=platform")
+                 .run(context -> assertThat(
+                     context.containsBean(APPLICATION_TASK_EXECUTOR_BEAN_NAME), is(false)));
+  }
+
+  @Test
+  void whenJava21ProfileIsNotActiveThenTheConfigurationIsSkipped() {
+    contextRunner.withPropertyValues("beerstock.execution.mode=virtual")
+                 .run(context -> {
+                   assertThat(context.getStartupFailure(), is(nullValue()));
+                   assertThat(context.containsBean(APPLICATION_TASK_EXECUTOR_BEAN_NAME),
+                              is(false));
+                 });
+  }
+
+  @Test
+  void whenRuntimeHasNoVirtualThreadsThenStartupFailsWithTheRequiredJavaVersion() {
+    assumeFalse(VirtualThreadConfig.isSupported());
+
+    contextRunner.withPropertyValues("spring.profiles.active=" + VirtualThreadConfig.PROFILE,
+                                     "beerstock.execution.mode=virtual")
+                 .run(context -> assertThat(rootCauseMessage(context.getStartupFailure()),
+                                            containsString("requires Java 21 or later")));
+  }
+
+  @Test
+  void whenRuntimeHasVirtualThreadsThenTasksRunOnThem() {
+    assumeTrue(VirtualThreadConfig.isSupported());
+
+    contextRunner.withPropertyValues("spring.profiles.active=" + VirtualThreadConfig.PROFILE,
+                                     "beerstock.execution.mode=virtual").run(context -> {
+      Future<Boolean> isVirtual =
+          context.getBean(APPLICATION_TASK_EXECUTOR_BEAN_NAME, AsyncTaskExecutor.class)
+                 .submit(() -> (Boolean) Thread.class.getMethod("isVirtual")
+                                                     .invoke(Thread.currentThread()));
+      assertThat(isVirtual.get(), is(equalTo(true)));
+    });
+  }
+
+  static String rootCauseMessage(Throwable throwable) {
+    Throwable cause = throwable;
+    while (cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    return cause.getMessage();
+  }
+}
@@ -1,34 +1,112 @@
 package one.digitalinnovation.beerstockapi.controller;
 
+import static one.digitalinnovation.beerstockapi.utils.BeerRowUtils.rowsOf;
 import static one.digitalinnovation.beerstockapi.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import one.digitalinnovation.beerstockapi.builder.BeerDtoBuilder;
+import one.digitalinnovation.beerstockapi.config.BinaryFormatConfig;
 import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.BeerImportReportDto;
+import one.digitalinnovation.beerstockapi.dto.BeerImportRowDto;
+import one.digitalinnovation.beerstockapi.dto.BeerPageDto;
+import one.digitalinnovation.beerstockapi.dto.BeerStatsDto;
+import one.digitalinnovation.beerstockapi.dto.BeerStockDto;
+import one.digitalinnovation.beerstockapi.dto.BeerStockTotalsDto;
+import one.digitalinnovation.beerstockapi.dto.LowStockDto;
+import one.digitalinnovation.beerstockapi.dto.MaxDto;
 import one.digitalinnovation.beerstockapi.dto.QuantityDto;
+import one.digitalinnovation.beerstockapi.dto.ReservationDto;
+import one.digitalinnovation.beerstockapi.dto.ReservationRequestDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentRequestDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentResultDto;
+import one.digitalinnovation.beerstockapi.dto.StockMovementTotalDto;
+import one.digitalinnovation.beerstockapi.dto.WarehouseStockDto;
 import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.etag.BeerETags;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.enums.BeerImportStatus;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import one.digitalinnovation.beerstockapi.enums.StockAdjustmentStatus;
+import one.digitalinnovation.beerstockapi.enums.StockMovementInterval;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
 import one.digitalinnovation.beerstockapi.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstockapi.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstockapi.exception.InvalidTimeRangeException;
+import one.digitalinnovation.beerstockapi.exception.ReservationNotFoundException;
+import one.digitalinnovation.beerstockapi.exception.StockAdjustmentRejectedException;
+import one.digitalinnovation.beerstockapi.exception.StockLedgerEnabledException;
+import one.digitalinnovation.beerstockapi.exception.WarehouseStockNotFoundException;
+import one.digitalinnovation.beerstockapi.feed.BeerChangeFeed;
+import one.digitalinnovation.beerstockapi.listing.BeerListingHttpMessageConverter;
+import one.digitalinnovation.beerstockapi.service.BeerImportService;
 import one.digitalinnovation.beerstockapi.service.BeerService;
+import one.digitalinnovation.beerstockapi.service.StockMovementService;
+import one.digitalinnovation.beerstockapi.service.StockReservationService;
+import one.digitalinnovation.beerstockapi.service.WarehouseStockService;
+import one.digitalinnovation.beerstockapi.stats.BeerInventoryStats;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
 /**
@@ -44,12 +122,46 @@ class BeerControllerTest {
   static final long INVALID_BEER_ID = 2L;
   static final String BEER_API_SUBPATH_INCREMENT_URL = "/increment";
   static final String BEER_API_SUBPATH_DECREMENT_URL = "/decrement";
+  static final String BEER_API_SUBPATH_STOCK_URL = "/stock";
+  static final String BEER_API_SUBPATH_IMPORT_URL = "/import";
+  static final String BEER_API_SUBPATH_CHANGES_URL = "/changes";
+  static final String BEER_API_SUBPATH_LOW_STOCK_URL = "/low-stock";
+  static final String BEER_API_SUBPATH_MOVEMENTS_URL = "/movements";
+  static final String BEER_API_SUBPATH_SEARCH_URL = "/search";
+  static final String BEER_API_SUBPATH_STATS_URL = "/stats";
+  static final String BEER_API_SUBPATH_RESERVATIONS_URL = "/reservations";
+  static final long RESERVATION_ID = 7L;
+  static final String BEER_SCHEMA = "schema/beer.cddl";
 
   MockMvc mockMvc;
 
   @Mock
   BeerService beerService;
 
+  @Mock
+  BeerImportService beerImportService;
+
+  @Spy
+  ObjectMapper objectMapper = new ObjectMapper();
+
+  @Spy
+  BeerETags beerETags = new BeerETags();
+
+  @Mock
+  BeerChangeFeed beerChangeFeed;
+
+  @Mock
+  StockMovementService stockMovementService;
+
+  @Mock
+  BeerInventoryStats beerInventoryStats;
+
+  @Mock
+  WarehouseStockService warehouseStockService;
+
+  @Mock
+  StockReservationService stockReservationService;
+
   @InjectMocks
   BeerController beerController;
 
@@ -58,6 +170,15 @@ class BeerControllerTest {
     mockMvc = MockMvcBuilders.standaloneSetup(beerController)
                              .setCustomArgumentResolvers(
                                  new PageableHandlerMethodArgumentResolver())
+                             .setMessageConverters(
+                                 new BeerListingHttpMessageConverter(
+                                     objectMapper.getFactory(), new CBORFactory(),
+                                     new SmileFactory()),
+                                 new ByteArrayHttpMessageConverter(),
+                                 new StringHttpMessageConverter(),
+                                 new MappingJackson2HttpMessageConverter(),
+                                 new MappingJackson2CborHttpMessageConverter(),
+                                 new MappingJackson2SmileHttpMessageConverter())
                              .setViewResolvers((s, locale) -> new MappingJackson2JsonView())
                              .build();
   }
@@ -77,6 +198,17 @@ class BeerControllerTest {
            .andExpect(jsonPath("$.type", is(beerDto.getType().toString())));
   }
 
+  @Test
+  void whenPOSTIsCalledWithAReservedNameThenAnErrorIsReturned() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().name("Stats").build().toBeerDto();
+
+    mockMvc.perform(post(BEER_API_URL_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(beerDto)))
+           .andExpect(status().isBadRequest());
+    verify(beerService, never()).createBeer(any());
+  }
+
   @Test
   void whenPOSTIsCalledWithoutRequiredFieldThenAnErrorIsReturned() throws Exception {
     BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
@@ -88,6 +220,52 @@ class BeerControllerTest {
            .andExpect(status().isBadRequest());
   }
 
+  @Test
+  void whenPOSTIsCalledWithJsonArrayThenBeersAreImported() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    List<BeerDto> importedBeers = new ArrayList<>();
+
+    when(beerImportService.importBeers(any())).thenAnswer(invocation -> {
+      Iterator<BeerDto> beers = invocation.getArgument(0);
+      beers.forEachRemaining(importedBeers::add);
+      return new BeerImportReportDto(importedBeers.size(), new ArrayList<>());
+    });
+
+    mockMvc.perform(post(BEER_API_URL_PATH + BEER_API_SUBPATH_IMPORT_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(Arrays.asList(beerDto, beerDto))))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.created", is(2)));
+    assertThat(importedBeers, contains(beerDto, beerDto));
+  }
+
+  @Test
+  void whenPOSTIsCalledWithCsvThenBeersAreImported() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().id(null).build().toBeerDto();
+    List<BeerDto> importedBeers = new ArrayList<>();
+    BeerImportRowDto rejectedRow =
+        new BeerImportRowDto(2, beerDto.getName(), BeerImportStatus.DUPLICATED, null);
+
+    when(beerImportService.importBeers(any())).thenAnswer(invocation -> {
+      Iterator<BeerDto> beers = invocation.getArgument(0);
+      beers.forEachRemaining(importedBeers::add);
+      return new BeerImportReportDto(1, Collections.singletonList(rejectedRow));
+    });
+
+    String csv = "name,brand,max,quantity,type\n"
+                 + "Brahma,Ambev,50,10,LAGER\n"
+                 + "Brahma,Ambev,50,10,LAGER\n";
+    mockMvc.perform(post(BEER_API_URL_PATH + BEER_API_SUBPATH_IMPORT_URL)
+                        .contentType(BeerController.TEXT_CSV_VALUE)
+                        .content(csv))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.created", is(1)))
+           .andExpect(jsonPath("$.rejected[0].row", is(2)))
+           .andExpect(jsonPath("$.rejected[0].status",
+                               is(BeerImportStatus.DUPLICATED.toString())));
+    assertThat(importedBeers, contains(beerDto, beerDto));
+  }
+
   @Test
   void whenGETIsCalledWithValidNameThenOkStatusIsReturned() throws Exception {
     BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
@@ -102,6 +280,47 @@ class BeerControllerTest {
            .andExpect(jsonPath("$.type", is(beerDto.getType().toString())));
   }
 
+  @Test
+  void whenGETIsCalledAcceptingCborThenCborIsReturned() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+
+    when(beerService.findByName(beerDto.getName())).thenReturn(beerDto);
+
+    MvcResult result =
+        mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/" + beerDto.getName())
+                                              .accept(MediaType.APPLICATION_CBOR))
+               .andExpect(status().isOk())
+               .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+               .andExpect(header().string(HttpHeaders.ETAG,
+                                          "\"" + BeerETags.of(beerDto) + "-cbor\""))
+               .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+               .andReturn();
+
+    assertThat(new CBORMapper().readValue(result.getResponse().getContentAsByteArray(),
+                                          BeerDto.class),
+               is(beerDto));
+  }
+
+  @Test
+  void whenCborBeerIsReturnedThenItMatchesTheCheckedInSchema() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    String schema = new String(new ClassPathResource(BEER_SCHEMA).getInputStream().readAllBytes(),
+                               StandardCharsets.UTF_8);
+
+    when(beerService.findByName(beerDto.getName())).thenReturn(beerDto);
+
+    MvcResult result =
+        mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/" + beerDto.getName())
+                                              .accept(MediaType.APPLICATION_CBOR))
+               .andReturn();
+    Map<String, Object> beer = new CBORMapper().readValue(
+        result.getResponse().getContentAsByteArray(), new TypeReference<>() { });
+
+    assertThat(beer.keySet(), is(schemaFields(schema, "beer")));
+    assertThat(schemaValues(schema, "beer-type"),
+               is(Arrays.stream(BeerType.values()).map(Enum::name).collect(Collectors.toList())));
+  }
+
   @Test
   void whenGETIsCalledWithoutRegisteredNameThenNotFoundStatusIsReturned() throws Exception {
     BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
@@ -113,15 +332,75 @@ class BeerControllerTest {
            .andExpect(status().isNotFound());
   }
 
+  @Test
+  void whenGETIsCalledWithCurrentETagThenNotModifiedStatusIsReturned() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    String eTag = "\"" + BeerETags.of(beerDto) + "\"";
+
+    when(beerService.findByName(beerDto.getName())).thenReturn(beerDto);
+
+    mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/" + beerDto.getName())
+                                          .header(HttpHeaders.IF_NONE_MATCH, eTag))
+           .andExpect(status().isNotModified())
+           .andExpect(header().string(HttpHeaders.ETAG, eTag))
+           .andExpect(content().string(""));
+  }
+
+  @Test
+  void whenGETListIsCalledAcceptingSmileThenSmileIsReturned() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+
+    doAnswer(rowsOf(2, beerDto)).when(beerService).writeAll(isNull(), isNull(), any());
+
+    MvcResult result =
+        mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH)
+                                              .accept(BinaryFormatConfig.APPLICATION_SMILE))
+               .andExpect(status().isOk())
+               .andExpect(content().contentType(BinaryFormatConfig.APPLICATION_SMILE))
+               .andExpect(header().string(HttpHeaders.ETAG,
+                                          "\"" + beerETags.ofCollection() + "-smile\""))
+               .andReturn();
+
+    assertThat(new SmileMapper().readValue(result.getResponse().getContentAsByteArray(),
+                                           BeerDto[].class),
+               is(new BeerDto[] {beerDto}));
+  }
+
+  @Test
+  void whenGETListIsCalledWithCurrentETagThenNotModifiedStatusIsReturned() throws Exception {
+    String eTag = "\"" + beerETags.ofCollection() + "\"";
+
+    mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH)
+                                          .header(HttpHeaders.IF_NONE_MATCH, eTag))
+           .andExpect(status().isNotModified())
+           .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    verify(beerService, never()).writeAll(any(), any(), any());
+  }
+
+  @Test
+  void whenGETListIsCalledWithStaleETagThenOkStatusIsReturned() throws Exception {
+    String staleETag = "\"" + beerETags.ofCollection() + "\"";
+    beerETags.onBeerEvent(new BeerEvent(BeerEventType.CREATED,
+                                        BeerDtoBuilder.builder().build().toBeerDto()));
+
+    doAnswer(rowsOf(2)).when(beerService).writeAll(isNull(), isNull(), any());
+
+    mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH)
+                                          .header(HttpHeaders.IF_NONE_MATCH, staleETag))
+           .andExpect(status().isOk())
+           .andExpect(header().string(HttpHeaders.ETAG, "\"" + beerETags.ofCollection() + "\""));
+  }
+
   @Test
   void whenGETListWithBeersIsCalledThenOkStatusIsReturned() throws Exception {
     BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
 
-    when(beerService.listAll()).thenReturn(Collections.singletonList(beerDto));
+    doAnswer(rowsOf(2, beerDto)).when(beerService).writeAll(isNull(), isNull(), any());
 
     mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH)
                                           .contentType(MediaType.APPLICATION_JSON))
            .andExpect(status().isOk())
+           .andExpect(content().json(asJsonString(Collections.singletonList(beerDto)), true))
            .andExpect(jsonPath("$[0].name", is(beerDto.getName())))
            .andExpect(jsonPath("$[0].brand", is(beerDto.getBrand())))
            .andExpect(jsonPath("$[0].type", is(beerDto.getType().toString())));
@@ -129,13 +408,63 @@ class BeerControllerTest {
 
   @Test
   void whenGETListWithoutBeersIsCalledThenOkStatusIsReturned() throws Exception {
+    doAnswer(rowsOf(2)).when(beerService).writeAll(isNull(), isNull(), any());
+
+    mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH)
+                                          .contentType(MediaType.APPLICATION_JSON))
+           .andExpect(status().isOk())
+           .andExpect(content().json("[]", true));
+  }
+
+  @Test
+  void whenGETListWithLimitIsCalledThenAPageIsReturned() throws Exception {
     BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
 
-    when(beerService.listAll()).thenReturn(Collections.singletonList(beerDto));
+    when(beerService.listPage(null, 1, null, null)).thenReturn(
+        new BeerPageDto(Collections.singletonList(beerDto), beerDto.getId()));
 
     mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH)
+                                          .param("limit", "1")
                                           .contentType(MediaType.APPLICATION_JSON))
-           .andExpect(status().isOk());
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.content[0].name", is(beerDto.getName())))
+           .andExpect(jsonPath("$.next", is(beerDto.getId().intValue())));
+  }
+
+  @Test
+  void whenGETListAcceptingNdjsonIsCalledThenBeersAreStreamed() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+
+    doAnswer(rowsOf(2, beerDto, beerDto)).when(beerService)
+                                         .writeAll(eq(BeerType.LAGER), isNull(), any());
+
+    MvcResult mvcResult =
+        mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH)
+                                              .param("type", BeerType.LAGER.name())
+                                              .accept(MediaType.APPLICATION_NDJSON))
+               .andExpect(request().asyncStarted())
+               .andExpect(header().string(HttpHeaders.ETAG,
+                                          "\"" + beerETags.ofCollection() + "-ndjson\""))
+               .andReturn();
+
+    String beerLine = asJsonString(beerDto) + "\n";
+    mockMvc.perform(asyncDispatch(mvcResult))
+           .andExpect(status().isOk())
+           .andExpect(content().string(beerLine + beerLine));
+  }
+
+  @Test
+  void whenGETChangesIsCalledThenTheFeedIsSubscribedFromTheLastEventId() throws Exception {
+    String lastEventId = "k1-42";
+
+    when(beerChangeFeed.subscribe(lastEventId)).thenReturn(new SseEmitter());
+
+    mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + BEER_API_SUBPATH_CHANGES_URL)
+                                          .header(BeerController.LAST_EVENT_ID_HEADER,
+                                                  lastEventId)
+                                          .accept(MediaType.TEXT_EVENT_STREAM))
+           .andExpect(request().asyncStarted());
+    verify(beerChangeFeed).subscribe(lastEventId);
   }
 
   @Test
@@ -226,6 +555,42 @@ class BeerControllerTest {
            .andExpect(jsonPath("$.quantity", is(beerDto.getQuantity())));
   }
 
+  @Test
+  void whenPATCHIsCalledToUpdateLowStockThenOKstatusIsReturned() throws Exception {
+    LowStockDto lowStockDto = LowStockDto.builder().lowStock(20).build();
+
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    beerDto.setLowStock(lowStockDto.getLowStock());
+
+    when(beerService.updateLowStock(VALID_BEER_ID, lowStockDto.getLowStock())).thenReturn(beerDto);
+
+    mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_LOW_STOCK_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(lowStockDto))).andExpect(status().isOk())
+           .andExpect(jsonPath("$.name", is(beerDto.getName())))
+           .andExpect(jsonPath("$.lowStock", is(lowStockDto.getLowStock())));
+  }
+
+  @Test
+  void whenPATCHIsCalledWithNegativeLowStockThenBadRequestStatusIsReturned() throws Exception {
+    LowStockDto lowStockDto = LowStockDto.builder().lowStock(-1).build();
+
+    mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_LOW_STOCK_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(lowStockDto))).andExpect(status().isBadRequest());
+    verify(beerService, never()).updateLowStock(any(), any());
+  }
+
+  @Test
+  void whenPATCHIsCalledWithNegativeQuantityThenBadRequestStatusIsReturned() throws Exception {
+    QuantityDto quantityDto = QuantityDto.builder().quantity(-5).build();
+
+    mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_DECREMENT_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(quantityDto))).andExpect(status().isBadRequest());
+    verify(beerService, never()).decrement(anyLong(), anyInt());
+  }
+
   @Test
   void whenPATCHIsCalledToDEcrementLowerThanZeroThenBadRequestStatusIsReturned() throws Exception {
     QuantityDto quantityDto = QuantityDto.builder().quantity(60).build();
@@ -254,4 +619,268 @@ class BeerControllerTest {
                    .content(asJsonString(quantityDto)))
            .andExpect(status().isNotFound());
   }
+
+  @Test
+  void whenPATCHIsCalledToAdjustStockThenOKstatusIsReturned() throws Exception {
+    StockAdjustmentRequestDto request = new StockAdjustmentRequestDto(
+        Collections.singletonList(new StockAdjustmentDto(VALID_BEER_ID, 5)), false);
+    StockAdjustmentResultDto result =
+        new StockAdjustmentResultDto(VALID_BEER_ID, 5, StockAdjustmentStatus.APPLIED, 15);
+
+    when(beerService.adjustStock(request)).thenReturn(Collections.singletonList(result));
+
+    mockMvc.perform(patch(BEER_API_URL_PATH + BEER_API_SUBPATH_STOCK_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(request)))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$[0].status", is(StockAdjustmentStatus.APPLIED.toString())))
+           .andExpect(jsonPath("$[0].quantity", is(result.getQuantity())));
+  }
+
+  @Test
+  void whenPATCHIsCalledToAdjustStockAtomicallyAndItFailsThenConflictStatusIsReturned()
+      throws Exception {
+    StockAdjustmentRequestDto request = new StockAdjustmentRequestDto(
+        Collections.singletonList(new StockAdjustmentDto(INVALID_BEER_ID, 5)), true);
+    StockAdjustmentResultDto result =
+        new StockAdjustmentResultDto(INVALID_BEER_ID, 5, StockAdjustmentStatus.NOT_FOUND, null);
+
+    when(beerService.adjustStock(request)).thenThrow(
+        new StockAdjustmentRejectedException(Collections.singletonList(result)));
+
+    mockMvc.perform(patch(BEER_API_URL_PATH + BEER_API_SUBPATH_STOCK_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(request)))
+           .andExpect(status().isConflict())
+           .andExpect(jsonPath("$[0].status", is(StockAdjustmentStatus.NOT_FOUND.toString())));
+  }
+
+  @Test
+  void whenPATCHIsCalledToAdjustStockWithTheLedgerEnabledThenNotImplementedStatusIsReturned()
+      throws Exception {
+    StockAdjustmentRequestDto request = new StockAdjustmentRequestDto(
+        Collections.singletonList(new StockAdjustmentDto(VALID_BEER_ID, 5)), false);
+
+    when(beerService.adjustStock(request))
+        .thenThrow(new StockLedgerEnabledException("Batch stock adjustment"));
+
+    mockMvc.perform(patch(BEER_API_URL_PATH + BEER_API_SUBPATH_STOCK_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(request)))
+           .andExpect(status().isNotImplemented());
+  }
+
+  @Test
+  void whenPATCHIsCalledToAdjustStockWithoutAdjustmentsThenBadRequestStatusIsReturned()
+      throws Exception {
+    StockAdjustmentRequestDto request =
+        new StockAdjustmentRequestDto(Collections.emptyList(), false);
+
+    mockMvc.perform(patch(BEER_API_URL_PATH + BEER_API_SUBPATH_STOCK_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(request)))
+           .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void whenPATCHIsCalledToIncrementAtALocationThenOnlyThatLocationIsUpdated() throws Exception {
+    QuantityDto quantityDto = QuantityDto.builder().quantity(10).build();
+
+    when(warehouseStockService.increment(VALID_BEER_ID, "sp", quantityDto.getQuantity()))
+        .thenReturn(new WarehouseStockDto("sp", 40, 100));
+
+    mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_INCREMENT_URL)
+                        .param("location", "sp")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(quantityDto)))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.location", is("sp")))
+           .andExpect(jsonPath("$.quantity", is(40)));
+    verify(beerService, never()).increment(any(), anyInt());
+  }
+
+  @Test
+  void whenPATCHIsCalledToDecrementAtAnUnknownLocationThenNotFoundStatusIsReturned()
+      throws Exception {
+    QuantityDto quantityDto = QuantityDto.builder().quantity(5).build();
+
+    when(warehouseStockService.decrement(VALID_BEER_ID, "rj", quantityDto.getQuantity()))
+        .thenThrow(new WarehouseStockNotFoundException(VALID_BEER_ID, "rj"));
+
+    mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_DECREMENT_URL)
+                        .param("location", "rj")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(quantityDto)))
+           .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void whenGETStockIsCalledThenTotalsOfAllLocationsAreReturned() throws Exception {
+    when(warehouseStockService.stockOf(VALID_BEER_ID)).thenReturn(
+        new BeerStockDto(VALID_BEER_ID, 50, 150,
+                         Collections.singletonList(new WarehouseStockDto("sp", 40, 100))));
+
+    mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/" + VALID_BEER_ID
+                                               + BEER_API_SUBPATH_STOCK_URL))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.quantity", is(50)))
+           .andExpect(jsonPath("$.max", is(150)))
+           .andExpect(jsonPath("$.locations[0].location", is("sp")));
+  }
+
+  @Test
+  void whenPUTIsCalledWithALocationMaxThenTheLocationIsReturned() throws Exception {
+    when(warehouseStockService.updateMax(VALID_BEER_ID, "sp", 100))
+        .thenReturn(new WarehouseStockDto("sp", 0, 100));
+
+    mockMvc.perform(MockMvcRequestBuilders.put(BEER_API_URL_PATH + "/" + VALID_BEER_ID
+                                               + BEER_API_SUBPATH_STOCK_URL + "/sp")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(MaxDto.builder().max(100).build())))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.max", is(100)));
+  }
+
+  @Test
+  void whenPOSTIsCalledToReserveThenTheReservationIsCreated() throws Exception {
+    ReservationRequestDto reservationRequestDto = ReservationRequestDto.builder()
+                                                                       .quantity(6)
+                                                                       .build();
+    Instant expiresAt = Instant.parse("2021-08-01T10:10:00Z");
+
+    when(stockReservationService.reserve(VALID_BEER_ID, reservationRequestDto))
+        .thenReturn(new ReservationDto(RESERVATION_ID, VALID_BEER_ID, 6, expiresAt));
+
+    mockMvc.perform(post(BEER_API_URL_PATH + "/" + VALID_BEER_ID
+                         + BEER_API_SUBPATH_RESERVATIONS_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(reservationRequestDto)))
+           .andExpect(status().isCreated())
+           .andExpect(jsonPath("$.id", is((int) RESERVATION_ID)))
+           .andExpect(jsonPath("$.quantity", is(6)));
+  }
+
+  @Test
+  void whenPOSTIsCalledToReserveWithoutQuantityThenBadRequestStatusIsReturned()
+      throws Exception {
+    mockMvc.perform(post(BEER_API_URL_PATH + "/" + VALID_BEER_ID
+                         + BEER_API_SUBPATH_RESERVATIONS_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(new ReservationRequestDto())))
+           .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void whenPOSTIsCalledToCommitAReservationThenTheBeerIsReturned() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+
+    when(stockReservationService.commit(RESERVATION_ID)).thenReturn(beerDto);
+
+    mockMvc.perform(post(BEER_API_URL_PATH + BEER_API_SUBPATH_RESERVATIONS_URL + "/"
+                         + RESERVATION_ID + "/commit"))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.quantity", is(beerDto.getQuantity())));
+  }
+
+  @Test
+  void whenDELETEIsCalledWithAnExpiredReservationThenNotFoundStatusIsReturned()
+      throws Exception {
+    doThrow(new ReservationNotFoundException(RESERVATION_ID))
+        .when(stockReservationService).release(RESERVATION_ID);
+
+    mockMvc.perform(MockMvcRequestBuilders.delete(BEER_API_URL_PATH
+                                                  + BEER_API_SUBPATH_RESERVATIONS_URL + "/"
+                                                  + RESERVATION_ID))
+           .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void whenGETStatsIsCalledThenTotalsPerTypeAndBrandAreReturned() throws Exception {
+    BeerStockTotalsDto totals = new BeerStockTotalsDto(2, 30, 100, 0.3);
+
+    when(beerInventoryStats.stats()).thenReturn(
+        new BeerStatsDto(totals, Map.of(BeerType.LAGER, totals), Map.of("Ambev", totals)));
+
+    mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + BEER_API_SUBPATH_STATS_URL))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.total.quantity", is(30)))
+           .andExpect(jsonPath("$.types.LAGER.fillRatio", is(0.3)))
+           .andExpect(jsonPath("$.brands.Ambev.count", is(2)));
+  }
+
+  @Test
+  void whenGETSearchIsCalledThenFoundBeersAreReturned() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+
+    when(beerService.search("brah", 10)).thenReturn(Collections.singletonList(beerDto));
+
+    mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + BEER_API_SUBPATH_SEARCH_URL)
+                        .param("q", "brah"))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$[0].name", is(beerDto.getName())));
+  }
+
+  @Test
+  void whenGETMovementsIsCalledThenTotalsOfTheIntervalAreReturned() throws Exception {
+    Instant from = Instant.parse("2021-08-01T00:00:00Z");
+    Instant to = Instant.parse("2021-08-03T00:00:00Z");
+    StockMovementTotalDto total = new StockMovementTotalDto(from, 15, 5, 10, 3);
+
+    when(stockMovementService.totalsOfBeer(VALID_BEER_ID, from, to, StockMovementInterval.DAY))
+        .thenReturn(Collections.singletonList(total));
+
+    mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/" + VALID_BEER_ID
+                                               + BEER_API_SUBPATH_MOVEMENTS_URL)
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("interval", StockMovementInterval.DAY.name()))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$[0].added", is(15)))
+           .andExpect(jsonPath("$[0].net", is(10)))
+           .andExpect(jsonPath("$[0].movements", is(3)));
+  }
+
+  @Test
+  void whenGETMovementsIsCalledWithAnInvalidRangeThenBadRequestStatusIsReturned()
+      throws Exception {
+    Instant from = Instant.parse("2021-08-03T00:00:00Z");
+    Instant to = Instant.parse("2021-08-01T00:00:00Z");
+
+    when(stockMovementService.totalsOfType(BeerType.LAGER, from, to, StockMovementInterval.HOUR))
+        .thenThrow(new InvalidTimeRangeException(from, to));
+
+    mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + BEER_API_SUBPATH_MOVEMENTS_URL)
+                        .param("type", BeerType.LAGER.name())
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+           .andExpect(status().isBadRequest());
+  }
+
+  /**
+   * @return os nomes dos campos da regra {@code rule = { ... }} do esquema CDDL
+   */
+  private static Set<String> schemaFields(String schema, String rule) {
+    Matcher body = Pattern.compile("(?m)^" + rule + " = \\{([^}]*)}").matcher(schema);
+    assertThat(body.find(), is(true));
+    Matcher field = Pattern.compile("(?m)^\\s*([\\w-]+):").matcher(body.group(1));
+    Set<String> fields = new HashSet<>();
+    while (field.find()) {
+      fields.add(field.group(1));
+    }
+    return fields;
+  }
+
+  /**
+   * @return os valores de texto da regra {@code rule = "A" / "B"} do esquema CDDL
+   */
+  private static List<String> schemaValues(String schema, String rule) {
+    Matcher body = Pattern.compile("(?m)^" + rule + " = (.*)$").matcher(schema);
+    assertThat(body.find(), is(true));
+    Matcher value = Pattern.compile("\"([^\"]*)\"").matcher(body.group(1));
+    List<String> values = new ArrayList<>();
+    while (value.find()) {
+      values.add(value.group(1));
+    }
+    return values;
+  }
 }
@@ -0,0 +1,134 @@
+package one.digitalinnovation.beerstockapi.datasource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import one.digitalinnovation.beerstockapi.builder.BeerDtoBuilder;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstockapi.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstockapi.service.BeerService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Testes do roteamento entre o primário e uma réplica, com duas instâncias H2 em memória. A
+ * replicação é simulada gravando diretamente na réplica.
+ *
+ * @author Marcelo dos Santos
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=" + ReplicaRoutingIntegrationTest.PRIMARY_URL,
+    "beerstock.replication.replicas[0].url=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+    "beerstock.replication.replicas[0].username=sa",
+    "beerstock.replication.max-lag=5s",
+    "beerstock.replication.check-interval=1h"
+})
+class ReplicaRoutingIntegrationTest {
+
+  static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+  static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+  static final String REPLICA_ONLY_BEER = "Replica Only";
+  static final String SET_HEARTBEAT_SQL = "update replication_heartbeat set beat = ? where id = 1";
+  static final String INSERT_BEER_SQL =
+      "insert into beer (id, name, name_key, brand, max, quantity, type, version) "
+      + "values (?, ?, lower(?), 'Ambev', 50, 10, 'LAGER', 0)";
+
+  @Autowired
+  BeerService beerService;
+
+  @Autowired
+  ReplicaLagMonitor replicaLagMonitor;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  JdbcTemplate replica;
+
+  @BeforeEach
+  void setUp() {
+    DriverManagerDataSource replicaDataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+    Flyway.configure().dataSource(replicaDataSource).load().migrate();
+    replica = new JdbcTemplate(replicaDataSource);
+    replica.update(INSERT_BEER_SQL, 1_000L, REPLICA_ONLY_BEER, REPLICA_ONLY_BEER);
+  }
+
+  @AfterEach
+  void tearDown() {
+    replica.update("delete from beer");
+    jdbcTemplate.update("delete from beer");
+  }
+
+  @Test
+  void whenReplicaIsCurrentThenReadOnlyQueriesUseIt() throws BeerNotFoundException {
+    replicate(System.currentTimeMillis());
+
+    assertThat(beerNames(), contains(REPLICA_ONLY_BEER));
+    assertThat(beerService.findByName(REPLICA_ONLY_BEER).getName(), is(REPLICA_ONLY_BEER));
+  }
+
+  @Test
+  void whenReplicaLagsBeyondMaxLagThenReadsFallBackToThePrimary() {
+    replicate(System.currentTimeMillis() - 60_000L);
+
+    assertThat(beerNames(), not(hasItem(REPLICA_ONLY_BEER)));
+  }
+
+  @Test
+  void whenWritingThenThePrimaryIsUsedUntilTheReplicaCatchesUp()
+      throws BeerAlreadyRegisteredException {
+    replicate(System.currentTimeMillis());
+    BeerDto beerDto = BeerDtoBuilder.builder().id(null).build().toBeerDto();
+
+    beerService.createBeer(beerDto);
+
+    assertThat(jdbcTemplate.queryForObject("select count(*) from beer where name = ?",
+                                           Integer.class, beerDto.getName()),
+               is(equalTo(1)));
+    assertThat(beerNames(), contains(beerDto.getName()));
+
+    replicate(System.currentTimeMillis() + 1);
+
+    assertThat(beerNames(), contains(REPLICA_ONLY_BEER));
+  }
+
+  @Test
+  void whenReplicaIsUnreachableThenReadsFallBackToThePrimary() {
+    replicate(System.currentTimeMillis());
+    replica.execute("alter table replication_heartbeat rename to replication_heartbeat_down");
+    try {
+      replicaLagMonitor.check();
+
+      assertThat(beerNames(), not(hasItem(REPLICA_ONLY_BEER)));
+    } finally {
+      replica.execute("alter table replication_heartbeat_down rename to replication_heartbeat");
+    }
+  }
+
+  /**
+   * Simula a replicação do heartbeat gravado em {@code beat} e executa a verificação.
+   */
+  private void replicate(long beat) {
+    replica.update(SET_HEARTBEAT_SQL, beat);
+    replicaLagMonitor.check();
+  }
+
+  private List<String> beerNames() {
+    return beerService.listAll()
+                      .stream()
+                      .map(BeerDto::getName)
+                      .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,95 @@
+package one.digitalinnovation.beerstockapi.etag;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.sql.DataSource;
+import one.digitalinnovation.beerstockapi.builder.BeerDtoBuilder;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.datasource.ReplicaLagMonitor;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.datasource.ReplicaRoutingDataSource;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import one.digitalinnovation.beerstockapi.event.StockLedgerFlushEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+/**
+ * Testes da ordem em que o ETag das coleções avança após o commit.
+ *
+ * @author Marcelo dos Santos
+ */
+class BeerETagsTest {
+
+  AnnotationConfigApplicationContext context;
+
+  ReplicaRoutingDataSource routingDataSource;
+
+  @BeforeEach
+  void setUp() {
+    routingDataSource = mock(ReplicaRoutingDataSource.class);
+    context = new AnnotationConfigApplicationContext();
+    context.registerBean(BeerETags.class);
+    context.registerBean(ReplicaLagMonitor.class,
+                         () -> new ReplicaLagMonitor(mock(DataSource.class), routingDataSource,
+                                                     new BeerStockProperties(),
+                                                     new SimpleMeterRegistry()));
+    context.refresh();
+    TransactionSynchronizationManager.initSynchronization();
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.setActualTransactionActive(false);
+    TransactionSynchronizationManager.clearSynchronization();
+    context.close();
+  }
+
+  @Test
+  void whenAWriteCommitsThenItIsRecordedForReplicaRoutingBeforeTheCollectionETagAdvances() {
+    BeerETags beerETags = context.getBean(BeerETags.class);
+    String previousETag = beerETags.ofCollection();
+    List<String> eTagsSeenByRecordWrite = new ArrayList<>();
+    doAnswer(invocation -> eTagsSeenByRecordWrite.add(beerETags.ofCollection()))
+        .when(routingDataSource).recordWrite();
+    context.publishEvent(new BeerEvent(BeerEventType.STOCK_CHANGED,
+                                       BeerDtoBuilder.builder().build().toBeerDto()));
+
+    TransactionSynchronizationUtils.triggerAfterCommit();
+
+    assertThat(eTagsSeenByRecordWrite, contains(previousETag));
+    assertThat(beerETags.ofCollection(), is(not(equalTo(previousETag))));
+  }
+
+  @Test
+  void whenAListingIsReadBetweenTheLedgerAdjustmentAndItsFlushThenTheFlushAdvancesTheETag() {
+    BeerETags beerETags = context.getBean(BeerETags.class);
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    context.publishEvent(new BeerEvent(BeerEventType.STOCK_CHANGED, beerDto));
+    TransactionSynchronizationUtils.triggerAfterCommit();
+    String eTagOfTheStaleListing = beerETags.ofCollection();
+    List<String> eTagsSeenByRecordWrite = new ArrayList<>();
+    doAnswer(invocation -> eTagsSeenByRecordWrite.add(beerETags.ofCollection()))
+        .when(routingDataSource).recordWrite();
+
+    context.publishEvent(new StockLedgerFlushEvent(Set.of(beerDto.getId())));
+
+    assertThat(eTagsSeenByRecordWrite, contains(eTagOfTheStaleListing));
+    assertThat(beerETags.ofCollection(), is(not(equalTo(eTagOfTheStaleListing))));
+  }
+}
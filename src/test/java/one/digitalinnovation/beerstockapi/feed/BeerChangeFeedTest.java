@@ -0,0 +1,225 @@
+package one.digitalinnovation.beerstockapi.feed;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import one.digitalinnovation.beerstockapi.builder.BeerDtoBuilder;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Testes do fluxo de alterações de Beer.
+ *
+ * @author Marcelo dos Santos
+ */
+class BeerChangeFeedTest {
+
+  static final String CHANGES_PATH = "/changes";
+  static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+  static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)");
+
+  BeerStockProperties properties = new BeerStockProperties();
+
+  MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  BeerChangeFeed beerChangeFeed;
+
+  MockMvc mockMvc;
+
+  void setUp(Executor sender) {
+    beerChangeFeed = new BeerChangeFeed(properties, new ObjectMapper(), meterRegistry,
+                                        Runnable::run, sender);
+    mockMvc = MockMvcBuilders.standaloneSetup(new ChangesController(beerChangeFeed)).build();
+  }
+
+  @Test
+  void whenBeerEventIsPublishedThenSubscribersReceiveIt() throws Exception {
+    setUp(Runnable::run);
+    MockHttpServletResponse response = subscribe(null);
+
+    publish(BeerEventType.CREATED);
+
+    assertThat(response.getContentAsString(), containsString("event:CREATED"));
+    assertThat(response.getContentAsString(), containsString("\"sequence\":1"));
+    assertThat(response.getContentAsString(), containsString("\"name\":\"Brahma\""));
+  }
+
+  @Test
+  void whenSubscriberResumesThenOnlyMissedChangesAreSent() throws Exception {
+    setUp(Runnable::run);
+    MockHttpServletResponse firstResponse = subscribe(null);
+    publish(BeerEventType.CREATED);
+    publish(BeerEventType.STOCK_CHANGED);
+    Matcher firstEventId = EVENT_ID.matcher(firstResponse.getContentAsString());
+    assertThat(firstEventId.find(), is(true));
+
+    MockHttpServletResponse resumedResponse = subscribe(firstEventId.group(1));
+
+    assertThat(resumedResponse.getContentAsString(), not(containsString("event:CREATED")));
+    assertThat(resumedResponse.getContentAsString(), containsString("event:STOCK_CHANGED"));
+  }
+
+  @Test
+  void whenLastEventIdIsFromAnotherInstanceThenResetIsSent() throws Exception {
+    setUp(Runnable::run);
+    publish(BeerEventType.CREATED);
+
+    MockHttpServletResponse response = subscribe("previous-1");
+
+    assertThat(response.getContentAsString(),
+               containsString("event:" + BeerChangeFeed.RESET_EVENT));
+    assertThat(response.getContentAsString(), not(containsString("event:CREATED")));
+  }
+
+  @Test
+  void whenSubscriberFallsBehindItsBufferThenItIsDropped() throws Exception {
+    properties.getChanges().setBufferSize(1);
+    List<Runnable> pendingSends = new ArrayList<>();
+    setUp(pendingSends::add);
+    subscribe(null);
+
+    publish(BeerEventType.CREATED);
+    publish(BeerEventType.STOCK_CHANGED);
+
+    assertThat(meterRegistry.get(BeerChangeFeed.DROPPED_METRIC).counter().count(),
+               is(equalTo(1.0)));
+    assertThat(meterRegistry.get(BeerChangeFeed.SUBSCRIBERS_METRIC).gauge().value(),
+               is(equalTo(0.0)));
+  }
+
+  @Test
+  void whenSubscriberSendStallsThenItIsDroppedAndOthersStillReceiveEvents() throws Exception {
+    properties.getChanges().setSendTimeout(Duration.ZERO);
+    ThreadPoolExecutor sender = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                                                       new LinkedBlockingQueue<>());
+    CountDownLatch sendStarted = new CountDownLatch(1);
+    CountDownLatch releaseSend = new CountDownLatch(1);
+    BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    Deque<SseEmitter> emitters = new ArrayDeque<>(List.of(
+        new BlockingEmitter(sendStarted, releaseSend), new RecordingEmitter(received)));
+    beerChangeFeed = new BeerChangeFeed(properties, new ObjectMapper(), meterRegistry,
+                                        Runnable::run, sender) {
+      @Override
+      SseEmitter newEmitter(long timeout) {
+        return emitters.removeFirst();
+      }
+    };
+    try {
+      beerChangeFeed.subscribe(null);
+      beerChangeFeed.subscribe(null);
+      publish(BeerEventType.CREATED);
+      assertThat(sendStarted.await(5, TimeUnit.SECONDS), is(true));
+
+      beerChangeFeed.dropStalledSubscribers();
+
+      assertThat(received.poll(5, TimeUnit.SECONDS), is(equalTo(
+          BeerEventType.CREATED.name())));
+      assertThat(meterRegistry.get(BeerChangeFeed.DROPPED_METRIC).counter().count(),
+                 is(equalTo(1.0)));
+      assertThat(sender.getCorePoolSize(), is(equalTo(2)));
+    } finally {
+      releaseSend.countDown();
+      sender.shutdownNow();
+    }
+  }
+
+  private MockHttpServletResponse subscribe(String lastEventId) throws Exception {
+    MockHttpServletRequestBuilder request = get(CHANGES_PATH);
+    if (lastEventId != null) {
+      request.header(LAST_EVENT_ID_HEADER, lastEventId);
+    }
+    return mockMvc.perform(request).andReturn().getResponse();
+  }
+
+  private void publish(BeerEventType type) {
+    beerChangeFeed.onBeerEvent(new BeerEvent(type, BeerDtoBuilder.builder().build().toBeerDto()));
+  }
+
+  static class BlockingEmitter extends SseEmitter {
+
+    private final CountDownLatch sendStarted;
+    private final CountDownLatch releaseSend;
+
+    BlockingEmitter(CountDownLatch sendStarted, CountDownLatch releaseSend) {
+      this.sendStarted = sendStarted;
+      this.releaseSend = releaseSend;
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) {
+      sendStarted.countDown();
+      try {
+        releaseSend.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  static class RecordingEmitter extends SseEmitter {
+
+    private static final Pattern EVENT_NAME = Pattern.compile("event:(\\S+)");
+
+    private final BlockingQueue<String> received;
+
+    RecordingEmitter(BlockingQueue<String> received) {
+      this.received = received;
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) {
+      StringBuilder event = new StringBuilder();
+      builder.build().forEach(data -> event.append(data.getData()));
+      Matcher name = EVENT_NAME.matcher(event);
+      if (name.find()) {
+        received.add(name.group(1));
+      }
+    }
+  }
+
+  @RestController
+  static class ChangesController {
+
+    private final BeerChangeFeed beerChangeFeed;
+
+    ChangesController(BeerChangeFeed beerChangeFeed) {
+      this.beerChangeFeed = beerChangeFeed;
+    }
+
+    @GetMapping(CHANGES_PATH)
+    SseEmitter changes(@RequestHeader(value = LAST_EVENT_ID_HEADER, required = false)
+                           String lastEventId) {
+      return beerChangeFeed.subscribe(lastEventId);
+    }
+  }
+}
@@ -0,0 +1,247 @@
+package one.digitalinnovation.beerstockapi.idempotency;
+
+import static one.digitalinnovation.beerstockapi.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import one.digitalinnovation.beerstockapi.builder.BeerDtoBuilder;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.controller.BeerController;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.QuantityDto;
+import one.digitalinnovation.beerstockapi.dto.WarehouseStockDto;
+import one.digitalinnovation.beerstockapi.etag.BeerETags;
+import one.digitalinnovation.beerstockapi.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstockapi.feed.BeerChangeFeed;
+import one.digitalinnovation.beerstockapi.service.BeerImportService;
+import one.digitalinnovation.beerstockapi.service.BeerService;
+import one.digitalinnovation.beerstockapi.service.StockMovementService;
+import one.digitalinnovation.beerstockapi.service.StockReservationService;
+import one.digitalinnovation.beerstockapi.service.WarehouseStockService;
+import one.digitalinnovation.beerstockapi.stats.BeerInventoryStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Testes da repetição de requisições com {@code Idempotency-Key}.
+ *
+ * @author Marcelo dos Santos
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+  static final String BEER_API_URL_PATH = "/api/v1/beers";
+  static final String INCREMENT_URL = BEER_API_URL_PATH + "/1/increment";
+  static final String KEY = "3f1c2a9e-key";
+
+  @Mock
+  BeerService beerService;
+
+  @Mock
+  BeerImportService beerImportService;
+
+  @Mock
+  BeerChangeFeed beerChangeFeed;
+
+  @Mock
+  StockMovementService stockMovementService;
+
+  @Mock
+  BeerInventoryStats beerInventoryStats;
+
+  @Mock
+  WarehouseStockService warehouseStockService;
+
+  @Mock
+  StockReservationService stockReservationService;
+
+  MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    BeerController beerController = new BeerController(beerService, beerImportService,
+                                                       new ObjectMapper(), new BeerETags(),
+                                                       beerChangeFeed, stockMovementService,
+                                                       beerInventoryStats, warehouseStockService,
+                                                       stockReservationService);
+    IdempotencyStore store = new InMemoryIdempotencyStore(new BeerStockProperties(),
+                                                          meterRegistry);
+    mockMvc = MockMvcBuilders.standaloneSetup(beerController)
+                             .addFilters(new IdempotencyFilter(store, meterRegistry))
+                             .build();
+  }
+
+  @Test
+  void whenRequestIsRepeatedWithTheSameKeyThenTheStoredResponseIsReplayed() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    when(beerService.createBeer(beerDto)).thenReturn(beerDto);
+
+    MvcResult firstResult = mockMvc.perform(create(beerDto))
+                                   .andExpect(status().isCreated())
+                                   .andReturn();
+    mockMvc.perform(create(beerDto))
+           .andExpect(status().isCreated())
+           .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+           .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+           .andExpect(content().bytes(firstResult.getResponse().getContentAsByteArray()));
+
+    verify(beerService, times(1)).createBeer(beerDto);
+    assertThat(count("replayed"), is(equalTo(1.0)));
+  }
+
+  @Test
+  void whenResponseIsReplayedThenItsETagAndLocationAreReplayed() throws Exception {
+    IdempotencyStore store = new InMemoryIdempotencyStore(new BeerStockProperties(),
+                                                          meterRegistry);
+    mockMvc = MockMvcBuilders.standaloneSetup(new CreatedController())
+                             .addFilters(new IdempotencyFilter(store, meterRegistry))
+                             .build();
+
+    mockMvc.perform(post(CreatedController.PATH).header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER,
+                                                        KEY))
+           .andExpect(status().isCreated());
+    mockMvc.perform(post(CreatedController.PATH).header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER,
+                                                        KEY))
+           .andExpect(status().isCreated())
+           .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+           .andExpect(header().string(HttpHeaders.ETAG, CreatedController.ETAG))
+           .andExpect(header().string(HttpHeaders.LOCATION, CreatedController.LOCATION));
+  }
+
+  @Test
+  void whenAnotherClientUsesTheSameKeyThenTheRequestIsNotReplayed() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    when(beerService.increment(1L, 10)).thenReturn(beerDto);
+
+    mockMvc.perform(increment(10)).andExpect(status().isOk());
+    mockMvc.perform(increment(10).with(request -> {
+      request.setRemoteAddr("192.0.2.10");
+      return request;
+    }))
+           .andExpect(status().isOk())
+           .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+    verify(beerService, times(2)).increment(1L, 10);
+  }
+
+  @Test
+  void whenKeyIsReusedForAnotherRequestThenUnprocessableEntityIsReturned() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    when(beerService.increment(1L, 10)).thenReturn(beerDto);
+
+    mockMvc.perform(increment(10)).andExpect(status().isOk());
+    mockMvc.perform(increment(5)).andExpect(status().isUnprocessableEntity());
+
+    verify(beerService, times(1)).increment(1L, 10);
+    assertThat(count("mismatch"), is(equalTo(1.0)));
+  }
+
+  @Test
+  void whenKeyIsReusedForAnotherLocationThenUnprocessableEntityIsReturned() throws Exception {
+    when(warehouseStockService.increment(1L, "sp", 10))
+        .thenReturn(new WarehouseStockDto("sp", 10, 100));
+
+    mockMvc.perform(increment(INCREMENT_URL + "?location=sp", 10)).andExpect(status().isOk());
+    mockMvc.perform(increment(INCREMENT_URL + "?location=rj", 10))
+           .andExpect(status().isUnprocessableEntity());
+
+    verify(warehouseStockService, times(1)).increment(1L, "sp", 10);
+  }
+
+  @Test
+  void whenRequestFailsThenItCanBeRetriedWithTheSameKey() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    when(beerService.increment(1L, 10)).thenThrow(new BeerNotFoundException(1L))
+                                       .thenReturn(beerDto);
+
+    mockMvc.perform(increment(10)).andExpect(status().isNotFound());
+    mockMvc.perform(increment(10)).andExpect(status().isOk());
+    mockMvc.perform(increment(10))
+           .andExpect(status().isOk())
+           .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+
+    verify(beerService, times(2)).increment(1L, 10);
+  }
+
+  @Test
+  void whenKeyIsInProgressThenConflictIsReturned() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    int[] concurrentStatus = new int[1];
+    doAnswer(invocation -> {
+      concurrentStatus[0] = mockMvc.perform(increment(10)).andReturn().getResponse().getStatus();
+      return beerDto;
+    }).when(beerService).increment(1L, 10);
+
+    mockMvc.perform(increment(10)).andExpect(status().isOk());
+
+    assertThat(concurrentStatus[0], is(equalTo(HttpStatus.CONFLICT.value())));
+    verify(beerService, times(1)).increment(1L, 10);
+  }
+
+  private MockHttpServletRequestBuilder create(BeerDto beerDto) {
+    return post(BEER_API_URL_PATH).header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, KEY)
+                                  .contentType(MediaType.APPLICATION_JSON)
+                                  .content(asJsonString(beerDto));
+  }
+
+  private MockHttpServletRequestBuilder increment(int quantity) {
+    return increment(INCREMENT_URL, quantity);
+  }
+
+  private MockHttpServletRequestBuilder increment(String url, int quantity) {
+    return patch(url).header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, KEY)
+                     .contentType(MediaType.APPLICATION_JSON)
+                     .content(asJsonString(QuantityDto.builder()
+                                                      .quantity(quantity)
+                                                      .build()));
+  }
+
+  private double count(String result) {
+    return meterRegistry.get(IdempotencyFilter.IDEMPOTENCY_METRIC)
+                        .tag("result", result)
+                        .counter()
+                        .count();
+  }
+
+  @RestController
+  static class CreatedController {
+
+    static final String PATH = "/created";
+    static final String ETAG = "\"1-0-10\"";
+    static final String LOCATION = "/api/v1/beers/1";
+
+    @PostMapping(PATH)
+    ResponseEntity<Void> create() {
+      return ResponseEntity.created(URI.create(LOCATION)).eTag(ETAG).build();
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package one.digitalinnovation.beerstockapi.idempotency;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Testes das respostas por {@code Idempotency-Key} guardadas no banco.
+ *
+ * @author Marcelo dos Santos
+ */
+class JdbcIdempotencyStoreTest {
+
+  static final String URL = "jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1";
+  static final String KEY = "3f1c2a9e-key";
+
+  BeerStockProperties properties = new BeerStockProperties();
+
+  JdbcTemplate jdbcTemplate;
+
+  JdbcIdempotencyStore store;
+
+  @BeforeEach
+  void setUp() {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+    Flyway.configure().dataSource(dataSource).load().migrate();
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    store = new JdbcIdempotencyStore(jdbcTemplate, properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("delete from idempotent_response");
+  }
+
+  @Test
+  void whenResponseIsSavedThenItIsFound() {
+    store.save(KEY, response("first"));
+
+    Optional<IdempotentResponse> found = store.find(KEY);
+
+    assertThat(found.map(IdempotentResponse::getFingerprint), is(equalTo(Optional.of("first"))));
+    assertThat(found.get().getBody(), is(equalTo(body("first"))));
+    assertThat(found.get().getEtag(), is(equalTo("\"1-0-10\"")));
+    assertThat(found.get().getLocation(), is(equalTo("/api/v1/beers/1")));
+  }
+
+  @Test
+  void whenKeyIsSavedTwiceThenTheFirstResponseIsKept() {
+    store.save(KEY, response("first"));
+    store.save(KEY, response("second"));
+
+    assertThat(store.find(KEY).map(IdempotentResponse::getFingerprint),
+               is(equalTo(Optional.of("first"))));
+  }
+
+  @Test
+  void whenResponseExpiresThenItIsNotFoundAndCanBeReplaced() {
+    properties.getIdempotency().setTtl(Duration.ZERO);
+    store.save(KEY, response("first"));
+
+    assertThat(store.find(KEY), is(equalTo(Optional.empty())));
+
+    properties.getIdempotency().setTtl(Duration.ofHours(1));
+    jdbcTemplate.update("update idempotent_response set created_at = 0");
+    store.save(KEY, response("second"));
+
+    assertThat(store.find(KEY).map(IdempotentResponse::getFingerprint),
+               is(equalTo(Optional.of("second"))));
+  }
+
+  @Test
+  void whenPurgingThenOnlyExpiredResponsesAreRemoved() {
+    store.save(KEY, response("first"));
+    store.save("expired", response("expired"));
+    jdbcTemplate.update("update idempotent_response set created_at = 0 where idempotency_key = ?",
+                        "expired");
+
+    assertThat(store.purge(), is(equalTo(1)));
+    assertThat(store.find(KEY).isPresent(), is(true));
+  }
+
+  private static IdempotentResponse response(String fingerprint) {
+    return new IdempotentResponse(fingerprint, 201, "application/json", "\"1-0-10\"",
+                                  "/api/v1/beers/1", body(fingerprint));
+  }
+
+  private static byte[] body(String fingerprint) {
+    return ("{\"request\":\"" + fingerprint + "\"}").getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,271 @@
+package one.digitalinnovation.beerstockapi.ledger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import one.digitalinnovation.beerstockapi.builder.BeerDtoBuilder;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentDto;
+import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.entity.StockLedgerCheckpoint;
+import one.digitalinnovation.beerstockapi.event.StockLedgerFlushEvent;
+import one.digitalinnovation.beerstockapi.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstockapi.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstockapi.mapper.BeerMapper;
+import one.digitalinnovation.beerstockapi.repository.BeerRepository;
+import one.digitalinnovation.beerstockapi.repository.StockLedgerCheckpointRepository;
+import one.digitalinnovation.beerstockapi.repository.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Testes do livro-razão de estoque em memória.
+ *
+ * @author Marcelo dos Santos
+ */
+@ExtendWith(MockitoExtension.class)
+class StockLedgerTest {
+
+  static final long INVALID_BEER_ID = 2L;
+
+  @TempDir
+  Path journalDirectory;
+
+  @Mock
+  BeerRepository beerRepository;
+
+  @Mock
+  StockLedgerCheckpointRepository checkpointRepository;
+
+  @Mock
+  StockMovementRepository stockMovementRepository;
+
+  @Mock
+  ApplicationEventPublisher eventPublisher;
+
+  BeerStockProperties properties;
+
+  StockLedger stockLedger;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    properties = new BeerStockProperties();
+    properties.getLedger().setEnabled(true);
+    properties.getLedger().setJournalDirectory(journalDirectory);
+    properties.getLedger().setFsync(false);
+    stockLedger = newStockLedger();
+    stockLedger.start();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException, InterruptedException {
+    stockLedger.stop();
+  }
+
+  @Test
+  void whenDeltaIsWithinBoundsThenItIsAppliedInMemory()
+      throws BeerNotFoundException, BeerStockExceededException {
+    BeerDto beerDto = givenBeer();
+
+    BeerDto incrementedBeerDto = stockLedger.apply(beerDto.getId(), 30);
+    BeerDto decrementedBeerDto = stockLedger.apply(beerDto.getId(), -40);
+
+    assertThat(incrementedBeerDto.getQuantity(), is(equalTo(40)));
+    assertThat(decrementedBeerDto.getQuantity(), is(equalTo(0)));
+    assertThat(stockLedger.quantityOf(beerDto.getId()), is(equalTo(OptionalInt.of(0))));
+    verify(beerRepository, never()).addQuantities(any());
+  }
+
+  @Test
+  void whenDeltaExceedsTheBoundsThenAnExceptionShouldBeThrown()
+      throws BeerNotFoundException, BeerStockExceededException {
+    BeerDto beerDto = givenBeer();
+
+    assertThrows(BeerStockExceededException.class, () -> stockLedger.apply(beerDto.getId(), 41));
+    assertThrows(BeerStockExceededException.class, () -> stockLedger.apply(beerDto.getId(), -11));
+    assertThat(stockLedger.apply(beerDto.getId(), 0).getQuantity(), is(equalTo(10)));
+  }
+
+  @Test
+  void whenBeerDoesNotExistThenAnExceptionShouldBeThrown() {
+    when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Optional.empty());
+
+    assertThrows(BeerNotFoundException.class, () -> stockLedger.apply(INVALID_BEER_ID, 1));
+  }
+
+  @Test
+  void whenConcurrentDeltasAreAppliedThenTheBoundsAreNeverCrossed() throws Exception {
+    BeerDto beerDto = givenBeer();
+    AtomicInteger accepted = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    CountDownLatch start = new CountDownLatch(1);
+    for (int i = 0; i < 100; i++) {
+      executor.execute(() -> {
+        try {
+          start.await();
+          stockLedger.apply(beerDto.getId(), 1);
+          accepted.incrementAndGet();
+        } catch (BeerStockExceededException e) {
+          // esperado quando o estoque atinge o máximo
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+
+    assertThat(accepted.get(), is(equalTo(beerDto.getMax() - beerDto.getQuantity())));
+    assertThat(stockLedger.quantityOf(beerDto.getId()),
+               is(equalTo(OptionalInt.of(beerDto.getMax()))));
+  }
+
+  @Test
+  void whenLedgerIsFlushedThenDeltasAreCoalescedAndCheckpointed() throws Exception {
+    BeerDto beerDto = givenBeer();
+    stockLedger.apply(beerDto.getId(), 5);
+    stockLedger.apply(beerDto.getId(), 3);
+
+    stockLedger.flush();
+
+    verify(beerRepository).addQuantities(Collections.singletonMap(beerDto.getId(), 8));
+    verify(stockMovementRepository).appendAll(
+        Collections.singletonList(new StockAdjustmentDto(beerDto.getId(), 8)));
+    verify(checkpointRepository).save(
+        new StockLedgerCheckpoint(StockLedgerCheckpoint.SINGLETON_ID, 1L));
+    verify(eventPublisher).publishEvent(
+        new StockLedgerFlushEvent(Collections.singleton(beerDto.getId())));
+    assertThat(StockJournal.segments(journalDirectory).firstKey(), is(equalTo(2L)));
+  }
+
+  @Test
+  void whenStockChangesOutsideTheLedgerThenFlushResyncsTheCounter() throws Exception {
+    BeerDto beerDto = givenBeer();
+    stockLedger.apply(beerDto.getId(), 5);
+    Beer storedBeer = BeerMapper.INSTANCE.toModel(beerDto);
+    storedBeer.setQuantity(beerDto.getQuantity() + 5 + 20);
+    when(beerRepository.findAllById(Collections.singleton(beerDto.getId())))
+        .thenReturn(Collections.singletonList(storedBeer));
+
+    stockLedger.flush();
+
+    assertThat(stockLedger.quantityOf(beerDto.getId()), is(equalTo(OptionalInt.of(35))));
+    assertThrows(BeerStockExceededException.class, () -> stockLedger.apply(beerDto.getId(), 20));
+  }
+
+  @Test
+  void whenBeerWasDeletedElsewhereThenFlushDropsItsCounter() throws Exception {
+    BeerDto beerDto = givenBeer();
+    stockLedger.apply(beerDto.getId(), 5);
+
+    stockLedger.flush();
+
+    assertThat(stockLedger.quantityOf(beerDto.getId()), is(equalTo(OptionalInt.empty())));
+  }
+
+  @Test
+  void whenPersistFailsThenPendingDeltasAreRetriedWithoutNewAdjustments() throws Exception {
+    BeerDto beerDto = givenBeer();
+    stockLedger.apply(beerDto.getId(), 5);
+    doThrow(new QueryTimeoutException("timeout"))
+        .doNothing()
+        .when(beerRepository).addQuantities(any());
+
+    assertThrows(QueryTimeoutException.class, () -> stockLedger.flush());
+    stockLedger.flush();
+
+    verify(beerRepository, times(2))
+        .addQuantities(Collections.singletonMap(beerDto.getId(), 5));
+    verify(checkpointRepository).save(
+        new StockLedgerCheckpoint(StockLedgerCheckpoint.SINGLETON_ID, 1L));
+  }
+
+  @Test
+  void whenNothingChangedThenFlushDoesNotTouchTheDatabase() throws IOException {
+    stockLedger.flush();
+
+    verify(beerRepository, never()).addQuantities(any());
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  @Test
+  void whenLedgerRestartsAfterACrashThenUnflushedDeltasAreReplayed() throws Exception {
+    BeerDto beerDto = givenBeer();
+    stockLedger.apply(beerDto.getId(), 5);
+    stockLedger.apply(beerDto.getId(), -2);
+    Files.write(journalDirectory.resolve("stock-1.journal"),
+                "1,100".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+    StockLedger restartedLedger = newStockLedger();
+    restartedLedger.start();
+    restartedLedger.stop();
+
+    verify(beerRepository).addQuantities(Collections.singletonMap(beerDto.getId(), 3));
+    verify(checkpointRepository).save(
+        new StockLedgerCheckpoint(StockLedgerCheckpoint.SINGLETON_ID, 1L));
+  }
+
+  @Test
+  void whenCheckpointCoversTheJournalThenNothingIsReplayed() throws Exception {
+    BeerDto beerDto = givenBeer();
+    stockLedger.apply(beerDto.getId(), 5);
+    when(checkpointRepository.findById(StockLedgerCheckpoint.SINGLETON_ID))
+        .thenReturn(Optional.of(new StockLedgerCheckpoint(StockLedgerCheckpoint.SINGLETON_ID, 1L)));
+
+    StockLedger restartedLedger = newStockLedger();
+    restartedLedger.start();
+    restartedLedger.stop();
+
+    verify(beerRepository, never()).addQuantities(any());
+    assertThat(StockJournal.readAll(StockJournal.segments(journalDirectory).values()),
+               is(anEmptyMap()));
+  }
+
+  StockLedger newStockLedger() {
+    return new StockLedger(beerRepository, checkpointRepository, stockMovementRepository,
+                           new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                           eventPublisher, properties);
+  }
+
+  BeerDto givenBeer() {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    when(beerRepository.findById(beerDto.getId()))
+        .thenReturn(Optional.of(BeerMapper.INSTANCE.toModel(beerDto)));
+    return beerDto;
+  }
+}
@@ -0,0 +1,57 @@
+package one.digitalinnovation.beerstockapi.listing;
+
+import static one.digitalinnovation.beerstockapi.utils.BeerRowUtils.asRow;
+import static one.digitalinnovation.beerstockapi.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.StringWriter;
+import one.digitalinnovation.beerstockapi.builder.BeerDtoBuilder;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes da escrita das linhas de Beer com os mesmos campos do {@link BeerDto}.
+ *
+ * @author Marcelo dos Santos
+ */
+class BeerJsonRowWriterTest {
+
+  JsonFactory jsonFactory = new JsonFactory();
+
+  @Test
+  void whenRowHasLowStockThenItIsWrittenLikeTheDto() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    beerDto.setLowStock(10);
+
+    assertThat(writeLines(beerDto), is(equalTo(asJsonString(beerDto) + "\n")));
+  }
+
+  @Test
+  void whenRowsAreWrittenAsElementsThenTheyAreNotLineDelimited() throws Exception {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+
+    StringWriter output = new StringWriter();
+    try (JsonGenerator generator = jsonFactory.createGenerator(output)) {
+      BeerJsonRowWriter writer = BeerJsonRowWriter.elements(generator);
+      generator.writeStartArray();
+      writer.processRow(asRow(beerDto));
+      writer.processRow(asRow(beerDto));
+      generator.writeEndArray();
+    }
+
+    assertThat(output.toString(),
+               is(equalTo("[" + asJsonString(beerDto) + "," + asJsonString(beerDto) + "]")));
+  }
+
+  private String writeLines(BeerDto beerDto) throws Exception {
+    StringWriter output = new StringWriter();
+    try (JsonGenerator generator = jsonFactory.createGenerator(output)) {
+      BeerJsonRowWriter.lines(generator).processRow(asRow(beerDto));
+    }
+    return output.toString();
+  }
+}
@@ -0,0 +1,111 @@
+package one.digitalinnovation.beerstockapi.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import one.digitalinnovation.beerstockapi.builder.BeerDtoBuilder;
+import one.digitalinnovation.beerstockapi.cache.BeerCache;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstockapi.service.BeerService;
+import one.digitalinnovation.beerstockapi.ledger.StockLedger;
+import one.digitalinnovation.beerstockapi.mapper.BeerMapper;
+import one.digitalinnovation.beerstockapi.repository.BeerRepository;
+import one.digitalinnovation.beerstockapi.repository.StockMovementRepository;
+import one.digitalinnovation.beerstockapi.search.BeerSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Testes das métricas dos serviços.
+ *
+ * @author Marcelo dos Santos
+ */
+@ExtendWith(MockitoExtension.class)
+class ServiceMetricsAspectTest {
+
+  @Mock
+  BeerRepository beerRepository;
+
+  @Mock
+  BeerCache beerCache;
+
+  @Mock
+  ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  ObjectProvider<StockLedger> stockLedgerProvider;
+
+  @Mock
+  StockMovementRepository stockMovementRepository;
+
+  @Mock
+  BeerSearchIndex beerSearchIndex;
+
+  MeterRegistry meterRegistry;
+
+  BeerService proxy;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    BeerService beerService =
+        new BeerService(beerRepository, beerCache, eventPublisher, stockLedgerProvider,
+                        stockMovementRepository, beerSearchIndex);
+    AspectJProxyFactory proxyFactory = new AspectJProxyFactory(beerService);
+    proxyFactory.setProxyTargetClass(true);
+    proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+    proxy = proxyFactory.getProxy();
+  }
+
+  @Test
+  void whenServiceMethodReturnsThenItIsTimed() throws BeerNotFoundException {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    when(beerRepository.findByNameKey(Beer.nameKeyOf(beerDto.getName())))
+        .thenReturn(Optional.of(BeerMapper.INSTANCE.toModel(beerDto)));
+
+    proxy.findByName(beerDto.getName());
+
+    assertThat(timerCount("none"), is(equalTo(1L)));
+    assertThat(meterRegistry.find(ServiceMetricsAspect.EXCEPTIONS_COUNTER).counter(),
+               is(nullValue()));
+  }
+
+  @Test
+  void whenServiceMethodThrowsThenTheExceptionIsCounted() {
+    String name = BeerDtoBuilder.builder().build().toBeerDto().getName();
+
+    assertThrows(BeerNotFoundException.class, () -> proxy.findByName(name));
+
+    assertThat(timerCount("BeerNotFoundException"), is(equalTo(1L)));
+    assertThat(meterRegistry.get(ServiceMetricsAspect.EXCEPTIONS_COUNTER)
+                            .tag("method", "findByName")
+                            .tag("exception", "BeerNotFoundException")
+                            .counter()
+                            .count(),
+               is(equalTo(1.0)));
+  }
+
+  private long timerCount(String exception) {
+    return meterRegistry.get(ServiceMetricsAspect.SERVICE_TIMER)
+                        .tag("class", "BeerService")
+                        .tag("method", "findByName")
+                        .tag("exception", exception)
+                        .timer()
+                        .count();
+  }
+}
@@ -0,0 +1,172 @@
+package one.digitalinnovation.beerstockapi.ratelimit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Testes da limitação de requisições por cliente e do descarte por concorrência.
+ *
+ * @author Marcelo dos Santos
+ */
+class RateLimitFilterTest {
+
+  static final String DECREMENT_PATH = "/api/v1/beers/1/decrement";
+  static final String NESTED_PATH = "/api/v1/beers/nested";
+  static final String HEALTH_PATH = "/actuator/health";
+  static final String API_KEY_HEADER = "X-API-Key";
+
+  BeerStockProperties properties = new BeerStockProperties();
+
+  MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  long now;
+
+  int nestedStatus;
+
+  String nestedRetryAfter;
+
+  MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    properties.getRateLimit().setRequestsPerSecond(2);
+    properties.getRateLimit().setBurst(2);
+    build();
+  }
+
+  @Test
+  void whenClientExceedsItsBurstThenTooManyRequestsIsReturned() throws Exception {
+    mockMvc.perform(decrement("mobile")).andExpect(status().isOk());
+    mockMvc.perform(decrement("mobile")).andExpect(status().isOk());
+
+    mockMvc.perform(decrement("mobile"))
+           .andExpect(status().isTooManyRequests())
+           .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    assertThat(meterRegistry.get(RateLimitFilter.REJECTED_METRIC)
+                            .tag("reason", "rate")
+                            .counter()
+                            .count(),
+               is(equalTo(1.0)));
+  }
+
+  @Test
+  void whenTokensAreRefilledThenTheClientIsServedAgain() throws Exception {
+    mockMvc.perform(decrement("mobile")).andExpect(status().isOk());
+    mockMvc.perform(decrement("mobile")).andExpect(status().isOk());
+    mockMvc.perform(decrement("mobile")).andExpect(status().isTooManyRequests());
+
+    now += TimeUnit.MILLISECONDS.toNanos(500);
+
+    mockMvc.perform(decrement("mobile")).andExpect(status().isOk());
+    mockMvc.perform(decrement("mobile")).andExpect(status().isTooManyRequests());
+  }
+
+  @Test
+  void whenAnotherClientFloodsThenEachClientHasItsOwnBucket() throws Exception {
+    mockMvc.perform(decrement("promotion")).andExpect(status().isOk());
+    mockMvc.perform(decrement("promotion")).andExpect(status().isOk());
+    mockMvc.perform(decrement("promotion")).andExpect(status().isTooManyRequests());
+
+    mockMvc.perform(decrement("mobile")).andExpect(status().isOk());
+    mockMvc.perform(patch(DECREMENT_PATH)).andExpect(status().isOk());
+  }
+
+  @Test
+  void whenClientVariesAHeaderThenItStillSharesTheBucketOfItsAddress() throws Exception {
+    mockMvc.perform(patch(DECREMENT_PATH).header(API_KEY_HEADER, "first"))
+           .andExpect(status().isOk());
+    mockMvc.perform(patch(DECREMENT_PATH).header(API_KEY_HEADER, "second"))
+           .andExpect(status().isOk());
+
+    mockMvc.perform(patch(DECREMENT_PATH).header(API_KEY_HEADER, "third"))
+           .andExpect(status().isTooManyRequests());
+    mockMvc.perform(patch(DECREMENT_PATH).with(request -> {
+      request.setRemoteAddr("192.0.2.10");
+      return request;
+    }))
+           .andExpect(status().isOk());
+  }
+
+  @Test
+  void whenNoSlotIsFreedWithinTheQueueTimeThenServiceUnavailableIsReturned() throws Exception {
+    properties.getRateLimit().setMaxConcurrentRequests(1);
+    properties.getRateLimit().setMaxQueueTime(Duration.ofMillis(10));
+    build();
+
+    mockMvc.perform(get(NESTED_PATH)).andExpect(status().isOk());
+
+    assertThat(nestedStatus, is(equalTo(503)));
+    assertThat(nestedRetryAfter, is(equalTo("1")));
+    assertThat(meterRegistry.get(RateLimitFilter.REJECTED_METRIC)
+                            .tag("reason", "concurrency")
+                            .counter()
+                            .count(),
+               is(equalTo(1.0)));
+  }
+
+  @Test
+  void whenPathIsOutsideTheApiThenItIsNotLimited() throws Exception {
+    properties.getRateLimit().setBurst(1);
+    build();
+
+    mockMvc.perform(get(HEALTH_PATH)).andExpect(status().isOk());
+    mockMvc.perform(get(HEALTH_PATH)).andExpect(status().isOk());
+  }
+
+  private void build() {
+    meterRegistry = new SimpleMeterRegistry();
+    RateLimitFilter filter = new RateLimitFilter(properties, meterRegistry, () -> now);
+    mockMvc = MockMvcBuilders.standaloneSetup(new LimitedController())
+                             .addFilters(filter)
+                             .build();
+  }
+
+  private static MockHttpServletRequestBuilder decrement(String client) {
+    return patch(DECREMENT_PATH).principal(() -> client);
+  }
+
+  @RestController
+  class LimitedController {
+
+    @PatchMapping(DECREMENT_PATH)
+    void decrement() {
+      // Resposta vazia; só o filtro interessa.
+    }
+
+    @GetMapping(NESTED_PATH)
+    void nested() throws Exception {
+      MockHttpServletResponse response =
+          mockMvc.perform(get(NESTED_PATH).principal(() -> "other"))
+                 .andReturn()
+                 .getResponse();
+      nestedStatus = response.getStatus();
+      nestedRetryAfter = response.getHeader(HttpHeaders.RETRY_AFTER);
+    }
+
+    @GetMapping(HEALTH_PATH)
+    void health() {
+      // Resposta vazia; só o filtro interessa.
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package one.digitalinnovation.beerstockapi.repository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+/**
+ * Testes das operações JDBC do {@link BeerRepositoryImpl}.
+ *
+ * @author Marcelo dos Santos
+ */
+@ExtendWith(MockitoExtension.class)
+class BeerRepositoryImplTest {
+
+  @Mock
+  JdbcTemplate jdbcTemplate;
+
+  @Mock
+  EntityManager entityManager;
+
+  @InjectMocks
+  BeerRepositoryImpl beerRepositoryImpl;
+
+  static final List<StockAdjustmentDto> ADJUSTMENTS = List.of(new StockAdjustmentDto(1L, 5),
+                                                              new StockAdjustmentDto(2L, -5),
+                                                              new StockAdjustmentDto(3L, 500));
+
+  @Test
+  void whenDriverDoesNotReportUpdateCountsThenTheyAreResolvedByTheBeerVersions() {
+    when(jdbcTemplate.batchUpdate(anyString(), any(), anyInt(),
+                                  any(ParameterizedPreparedStatementSetter.class)))
+        .thenReturn(new int[][] {{1, Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO}});
+    when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), any(), any(), any()))
+        .thenReturn(Map.of(1L, 0L, 2L, 0L, 3L, 0L))
+        .thenReturn(Map.of(1L, 1L, 2L, 1L, 3L, 0L));
+
+    int[] updatedRows = beerRepositoryImpl.adjustQuantities(ADJUSTMENTS);
+
+    assertThat(updatedRows, is(equalTo(new int[] {1, 1, 0})));
+  }
+
+  @Test
+  void whenCountsAreReportedThenTheVersionsAreNotReadAgain() {
+    when(jdbcTemplate.batchUpdate(anyString(), any(), anyInt(),
+                                  any(ParameterizedPreparedStatementSetter.class)))
+        .thenReturn(new int[][] {{1, 1, 0}});
+
+    int[] updatedRows = beerRepositoryImpl.adjustQuantities(ADJUSTMENTS);
+
+    assertThat(updatedRows, is(equalTo(new int[] {1, 1, 0})));
+    verify(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class), any(), any(), any());
+  }
+
+  @Test
+  void whenUnreportedCountsOfTheSameBeerAreAmbiguousThenTheBatchFails() {
+    List<StockAdjustmentDto> adjustments = List.of(new StockAdjustmentDto(1L, -5),
+                                                   new StockAdjustmentDto(1L, -5));
+    when(jdbcTemplate.batchUpdate(anyString(), any(), anyInt(),
+                                  any(ParameterizedPreparedStatementSetter.class)))
+        .thenReturn(new int[][] {{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO}});
+    when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), any()))
+        .thenReturn(Map.of(1L, 0L))
+        .thenReturn(Map.of(1L, 1L));
+
+    assertThrows(IncorrectUpdateSemanticsDataAccessException.class,
+                 () -> beerRepositoryImpl.adjustQuantities(adjustments));
+  }
+}
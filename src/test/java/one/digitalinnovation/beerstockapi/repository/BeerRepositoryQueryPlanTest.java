@@ -0,0 +1,130 @@
+package one.digitalinnovation.beerstockapi.repository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.stream.Collectors;
+import one.digitalinnovation.beerstockapi.dto.BeerGroupTotalsDto;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Verifica, com EXPLAIN, que as consultas geradas pelo {@link BeerRepository} sobre o esquema das
+ * migrações usam os índices esperados.
+ *
+ * @author Marcelo dos Santos
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                          + "one.digitalinnovation.beerstockapi.repository."
+                          + "BeerRepositoryQueryPlanTest$SqlRecorder")
+class BeerRepositoryQueryPlanTest {
+
+  private static final String INSERT_BEERS =
+      "insert into beer (id, name, name_key, brand, max, quantity, type, version) "
+      + "select x, 'Beer ' || x, 'beer ' || x, 'Brand ' || mod(x, 100), 500, 250, "
+      + "case mod(x, 3) when 0 then 'LAGER' when 1 then 'IPA' else 'STOUT' end, 0 "
+      + "from system_range(1, 1000)";
+
+  @Autowired
+  BeerRepository beerRepository;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.update(INSERT_BEERS);
+    SqlRecorder.STATEMENTS.clear();
+  }
+
+  @Test
+  void whenFindByNameKeyThenTheUniqueNameKeyIndexIsUsed() {
+    beerRepository.findByNameKey("brahma");
+
+    assertThat(lastQueryPlan(), containsString("UK_BEER_NAME_KEY"));
+  }
+
+  @Test
+  void whenFindNameKeysInThenTheUniqueNameKeyIndexIsUsed() {
+    beerRepository.findNameKeysIn(List.of("brahma", "skol"));
+
+    assertThat(lastQueryPlan(), containsString("UK_BEER_NAME_KEY"));
+  }
+
+  @Test
+  void whenPageIsFilteredByTypeThenTheTypeIndexIsUsed() {
+    beerRepository.findPageAfter(0L, BeerType.LAGER, null, PageRequest.of(0, 10));
+
+    assertThat(lastQueryPlan(), containsString("IX_BEER_TYPE_ID"));
+  }
+
+  @Test
+  void whenPageIsFilteredByBrandThenTheBrandIndexIsUsed() {
+    beerRepository.findPageAfter(0L, null, "Ambev", PageRequest.of(0, 10));
+
+    assertThat(lastQueryPlan(), containsString("IX_BEER_BRAND_ID"));
+  }
+
+  @Test
+  void whenPageIsFilteredByTypeAndBrandThenAFilterIndexIsUsed() {
+    beerRepository.findPageAfter(0L, BeerType.LAGER, "Ambev", PageRequest.of(0, 10));
+
+    assertThat(lastQueryPlan(), anyOf(containsString("IX_BEER_TYPE_ID"),
+                                      containsString("IX_BEER_BRAND_ID")));
+  }
+
+  @Test
+  void whenPageIsNotFilteredThenThePrimaryKeyIsUsed() {
+    beerRepository.findPageAfter(0L, null, null, PageRequest.of(0, 10));
+
+    assertThat(lastQueryPlan(), containsString("PRIMARY_KEY"));
+  }
+
+  @Test
+  void whenSumByTypeAndBrandThenEachGroupIsTotaled() {
+    List<BeerGroupTotalsDto> groupTotals = beerRepository.sumByTypeAndBrand();
+
+    assertThat(groupTotals, hasSize(300));
+    assertThat(groupTotals.stream().mapToLong(BeerGroupTotalsDto::getCount).sum(),
+               is(equalTo(1_000L)));
+    assertThat(groupTotals.stream().mapToLong(BeerGroupTotalsDto::getQuantity).sum(),
+               is(equalTo(250_000L)));
+  }
+
+  private String lastQueryPlan() {
+    String sql = SqlRecorder.STATEMENTS.stream()
+                                       .filter(statement -> statement.startsWith("select"))
+                                       .reduce((first, second) -> second)
+                                       .orElseThrow();
+    return jdbcTemplate.queryForList("explain " + sql, String.class)
+                       .stream()
+                       .collect(Collectors.joining("\n"));
+  }
+
+  /**
+   * Registra o SQL gerado pelo Hibernate.
+   */
+  public static class SqlRecorder implements StatementInspector {
+
+    static final Deque<String> STATEMENTS = new ConcurrentLinkedDeque<>();
+
+    @Override
+    public String inspect(String sql) {
+      STATEMENTS.add(sql);
+      return sql;
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package one.digitalinnovation.beerstockapi.repository;
+
+import static one.digitalinnovation.beerstockapi.repository.StockMovementRepositoryCustom.HOUR_MILLIS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Instant;
+import java.util.List;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentDto;
+import one.digitalinnovation.beerstockapi.dto.StockMovementTotalDto;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Testes do registro de movimentações de estoque e da sua consolidação por hora.
+ *
+ * @author Marcelo dos Santos
+ */
+class StockMovementRepositoryTest {
+
+  static final String URL = "jdbc:h2:mem:stock-movement;DB_CLOSE_DELAY=-1";
+  static final long LAGER_ID = 1L;
+  static final long ALE_ID = 2L;
+  static final long FIRST_HOUR = 10 * HOUR_MILLIS;
+  static final long SECOND_HOUR = FIRST_HOUR + HOUR_MILLIS;
+  static final long THIRD_HOUR = SECOND_HOUR + HOUR_MILLIS;
+  static final String INSERT_BEER_SQL =
+      "insert into beer (id, name, name_key, brand, max, quantity, type, version) "
+      + "values (?, ?, lower(?), 'Ambev', 50, 10, ?, 0)";
+
+  JdbcTemplate jdbcTemplate;
+
+  StockMovementRepositoryImpl repository;
+
+  @BeforeEach
+  void setUp() {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+    Flyway.configure().dataSource(dataSource).load().migrate();
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    repository = new StockMovementRepositoryImpl(jdbcTemplate);
+    jdbcTemplate.update(INSERT_BEER_SQL, LAGER_ID, "Brahma", "Brahma", BeerType.LAGER.name());
+    jdbcTemplate.update(INSERT_BEER_SQL, ALE_ID, "Colorado", "Colorado", BeerType.ALE.name());
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("delete from stock_movement");
+    jdbcTemplate.update("delete from stock_movement_hourly");
+    jdbcTemplate.update("update stock_movement_rollup set rolled_up_to = 0");
+    jdbcTemplate.update("delete from beer");
+  }
+
+  @Test
+  void whenMovementsAreAppendedThenTheBeerTypeIsRecorded() {
+    repository.appendAll(List.of(new StockAdjustmentDto(LAGER_ID, 5),
+                                 new StockAdjustmentDto(ALE_ID, -3),
+                                 new StockAdjustmentDto(99L, 1)));
+
+    assertThat(jdbcTemplate.queryForList("select beer_type from stock_movement order by beer_id",
+                                         String.class),
+               contains(BeerType.LAGER.name(), BeerType.ALE.name()));
+  }
+
+  @Test
+  void whenHoursAreNotRolledUpThenTotalsComeFromTheMovements() {
+    movementsAt(FIRST_HOUR + 1, 10, -4);
+    movementsAt(SECOND_HOUR + 1, 2);
+
+    assertThat(repository.hourlyTotals(LAGER_ID, null, FIRST_HOUR, THIRD_HOUR),
+               contains(total(FIRST_HOUR, 10, 4, 2), total(SECOND_HOUR, 2, 0, 1)));
+  }
+
+  @Test
+  void whenHoursAreRolledUpThenTotalsCombineRollupsAndMovements() {
+    movementsAt(FIRST_HOUR + 1, 10, -4);
+    movementsAt(SECOND_HOUR + 1, 2);
+
+    assertThat(repository.rollUp(SECOND_HOUR), is(equalTo(SECOND_HOUR)));
+    jdbcTemplate.update("delete from stock_movement where created_at < ?", SECOND_HOUR);
+
+    assertThat(repository.hourlyTotals(LAGER_ID, null, FIRST_HOUR, THIRD_HOUR),
+               contains(total(FIRST_HOUR, 10, 4, 2), total(SECOND_HOUR, 2, 0, 1)));
+    assertThat(repository.rollUp(FIRST_HOUR), is(equalTo(SECOND_HOUR)));
+    assertThat(jdbcTemplate.queryForObject("select count(*) from stock_movement_hourly",
+                                           Integer.class),
+               is(equalTo(1)));
+  }
+
+  @Test
+  void whenAMovementIsCommittedAfterItsHourWasRolledUpThenTheNextRollupAddsIt() {
+    movementsAt(FIRST_HOUR + 1, 10);
+    repository.rollUp(SECOND_HOUR);
+
+    movementsAt(FIRST_HOUR + 2, -4);
+
+    assertThat(repository.rollUp(SECOND_HOUR), is(equalTo(SECOND_HOUR)));
+    assertThat(repository.hourlyTotals(LAGER_ID, null, FIRST_HOUR, SECOND_HOUR),
+               contains(total(FIRST_HOUR, 10, 4, 2)));
+    assertThat(jdbcTemplate.queryForObject("select count(*) from stock_movement_hourly",
+                                           Integer.class),
+               is(equalTo(1)));
+  }
+
+  @Test
+  void whenTotalsAreFilteredByTypeThenOnlyBeersOfThatTypeAreCounted() {
+    movementsAt(FIRST_HOUR + 1, 10);
+    jdbcTemplate.update("update stock_movement set beer_id = ?, beer_type = ?", ALE_ID,
+                        BeerType.ALE.name());
+    movementsAt(FIRST_HOUR + 2, 7);
+    repository.rollUp(SECOND_HOUR);
+
+    assertThat(repository.hourlyTotals(null, BeerType.ALE, FIRST_HOUR, SECOND_HOUR),
+               contains(total(FIRST_HOUR, 10, 0, 1)));
+    assertThat(repository.hourlyTotals(null, BeerType.STOUT, FIRST_HOUR, SECOND_HOUR),
+               is(empty()));
+  }
+
+  /**
+   * Registra as movimentações da Lager e as move para {@code createdAt}.
+   */
+  private void movementsAt(long createdAt, int... deltas) {
+    for (int delta : deltas) {
+      repository.appendAll(List.of(new StockAdjustmentDto(LAGER_ID, delta)));
+    }
+    jdbcTemplate.update("update stock_movement set created_at = ? where created_at > ?",
+                        createdAt, THIRD_HOUR);
+  }
+
+  private static StockMovementTotalDto total(long hour, long added, long removed,
+                                             long movements) {
+    return new StockMovementTotalDto(Instant.ofEpochMilli(hour), added, removed,
+                                     added - removed, movements);
+  }
+}
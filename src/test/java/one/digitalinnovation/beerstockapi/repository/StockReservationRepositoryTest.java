@@ -0,0 +1,88 @@
+package one.digitalinnovation.beerstockapi.repository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentDto;
+import one.digitalinnovation.beerstockapi.entity.StockReservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Testes das reservas de estoque e da retirada que as respeita, sobre o esquema das migrações.
+ *
+ * @author Marcelo dos Santos
+ */
+@DataJpaTest
+class StockReservationRepositoryTest {
+
+  static final long BEER_ID = 1L;
+  static final long NOW = 1_000_000L;
+
+  @Autowired
+  StockReservationRepository stockReservationRepository;
+
+  @Autowired
+  BeerRepository beerRepository;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  StockReservation activeReservation;
+
+  StockReservation expiredReservation;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.update("insert into beer (id, name, name_key, brand, max, quantity, type, "
+                        + "version) values (?, 'Brahma', 'brahma', 'Ambev', 50, 10, 'LAGER', 0)",
+                        BEER_ID);
+    activeReservation = stockReservationRepository.save(
+        new StockReservation(null, BEER_ID, 6, NOW + 1));
+    expiredReservation = stockReservationRepository.save(
+        new StockReservation(null, BEER_ID, 3, NOW));
+  }
+
+  @Test
+  void whenReservationsAreSummedThenExpiredOnesAreIgnored() {
+    assertThat(stockReservationRepository.sumActiveQuantity(BEER_ID, NOW), is(equalTo(6L)));
+    assertThat(stockReservationRepository.sumActiveQuantity(BEER_ID, NOW + 1), is(equalTo(0L)));
+  }
+
+  @Test
+  void whenDecrementWouldTakeReservedStockThenNothingIsUpdated() {
+    assertThat(beerRepository.decrementQuantity(BEER_ID, 5, NOW), is(equalTo(0)));
+    assertThat(beerRepository.decrementQuantity(BEER_ID, 4, NOW), is(equalTo(1)));
+    assertThat(beerRepository.decrementQuantity(BEER_ID, 6, NOW + 1), is(equalTo(1)));
+  }
+
+  @Test
+  void whenQuantityIsNotPositiveThenNothingIsUpdated() {
+    assertThat(beerRepository.incrementQuantity(BEER_ID, -10), is(equalTo(0)));
+    assertThat(beerRepository.decrementQuantity(BEER_ID, -50, NOW), is(equalTo(0)));
+  }
+
+  @Test
+  void whenBatchAdjustmentWouldTakeReservedStockThenItIsNotApplied() {
+    stockReservationRepository.save(new StockReservation(null, BEER_ID, 6, Long.MAX_VALUE));
+
+    assertThat(beerRepository.adjustQuantities(List.of(new StockAdjustmentDto(BEER_ID, -5))),
+               is(equalTo(new int[] {0})));
+    assertThat(beerRepository.adjustQuantities(List.of(new StockAdjustmentDto(BEER_ID, -4))),
+               is(equalTo(new int[] {1})));
+  }
+
+  @Test
+  void whenExpiredReservationsAreDeletedThenActiveOnesAreKept() {
+    assertThat(stockReservationRepository.deleteExpired(activeReservation.getId(), NOW),
+               is(equalTo(0)));
+    assertThat(stockReservationRepository.deleteExpired(expiredReservation.getId(), NOW),
+               is(equalTo(1)));
+    assertThat(stockReservationRepository.count(), is(equalTo(1L)));
+  }
+}
@@ -0,0 +1,88 @@
+package one.digitalinnovation.beerstockapi.repository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import one.digitalinnovation.beerstockapi.entity.WarehouseStock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Testes das alterações condicionais de estoque por local sobre o esquema das migrações.
+ *
+ * @author Marcelo dos Santos
+ */
+@DataJpaTest
+class WarehouseStockRepositoryTest {
+
+  static final long BEER_ID = 1L;
+
+  @Autowired
+  WarehouseStockRepository warehouseStockRepository;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.update("insert into beer (id, name, name_key, brand, max, quantity, type, "
+                        + "version) values (?, 'Brahma', 'brahma', 'Ambev', 50, 10, 'LAGER', 0)",
+                        BEER_ID);
+    warehouseStockRepository.save(new WarehouseStock(null, BEER_ID, "sp", 100, 90));
+    warehouseStockRepository.save(new WarehouseStock(null, BEER_ID, "rj", 20, 5));
+  }
+
+  @Test
+  void whenLocationsAreIncrementedThenEachRespectsItsOwnMax() {
+    assertThat(warehouseStockRepository.incrementQuantity(BEER_ID, "sp", 15), is(equalTo(0)));
+    assertThat(warehouseStockRepository.incrementQuantity(BEER_ID, "rj", 15), is(equalTo(1)));
+    assertThat(warehouseStockRepository.incrementQuantity(BEER_ID, "bh", 1), is(equalTo(0)));
+
+    assertThat(quantities(), contains(20, 90));
+  }
+
+  @Test
+  void whenLocationIsDecrementedBelowZeroThenNothingIsUpdated() {
+    assertThat(warehouseStockRepository.decrementQuantity(BEER_ID, "rj", 6), is(equalTo(0)));
+    assertThat(warehouseStockRepository.decrementQuantity(BEER_ID, "rj", 5), is(equalTo(1)));
+
+    assertThat(quantities(), contains(0, 90));
+  }
+
+  @Test
+  void whenQuantityIsNotPositiveThenNothingIsUpdated() {
+    assertThat(warehouseStockRepository.incrementQuantity(BEER_ID, "sp", -95), is(equalTo(0)));
+    assertThat(warehouseStockRepository.decrementQuantity(BEER_ID, "rj", -20), is(equalTo(0)));
+    assertThat(warehouseStockRepository.decrementQuantity(BEER_ID, "rj", 0), is(equalTo(0)));
+
+    assertThat(quantities(), contains(5, 90));
+  }
+
+  @Test
+  void whenMaxIsBelowTheQuantityThenItIsNotUpdated() {
+    assertThat(warehouseStockRepository.updateMax(BEER_ID, "sp", 80), is(equalTo(0)));
+    assertThat(warehouseStockRepository.updateMax(BEER_ID, "sp", 90), is(equalTo(1)));
+  }
+
+  @Test
+  void whenBeerIsDeletedThenItsLocationsAreDeleted() {
+    jdbcTemplate.update("delete from beer where id = ?", BEER_ID);
+
+    assertThat(warehouseStockRepository.findByBeerIdOrderByLocation(BEER_ID), is(empty()));
+  }
+
+  private List<Integer> quantities() {
+    return warehouseStockRepository.findByBeerIdOrderByLocation(BEER_ID)
+                                   .stream()
+                                   .map(WarehouseStock::getQuantity)
+                                   .collect(Collectors.toList());
+  }
+}
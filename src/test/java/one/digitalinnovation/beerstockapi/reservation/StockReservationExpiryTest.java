@@ -0,0 +1,76 @@
+package one.digitalinnovation.beerstockapi.reservation;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import one.digitalinnovation.beerstockapi.entity.StockReservation;
+import one.digitalinnovation.beerstockapi.repository.StockReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Testes da remoção das reservas de estoque expiradas.
+ *
+ * @author Marcelo dos Santos
+ */
+@ExtendWith(MockitoExtension.class)
+class StockReservationExpiryTest {
+
+  @Mock
+  StockReservationRepository stockReservationRepository;
+
+  MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  StockReservationExpiry stockReservationExpiry;
+
+  @BeforeEach
+  void setUp() {
+    stockReservationExpiry = new StockReservationExpiry(stockReservationRepository,
+                                                        meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    stockReservationExpiry.stop();
+  }
+
+  @Test
+  void whenStartedThenExistingReservationsAreRemovedAtTheirExpiry() {
+    long now = System.currentTimeMillis();
+    when(stockReservationRepository.findAll())
+        .thenReturn(List.of(new StockReservation(1L, 1L, 5, now - 1),
+                            new StockReservation(2L, 1L, 5, now + 60_000)));
+
+    stockReservationExpiry.start();
+
+    verify(stockReservationRepository, timeout(1_000)).deleteExpired(eq(1L), anyLong());
+    verify(stockReservationRepository, after(100).never()).deleteExpired(eq(2L), anyLong());
+  }
+
+  @Test
+  void whenReservationIsGoneThenItIsNotCountedAsExpired() {
+    stockReservationExpiry.start();
+    when(stockReservationRepository.deleteExpired(eq(1L), anyLong())).thenReturn(0);
+    when(stockReservationRepository.deleteExpired(eq(2L), anyLong())).thenReturn(1);
+
+    assertThat(stockReservationExpiry.expire(1L), is(false));
+    assertThat(stockReservationExpiry.expire(2L), is(true));
+    assertThat(meterRegistry.get(StockReservationExpiry.EXPIRED_METRIC).counter().count(),
+               is(equalTo(1.0)));
+  }
+}
@@ -0,0 +1,114 @@
+package one.digitalinnovation.beerstockapi.retry;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Testes da nova tentativa em conflitos de concorrência.
+ *
+ * @author Marcelo dos Santos
+ */
+class RetryOnConflictAspectTest {
+
+  private static final long BEER_ID = 1L;
+
+  MeterRegistry meterRegistry;
+
+  ConflictingStock conflictingStock;
+
+  ConflictingStock proxy;
+
+  @BeforeEach
+  void setUp() {
+    BeerStockProperties properties = new BeerStockProperties();
+    properties.getRetry().setInitialBackoff(Duration.ZERO);
+    meterRegistry = new SimpleMeterRegistry();
+    conflictingStock = new ConflictingStock();
+    AspectJProxyFactory proxyFactory = new AspectJProxyFactory(conflictingStock);
+    proxyFactory.addAspect(new RetryOnConflictAspect(properties, meterRegistry));
+    proxy = proxyFactory.getProxy();
+  }
+
+  @Test
+  void whenConflictIsTransientThenItIsRetried() {
+    conflictingStock.conflicts = 2;
+
+    assertThat(proxy.increment(BEER_ID), is(equalTo(3)));
+    assertThat(conflicts("retried"), is(equalTo(2.0)));
+    assertThat(conflicts("exhausted"), is(equalTo(0.0)));
+  }
+
+  @Test
+  void whenConflictPersistsThenTheExceptionIsThrownAfterMaxAttempts() {
+    conflictingStock.conflicts = Integer.MAX_VALUE;
+
+    assertThrows(ConcurrencyFailureException.class, () -> proxy.increment(BEER_ID));
+    assertThat(conflictingStock.attempts, is(equalTo(3)));
+    assertThat(conflicts("retried"), is(equalTo(2.0)));
+    assertThat(conflicts("exhausted"), is(equalTo(1.0)));
+  }
+
+  @Test
+  void whenMethodIsNotAnnotatedThenConflictIsNotRetried() {
+    conflictingStock.conflicts = 1;
+
+    assertThrows(ConcurrencyFailureException.class, () -> proxy.decrement(BEER_ID));
+    assertThat(conflictingStock.attempts, is(equalTo(1)));
+  }
+
+  @Test
+  void whenCalledInsideATransactionThenConflictIsLeftToTheCaller() {
+    conflictingStock.conflicts = 1;
+
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    try {
+      assertThrows(ConcurrencyFailureException.class, () -> proxy.increment(BEER_ID));
+    } finally {
+      TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+    assertThat(conflictingStock.attempts, is(equalTo(1)));
+  }
+
+  private double conflicts(String outcome) {
+    return meterRegistry.counter(RetryOnConflictAspect.CONFLICTS_METRIC,
+                                 "operation", "increment", "outcome", outcome)
+                        .count();
+  }
+
+  static class ConflictingStock {
+
+    int conflicts;
+
+    int attempts;
+
+    @RetryOnConflict
+    public int increment(Long id) {
+      return attempt(id);
+    }
+
+    public int decrement(Long id) {
+      return attempt(id);
+    }
+
+    private int attempt(Long id) {
+      attempts++;
+      if (attempts <= conflicts) {
+        throw new ObjectOptimisticLockingFailureException("Beer", id);
+      }
+      return attempts;
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package one.digitalinnovation.beerstockapi.search;
+
+import static one.digitalinnovation.beerstockapi.utils.BeerRowUtils.rowsOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+
+import one.digitalinnovation.beerstockapi.builder.BeerDtoBuilder;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import one.digitalinnovation.beerstockapi.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Testes do índice de busca de Beer.
+ *
+ * @author Marcelo dos Santos
+ */
+@ExtendWith(MockitoExtension.class)
+class BeerSearchIndexTest {
+
+  static final int LIMIT = 10;
+
+  @Mock
+  BeerRepository beerRepository;
+
+  BeerSearchIndex beerSearchIndex;
+
+  @BeforeEach
+  void setUp() {
+    doAnswer(rowsOf(2, beer(1L, "Brahma Duplo Malte", "Ambev"),
+                    beer(2L, "Brahma", "Ambev"),
+                    beer(3L, "Bohemia", "Ambev"),
+                    beer(4L, "Heineken", "Heineken"),
+                    beer(5L, "Petra Aurum", "Petrópolis"),
+                    beer(6L, "Ambev Lager Especial", "Cervejaria Nacional")))
+        .when(beerRepository).queryAll(isNull(), isNull(), any());
+    beerSearchIndex = new BeerSearchIndex(beerRepository, new BeerStockProperties());
+    beerSearchIndex.rebuild();
+  }
+
+  @Test
+  void whenQueryIsAPrefixThenBeersWithWordsStartingWithItAreFound() {
+    assertThat(beerSearchIndex.search("BRA", LIMIT), contains(2L, 1L));
+    assertThat(beerSearchIndex.search("brahma m", LIMIT), contains(1L));
+  }
+
+  @Test
+  void whenQueryHasATypoThenSimilarWordsAreFound() {
+    assertThat(beerSearchIndex.search("heinekem", LIMIT), contains(4L));
+    assertThat(beerSearchIndex.search("bohmeia", LIMIT), contains(3L));
+    assertThat(beerSearchIndex.search("bhm", LIMIT), is(empty()));
+  }
+
+  @Test
+  void whenQueryHasAccentsOrNotThenTheyAreIgnored() {
+    assertThat(beerSearchIndex.search("petropolis", LIMIT), contains(5L));
+    assertThat(beerSearchIndex.search("Petrópolis Áurum", LIMIT), contains(5L));
+  }
+
+  @Test
+  void whenWordIsInTheNameThenTheBeerRanksAboveBrandMatches() {
+    assertThat(beerSearchIndex.search("ambev", 3), contains(6L, 2L, 3L));
+  }
+
+  @Test
+  void whenBeerEventsArriveThenTheIndexIsUpdated() {
+    BeerDto renamedBeer = beer(2L, "Brahma Chopp", "Ambev");
+    beerSearchIndex.onBeerEvent(new BeerEvent(BeerEventType.CREATED, beer(7L, "Stella", "Ab")));
+    beerSearchIndex.onBeerEvent(new BeerEvent(BeerEventType.UPDATED, renamedBeer));
+    beerSearchIndex.onBeerEvent(new BeerEvent(BeerEventType.DELETED, beer(4L, "Heineken", "")));
+    beerSearchIndex.onBeerEvent(
+        new BeerEvent(BeerEventType.STOCK_CHANGED, beer(3L, "Ignored", "Ambev")));
+
+    assertThat(beerSearchIndex.search("stel", LIMIT), contains(7L));
+    assertThat(beerSearchIndex.search("chopp", LIMIT), contains(2L));
+    assertThat(beerSearchIndex.search("heineken", LIMIT), is(empty()));
+    assertThat(beerSearchIndex.search("bohemia", LIMIT), contains(3L));
+  }
+
+  @Test
+  void whenBeerEventArrivesDuringARebuildThenItIsKept() {
+    BeerDto createdBeer = beer(7L, "Stella Artois", "Ab");
+    doAnswer(invocation -> {
+      beerSearchIndex.onBeerEvent(new BeerEvent(BeerEventType.CREATED, createdBeer));
+      return rowsOf(2, beer(2L, "Brahma", "Ambev")).answer(invocation);
+    }).when(beerRepository).queryAll(isNull(), isNull(), any());
+
+    beerSearchIndex.rebuild();
+
+    assertThat(beerSearchIndex.search("artois", LIMIT), contains(7L));
+    assertThat(beerSearchIndex.search("heineken", LIMIT), is(empty()));
+  }
+
+  private static BeerDto beer(Long id, String name, String brand) {
+    return BeerDtoBuilder.builder().id(id).name(name).brand(brand).build().toBeerDto();
+  }
+}
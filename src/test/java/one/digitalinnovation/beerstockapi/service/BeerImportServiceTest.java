@@ -0,0 +1,252 @@
+package one.digitalinnovation.beerstockapi.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import one.digitalinnovation.beerstockapi.builder.BeerDtoBuilder;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.BeerImportReportDto;
+import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.enums.BeerImportStatus;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import one.digitalinnovation.beerstockapi.repository.BeerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Testes das regras de negócio da importação em lote de {@link Beer}.
+ *
+ * @author Marcelo dos Santos
+ */
+@ExtendWith(MockitoExtension.class)
+class BeerImportServiceTest {
+
+  @Mock
+  BeerRepository beerRepository;
+
+  @Spy
+  Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+  @Mock
+  ApplicationEventPublisher eventPublisher;
+
+  @InjectMocks
+  BeerImportService beerImportService;
+
+  @Test
+  void whenValidBeersAreImportedThenTheyShouldBeCreated() {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+
+    when(beerRepository.findNameKeysIn(Collections.singleton(Beer.nameKeyOf(beerDto.getName()))))
+        .thenReturn(Collections.emptySet());
+
+    BeerImportReportDto report = beerImportService.importBeers(iteratorOf(beerDto));
+
+    assertThat(report.getCreated(), is(equalTo(1L)));
+    assertThat(report.getRejected(), is(empty()));
+    ArgumentCaptor<List<Beer>> insertedBeers = ArgumentCaptor.forClass(List.class);
+    verify(beerRepository).insertAll(insertedBeers.capture());
+    assertThat(insertedBeers.getValue().get(0).getName(), is(equalTo(beerDto.getName())));
+    verify(eventPublisher).publishEvent(any(BeerEvent.class));
+  }
+
+  @Test
+  void whenDuplicatedAndInvalidBeersAreImportedThenTheyShouldBeRejectedPerRow() {
+    BeerDto registeredBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    BeerDto newBeerDto = BeerDtoBuilder.builder().name("Skol").build().toBeerDto();
+    BeerDto invalidBeerDto = BeerDtoBuilder.builder().name("Bohemia").max(900).build()
+                                           .toBeerDto();
+
+    when(beerRepository.findNameKeysIn(any()))
+        .thenReturn(Collections.singleton(Beer.nameKeyOf(registeredBeerDto.getName())));
+
+    BeerImportReportDto report = beerImportService.importBeers(
+        iteratorOf(registeredBeerDto, invalidBeerDto, newBeerDto, newBeerDto));
+
+    assertThat(report.getCreated(), is(equalTo(1L)));
+    assertThat(report.getRejected().stream()
+                     .map(row -> row.getRow() + ":" + row.getStatus())
+                     .collect(Collectors.toList()),
+               contains("1:" + BeerImportStatus.DUPLICATED, "2:" + BeerImportStatus.INVALID,
+                        "4:" + BeerImportStatus.DUPLICATED));
+  }
+
+  @Test
+  void whenNamesDifferOnlyInCaseThenTheyAreRejectedAsDuplicated() {
+    BeerDto registeredBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    BeerDto caseVariantBeerDto = BeerDtoBuilder.builder()
+                                               .name(registeredBeerDto.getName().toUpperCase())
+                                               .build().toBeerDto();
+    BeerDto newBeerDto = BeerDtoBuilder.builder().name("Skol").build().toBeerDto();
+    BeerDto newCaseVariantBeerDto = BeerDtoBuilder.builder().name("SKOL").build().toBeerDto();
+
+    when(beerRepository.findNameKeysIn(any()))
+        .thenReturn(Collections.singleton(Beer.nameKeyOf(registeredBeerDto.getName())));
+
+    BeerImportReportDto report = beerImportService.importBeers(
+        iteratorOf(caseVariantBeerDto, newBeerDto, newCaseVariantBeerDto));
+
+    assertThat(report.getCreated(), is(equalTo(1L)));
+    assertThat(report.getRejected().stream()
+                     .map(row -> row.getRow() + ":" + row.getStatus())
+                     .collect(Collectors.toList()),
+               contains("1:" + BeerImportStatus.DUPLICATED, "3:" + BeerImportStatus.DUPLICATED));
+  }
+
+  @Test
+  void whenMoreBeersThanTheChunkSizeAreImportedThenTheyAreInsertedInChunks() {
+    List<BeerDto> beers = IntStream.range(0, BeerImportService.CHUNK_SIZE + 1)
+                                   .mapToObj(i -> BeerDtoBuilder.builder().name("Beer " + i)
+                                                                .build().toBeerDto())
+                                   .collect(Collectors.toList());
+
+    when(beerRepository.findNameKeysIn(any())).thenReturn(Collections.emptySet());
+
+    BeerImportReportDto report = beerImportService.importBeers(beers.iterator());
+
+    assertThat(report.getCreated(), is(equalTo((long) beers.size())));
+    ArgumentCaptor<List<Beer>> insertedBeers = ArgumentCaptor.forClass(List.class);
+    verify(beerRepository, times(2)).insertAll(insertedBeers.capture());
+    assertThat(insertedBeers.getAllValues().get(0), hasSize(BeerImportService.CHUNK_SIZE));
+    assertThat(insertedBeers.getAllValues().get(1), hasSize(1));
+  }
+
+  @Test
+  void whenAConcurrentImportRegistersANameThenTheChunkIsReclassified() {
+    BeerDto racedBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    BeerDto newBeerDto = BeerDtoBuilder.builder().name("Skol").build().toBeerDto();
+
+    when(beerRepository.findNameKeysIn(any()))
+        .thenReturn(Collections.emptySet())
+        .thenReturn(Collections.singleton(Beer.nameKeyOf(racedBeerDto.getName())));
+    doThrow(new DataIntegrityViolationException("uk_beer_name"))
+        .doNothing()
+        .when(beerRepository).insertAll(anyList());
+
+    BeerImportReportDto report =
+        beerImportService.importBeers(iteratorOf(racedBeerDto, newBeerDto));
+
+    assertThat(report.getCreated(), is(equalTo(1L)));
+    assertThat(report.getRejected(), hasSize(1));
+    assertThat(report.getRejected().get(0).getRow(), is(equalTo(1L)));
+    assertThat(report.getRejected().get(0).getStatus(),
+               is(equalTo(BeerImportStatus.DUPLICATED)));
+    verify(eventPublisher).publishEvent(any(BeerEvent.class));
+  }
+
+  @Test
+  void whenANameIsAReservedPathThenTheRowIsRejectedAsInvalid() {
+    BeerDto reservedBeerDto = BeerDtoBuilder.builder().name("Movements").build().toBeerDto();
+
+    BeerImportReportDto report = beerImportService.importBeers(iteratorOf(reservedBeerDto));
+
+    assertThat(report.getCreated(), is(equalTo(0L)));
+    assertThat(report.getRejected().get(0).getStatus(), is(equalTo(BeerImportStatus.INVALID)));
+    verify(beerRepository, never()).insertAll(anyList());
+  }
+
+  @Test
+  void whenTheChunkKeepsViolatingUniquenessThenItsRowsAreRejectedAsDuplicated() {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+
+    when(beerRepository.findNameKeysIn(any())).thenReturn(Collections.emptySet());
+    doThrow(new DataIntegrityViolationException("uk_beer_name"))
+        .when(beerRepository).insertAll(anyList());
+
+    BeerImportReportDto report = beerImportService.importBeers(iteratorOf(beerDto));
+
+    assertThat(report.getCreated(), is(equalTo(0L)));
+    assertThat(report.getRejected().get(0).getStatus(),
+               is(equalTo(BeerImportStatus.DUPLICATED)));
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  @Test
+  void whenTheChunkKeepsViolatingUniquenessThenOnlyTheConflictingRowsAreRejected() {
+    BeerDto conflictingBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    BeerDto newBeerDto = BeerDtoBuilder.builder().name("Skol").build().toBeerDto();
+
+    when(beerRepository.findNameKeysIn(any())).thenReturn(Collections.emptySet());
+    doAnswer(invocation -> {
+      List<Beer> beers = invocation.getArgument(0);
+      if (beers.stream().anyMatch(beer -> beer.getName().equals(conflictingBeerDto.getName()))) {
+        throw new DataIntegrityViolationException("uk_beer_name");
+      }
+      return null;
+    }).when(beerRepository).insertAll(anyList());
+
+    BeerImportReportDto report =
+        beerImportService.importBeers(iteratorOf(conflictingBeerDto, newBeerDto));
+
+    assertThat(report.getCreated(), is(equalTo(1L)));
+    assertThat(report.getRejected().stream()
+                     .map(row -> row.getRow() + ":" + row.getStatus())
+                     .collect(Collectors.toList()),
+               contains("1:" + BeerImportStatus.DUPLICATED));
+    verify(beerRepository).insertAll(argThat(
+        beers -> beers.size() == 1 && beers.get(0).getName().equals(newBeerDto.getName())));
+    verify(eventPublisher).publishEvent(any(BeerEvent.class));
+  }
+
+  @Test
+  void whenARowCannotBeReadThenTheImportStops() {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    Iterator<BeerDto> beers = new Iterator<BeerDto>() {
+      int row;
+
+      @Override
+      public boolean hasNext() {
+        return true;
+      }
+
+      @Override
+      public BeerDto next() {
+        if (row++ == 0) {
+          return beerDto;
+        }
+        throw new IllegalStateException("malformed");
+      }
+    };
+
+    when(beerRepository.findNameKeysIn(any())).thenReturn(Collections.emptySet());
+
+    BeerImportReportDto report = beerImportService.importBeers(beers);
+
+    assertThat(report.getCreated(), is(equalTo(1L)));
+    assertThat(report.getRejected().get(0).getRow(), is(equalTo(2L)));
+    assertThat(report.getRejected().get(0).getStatus(), is(equalTo(BeerImportStatus.INVALID)));
+    verify(beerRepository).insertAll(anyList());
+  }
+
+  Iterator<BeerDto> iteratorOf(BeerDto... beers) {
+    return Arrays.asList(beers).iterator();
+  }
+}
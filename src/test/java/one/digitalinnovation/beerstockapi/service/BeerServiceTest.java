@@ -1,34 +1,59 @@
 package one.digitalinnovation.beerstockapi.service;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import one.digitalinnovation.beerstockapi.builder.BeerDtoBuilder;
+import one.digitalinnovation.beerstockapi.cache.BeerCache;
 import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.BeerPageDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentRequestDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentResultDto;
 import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import one.digitalinnovation.beerstockapi.enums.StockAdjustmentStatus;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
 import one.digitalinnovation.beerstockapi.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstockapi.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstockapi.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstockapi.exception.StockAdjustmentRejectedException;
+import one.digitalinnovation.beerstockapi.exception.StockLedgerEnabledException;
+import one.digitalinnovation.beerstockapi.ledger.StockLedger;
 import one.digitalinnovation.beerstockapi.mapper.BeerMapper;
 import one.digitalinnovation.beerstockapi.repository.BeerRepository;
+import one.digitalinnovation.beerstockapi.repository.StockMovementRepository;
+import one.digitalinnovation.beerstockapi.search.BeerSearchIndex;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
 /**
  * Testes das regras de negócio de {@link Beer}.
@@ -43,6 +68,24 @@ class BeerServiceTest {
   @Mock
   BeerRepository beerRepository;
 
+  @Mock
+  BeerCache beerCache;
+
+  @Mock
+  ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  ObjectProvider<StockLedger> stockLedgerProvider;
+
+  @Mock
+  StockLedger stockLedger;
+
+  @Mock
+  StockMovementRepository stockMovementRepository;
+
+  @Mock
+  BeerSearchIndex beerSearchIndex;
+
   final BeerMapper beerMapper = BeerMapper.INSTANCE;
 
   @InjectMocks
@@ -53,7 +96,8 @@ class BeerServiceTest {
     BeerDto expectedBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
     Beer expectedSavedBeer = beerMapper.toModel(expectedBeerDto);
 
-    when(beerRepository.findByName(expectedBeerDto.getName())).thenReturn(Optional.empty());
+    when(beerRepository.findByNameKey(Beer.nameKeyOf(expectedBeerDto.getName())))
+        .thenReturn(Optional.empty());
     when(beerRepository.save(expectedSavedBeer)).thenReturn(expectedSavedBeer);
 
     BeerDto createdBeerDto = beerService.createBeer(expectedBeerDto);
@@ -61,6 +105,7 @@ class BeerServiceTest {
     assertThat(createdBeerDto.getId(), is(equalTo(expectedBeerDto.getId())));
     assertThat(createdBeerDto.getName(), is(equalTo(expectedBeerDto.getName())));
     assertThat(createdBeerDto.getQuantity(), is(equalTo(expectedBeerDto.getQuantity())));
+    verify(eventPublisher).publishEvent(new BeerEvent(BeerEventType.CREATED, createdBeerDto));
   }
 
   @Test
@@ -68,8 +113,8 @@ class BeerServiceTest {
     BeerDto expectedBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
     Beer duplicatedBeer = beerMapper.toModel(expectedBeerDto);
 
-    when(beerRepository.findByName(expectedBeerDto.getName())).thenReturn(
-        Optional.of(duplicatedBeer));
+    when(beerRepository.findByNameKey(Beer.nameKeyOf(expectedBeerDto.getName())))
+        .thenReturn(Optional.of(duplicatedBeer));
 
     assertThrows(BeerAlreadyRegisteredException.class,
                  () -> beerService.createBeer(expectedBeerDto));
@@ -80,19 +125,49 @@ class BeerServiceTest {
     BeerDto expectedFoundBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
     Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDto);
 
-    when(beerRepository.findByName(expectedFoundBeer.getName())).thenReturn(
-        Optional.of(expectedFoundBeer));
+    when(beerRepository.findByNameKey(Beer.nameKeyOf(expectedFoundBeer.getName())))
+        .thenReturn(Optional.of(expectedFoundBeer));
+
+    BeerDto foundBeerDto = beerService.findByName(expectedFoundBeerDto.getName());
+
+    assertThat(foundBeerDto, is(equalTo(expectedFoundBeerDto)));
+    verify(beerCache).put(foundBeerDto);
+  }
+
+  @Test
+  void whenCachedBeerNameIsGivenThenReturnItWithoutQueryingTheRepository()
+      throws BeerNotFoundException {
+    BeerDto expectedFoundBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
+
+    when(beerCache.get(expectedFoundBeerDto.getName())).thenReturn(
+        Optional.of(expectedFoundBeerDto));
 
     BeerDto foundBeerDto = beerService.findByName(expectedFoundBeerDto.getName());
 
     assertThat(foundBeerDto, is(equalTo(expectedFoundBeerDto)));
+    verify(beerRepository, never()).findByNameKey(
+        Beer.nameKeyOf(expectedFoundBeerDto.getName()));
+  }
+
+  @Test
+  void whenBeerNameDiffersOnlyInCaseThenReturnTheBeer() throws BeerNotFoundException {
+    BeerDto expectedFoundBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDto);
+
+    when(beerRepository.findByNameKey("brahma")).thenReturn(Optional.of(expectedFoundBeer));
+
+    BeerDto foundBeerDto = beerService.findByName("BRAHMA");
+
+    assertThat(foundBeerDto, is(equalTo(expectedFoundBeerDto)));
+    verify(beerCache).put(foundBeerDto);
   }
 
   @Test
   void whenNotRegisteredBeerNameIsGivenThenThrowAnException() {
     BeerDto expectedFoundBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
 
-    when(beerRepository.findByName(expectedFoundBeerDto.getName())).thenReturn(Optional.empty());
+    when(beerRepository.findByNameKey(Beer.nameKeyOf(expectedFoundBeerDto.getName())))
+        .thenReturn(Optional.empty());
 
     assertThrows(BeerNotFoundException.class,
                  () -> beerService.findByName(expectedFoundBeerDto.getName()));
@@ -120,6 +195,33 @@ class BeerServiceTest {
     assertThat(foundListBeersDto, is(empty()));
   }
 
+  @Test
+  void whenListPageIsCalledWithMoreBeersThanLimitThenReturnNextCursor() {
+    BeerDto firstBeerDto = BeerDtoBuilder.builder().id(1L).build().toBeerDto();
+    BeerDto secondBeerDto = BeerDtoBuilder.builder().id(2L).name("Skol").build().toBeerDto();
+
+    when(beerRepository.findPageAfter(0L, null, null, PageRequest.of(0, 2)))
+        .thenReturn(Arrays.asList(firstBeerDto, secondBeerDto));
+
+    BeerPageDto beerPageDto = beerService.listPage(null, 1, null, null);
+
+    assertThat(beerPageDto.getContent(), contains(firstBeerDto));
+    assertThat(beerPageDto.getNext(), is(equalTo(firstBeerDto.getId())));
+  }
+
+  @Test
+  void whenListPageIsCalledOnLastPageThenReturnNoCursor() {
+    BeerDto beerDto = BeerDtoBuilder.builder().id(2L).build().toBeerDto();
+
+    when(beerRepository.findPageAfter(1L, BeerType.LAGER, "Ambev", PageRequest.of(0, 11)))
+        .thenReturn(Collections.singletonList(beerDto));
+
+    BeerPageDto beerPageDto = beerService.listPage(1L, 10, BeerType.LAGER, "Ambev");
+
+    assertThat(beerPageDto.getContent(), contains(beerDto));
+    assertThat(beerPageDto.getNext(), is(nullValue()));
+  }
+
   @Test
   void whenExclusionIsCalledWithValidIdThenABeerShouldBeDeleted() throws BeerNotFoundException {
     BeerDto expectedDeletedBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
@@ -133,35 +235,69 @@ class BeerServiceTest {
 
     verify(beerRepository, times(1)).findById(expectedDeletedBeerDto.getId());
     verify(beerRepository, times(1)).deleteById(expectedDeletedBeerDto.getId());
+    verify(eventPublisher).publishEvent(
+        new BeerEvent(BeerEventType.DELETED, expectedDeletedBeerDto));
+  }
+
+  @Test
+  void whenSearchIsCalledThenFoundBeersAreReturnedInTheIndexOrder() {
+    Beer brahma = beerMapper.toModel(BeerDtoBuilder.builder().id(1L).build().toBeerDto());
+    Beer bohemia = beerMapper.toModel(
+        BeerDtoBuilder.builder().id(2L).name("Bohemia").build().toBeerDto());
+
+    when(beerSearchIndex.search("b", BeerService.MAX_SEARCH_RESULTS))
+        .thenReturn(Arrays.asList(2L, 3L, 1L));
+    when(beerRepository.findAllById(Arrays.asList(2L, 3L, 1L)))
+        .thenReturn(Arrays.asList(brahma, bohemia));
+
+    List<BeerDto> foundBeers = beerService.search("b", 1_000);
+
+    assertThat(foundBeers.stream().map(BeerDto::getId).collect(Collectors.toList()),
+               contains(2L, 1L));
+  }
+
+  @Test
+  void whenSearchFindsNothingThenTheRepositoryIsNotQueried() {
+    when(beerSearchIndex.search("x", 10)).thenReturn(Collections.emptyList());
+
+    assertThat(beerService.search("x", 10), is(empty()));
+    verify(beerRepository, never()).findAllById(any());
   }
 
   @Test
   void whenIncrementIsCalledThenIncrementBeerStock()
       throws BeerNotFoundException, BeerStockExceededException {
     BeerDto expectedBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    int quantityToIncrement = 10;
+    int expectedQuantityAfterIncrement = expectedBeerDto.getQuantity() + quantityToIncrement;
     Beer expectedBeer = beerMapper.toModel(expectedBeerDto);
+    expectedBeer.setQuantity(expectedQuantityAfterIncrement);
 
+    when(beerRepository.incrementQuantity(expectedBeerDto.getId(), quantityToIncrement))
+        .thenReturn(1);
     when(beerRepository.findById(expectedBeerDto.getId())).thenReturn(Optional.of(expectedBeer));
-    when(beerRepository.save(expectedBeer)).thenReturn(expectedBeer);
-
-    int quantityToIncrement = 10;
-    int expectedQuantityAfterIncrement = expectedBeerDto.getQuantity() + quantityToIncrement;
 
     BeerDto incrementedBeerDto =
         beerService.increment(expectedBeerDto.getId(), quantityToIncrement);
 
     assertThat(expectedQuantityAfterIncrement, equalTo(incrementedBeerDto.getQuantity()));
     assertThat(expectedQuantityAfterIncrement, lessThan(expectedBeerDto.getMax()));
+    verify(beerRepository, never()).save(any(Beer.class));
+    verify(eventPublisher).publishEvent(
+        new BeerEvent(BeerEventType.STOCK_CHANGED, incrementedBeerDto));
+    verify(stockMovementRepository).appendAll(Collections.singletonList(
+        new StockAdjustmentDto(expectedBeerDto.getId(), quantityToIncrement)));
   }
 
   @Test
   void whenIncrementIsGreatherThanMaxThenThrowException() {
     BeerDto expectedBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
-    Beer expectedBeer = beerMapper.toModel(expectedBeerDto);
-
-    when(beerRepository.findById(expectedBeerDto.getId())).thenReturn(Optional.of(expectedBeer));
 
     int quantityToIncrement = 80;
+    when(beerRepository.incrementQuantity(expectedBeerDto.getId(), quantityToIncrement))
+        .thenReturn(0);
+    when(beerRepository.existsById(expectedBeerDto.getId())).thenReturn(true);
+
     assertThrows(BeerStockExceededException.class,
                  () -> beerService.increment(expectedBeerDto.getId(), quantityToIncrement));
   }
@@ -169,11 +305,12 @@ class BeerServiceTest {
   @Test
   void whenIncrementAfterSumIsGreatherThanMaxThenThrowException() {
     BeerDto expectedBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
-    Beer expectedBeer = beerMapper.toModel(expectedBeerDto);
-
-    when(beerRepository.findById(expectedBeerDto.getId())).thenReturn(Optional.of(expectedBeer));
 
     int quantityToIncrement = 45;
+    when(beerRepository.incrementQuantity(expectedBeerDto.getId(), quantityToIncrement))
+        .thenReturn(0);
+    when(beerRepository.existsById(expectedBeerDto.getId())).thenReturn(true);
+
     assertThrows(BeerStockExceededException.class,
                  () -> beerService.increment(expectedBeerDto.getId(), quantityToIncrement));
   }
@@ -182,7 +319,8 @@ class BeerServiceTest {
   void whenIncrementIsCalledWithInvalidIdThenThrowException() {
     int quantityToIncrement = 10;
 
-    when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Optional.empty());
+    when(beerRepository.incrementQuantity(INVALID_BEER_ID, quantityToIncrement)).thenReturn(0);
+    when(beerRepository.existsById(INVALID_BEER_ID)).thenReturn(false);
 
     assertThrows(BeerNotFoundException.class,
                  () -> beerService.increment(INVALID_BEER_ID, quantityToIncrement));
@@ -192,31 +330,79 @@ class BeerServiceTest {
   void whenDecrementIsCalledThenDecrementBeerStock()
       throws BeerNotFoundException, BeerStockExceededException {
     BeerDto expectedBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    int quantityToDecrement = 5;
+    int expectedQuantityAfterDecrement = expectedBeerDto.getQuantity() - quantityToDecrement;
     Beer expectedBeer = beerMapper.toModel(expectedBeerDto);
+    expectedBeer.setQuantity(expectedQuantityAfterDecrement);
 
+    when(beerRepository.decrementQuantity(eq(expectedBeerDto.getId()), eq(quantityToDecrement),
+                                          anyLong()))
+        .thenReturn(1);
     when(beerRepository.findById(expectedBeerDto.getId())).thenReturn(Optional.of(expectedBeer));
-    when(beerRepository.save(expectedBeer)).thenReturn(expectedBeer);
 
-    int quantityToDecrement = 5;
-    int expectedQuantityAfterDecrement = expectedBeerDto.getQuantity() - quantityToDecrement;
     BeerDto incrementedBeerDto =
         beerService.decrement(expectedBeerDto.getId(), quantityToDecrement);
 
     assertThat(expectedQuantityAfterDecrement, equalTo(incrementedBeerDto.getQuantity()));
     assertThat(expectedQuantityAfterDecrement, greaterThan(0));
+    verify(beerRepository).findAndLockById(expectedBeerDto.getId());
+    verify(beerRepository, never()).save(any(Beer.class));
   }
 
   @Test
-  void whenDecrementIsCalledToEmptyStockThenEmptyBeerStock()
-      throws BeerNotFoundException, BeerStockExceededException {
+  void whenUpdateLowStockIsCalledThenThresholdIsSavedAndPublished() throws BeerNotFoundException {
     BeerDto expectedBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
     Beer expectedBeer = beerMapper.toModel(expectedBeerDto);
+    expectedBeerDto.setLowStock(20);
 
     when(beerRepository.findById(expectedBeerDto.getId())).thenReturn(Optional.of(expectedBeer));
-    when(beerRepository.save(expectedBeer)).thenReturn(expectedBeer);
+    when(beerRepository.saveAndFlush(expectedBeer)).thenReturn(expectedBeer);
+
+    BeerDto updatedBeerDto = beerService.updateLowStock(expectedBeerDto.getId(), 20);
+
+    assertThat(updatedBeerDto, is(equalTo(expectedBeerDto)));
+    verify(eventPublisher).publishEvent(new BeerEvent(BeerEventType.UPDATED, expectedBeerDto));
+  }
+
+  @Test
+  void whenUpdateLowStockIsCalledWithInvalidIdThenExceptionShouldBeThrown() {
+    when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Optional.empty());
+
+    assertThrows(BeerNotFoundException.class,
+                 () -> beerService.updateLowStock(INVALID_BEER_ID, 20));
+  }
+
+  @Test
+  void whenLedgerIsEnabledThenStockChangesGoThroughIt()
+      throws BeerNotFoundException, BeerStockExceededException {
+    BeerDto expectedBeerDto = BeerDtoBuilder.builder().quantity(5).build().toBeerDto();
 
+    when(stockLedgerProvider.getIfAvailable()).thenReturn(stockLedger);
+    when(stockLedger.apply(expectedBeerDto.getId(), -5)).thenReturn(expectedBeerDto);
+
+    BeerDto decrementedBeerDto = beerService.decrement(expectedBeerDto.getId(), 5);
+
+    assertThat(decrementedBeerDto, is(equalTo(expectedBeerDto)));
+    verify(beerRepository, never()).decrementQuantity(eq(expectedBeerDto.getId()), eq(5),
+                                                      anyLong());
+    verify(eventPublisher).publishEvent(
+        new BeerEvent(BeerEventType.STOCK_CHANGED, expectedBeerDto));
+  }
+
+  @Test
+  void whenDecrementIsCalledToEmptyStockThenEmptyBeerStock()
+      throws BeerNotFoundException, BeerStockExceededException {
+    BeerDto expectedBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
     int quantityToDecrement = 10;
     int expectedQuantityAfterDecrement = expectedBeerDto.getQuantity() - quantityToDecrement;
+    Beer expectedBeer = beerMapper.toModel(expectedBeerDto);
+    expectedBeer.setQuantity(expectedQuantityAfterDecrement);
+
+    when(beerRepository.decrementQuantity(eq(expectedBeerDto.getId()), eq(quantityToDecrement),
+                                          anyLong()))
+        .thenReturn(1);
+    when(beerRepository.findById(expectedBeerDto.getId())).thenReturn(Optional.of(expectedBeer));
+
     BeerDto incrementedBeerDto =
         beerService.decrement(expectedBeerDto.getId(), quantityToDecrement);
 
@@ -227,11 +413,13 @@ class BeerServiceTest {
   @Test
   void whenDecrementIsLowerThanZeroThenThrowException() {
     BeerDto expectedBeerDto = BeerDtoBuilder.builder().build().toBeerDto();
-    Beer expectedBeer = beerMapper.toModel(expectedBeerDto);
-
-    when(beerRepository.findById(expectedBeerDto.getId())).thenReturn(Optional.of(expectedBeer));
 
     int quantityToDecrement = 80;
+    when(beerRepository.decrementQuantity(eq(expectedBeerDto.getId()), eq(quantityToDecrement),
+                                          anyLong()))
+        .thenReturn(0);
+    when(beerRepository.existsById(expectedBeerDto.getId())).thenReturn(true);
+
     assertThrows(BeerStockExceededException.class,
                  () -> beerService.decrement(expectedBeerDto.getId(), quantityToDecrement));
   }
@@ -240,9 +428,76 @@ class BeerServiceTest {
   void whenDecrementIsCalledWithInvalidIdThenThrowException() {
     int quantityToDecrement = 10;
 
-    when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Optional.empty());
+    when(beerRepository.decrementQuantity(eq(INVALID_BEER_ID), eq(quantityToDecrement),
+                                          anyLong()))
+        .thenReturn(0);
+    when(beerRepository.existsById(INVALID_BEER_ID)).thenReturn(false);
 
     assertThrows(BeerNotFoundException.class,
                  () -> beerService.decrement(INVALID_BEER_ID, quantityToDecrement));
   }
+
+  @Test
+  void whenStockIsAdjustedInBatchThenEachAdjustmentHasItsOwnResult()
+      throws StockAdjustmentRejectedException, StockLedgerEnabledException {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    StockAdjustmentDto exceedingAdjustment = new StockAdjustmentDto(beerDto.getId(), 80);
+    StockAdjustmentDto invalidAdjustment = new StockAdjustmentDto(INVALID_BEER_ID + 1, 5);
+    StockAdjustmentDto validAdjustment = new StockAdjustmentDto(beerDto.getId(), -5);
+    StockAdjustmentRequestDto request = new StockAdjustmentRequestDto(
+        Arrays.asList(invalidAdjustment, exceedingAdjustment, validAdjustment), false);
+    Beer adjustedBeer = beerMapper.toModel(beerDto);
+    adjustedBeer.setQuantity(5);
+
+    when(beerRepository.adjustQuantities(
+        Arrays.asList(exceedingAdjustment, validAdjustment, invalidAdjustment)))
+        .thenReturn(new int[] {0, 1, 0});
+    when(beerRepository.findAllById(any())).thenReturn(Collections.singletonList(adjustedBeer));
+
+    List<StockAdjustmentResultDto> results = beerService.adjustStock(request);
+
+    assertThat(results, contains(
+        new StockAdjustmentResultDto(invalidAdjustment.getId(), 5,
+                                     StockAdjustmentStatus.NOT_FOUND, null),
+        new StockAdjustmentResultDto(beerDto.getId(), 80,
+                                     StockAdjustmentStatus.STOCK_EXCEEDED, 5),
+        new StockAdjustmentResultDto(beerDto.getId(), -5, StockAdjustmentStatus.APPLIED, 5)));
+    verify(eventPublisher).publishEvent(any(BeerEvent.class));
+    verify(stockMovementRepository).appendAll(Collections.singletonList(validAdjustment));
+  }
+
+  @Test
+  void whenStockLedgerIsEnabledThenBatchStockAdjustmentIsRefused() {
+    StockAdjustmentRequestDto request = new StockAdjustmentRequestDto(
+        Collections.singletonList(new StockAdjustmentDto(INVALID_BEER_ID + 1, 5)), false);
+
+    when(stockLedgerProvider.getIfAvailable()).thenReturn(stockLedger);
+
+    assertThrows(StockLedgerEnabledException.class, () -> beerService.adjustStock(request));
+    verify(beerRepository, never()).adjustQuantities(any());
+  }
+
+  @Test
+  void whenAtomicStockAdjustmentFailsThenAnExceptionShouldBeThrown() {
+    BeerDto beerDto = BeerDtoBuilder.builder().build().toBeerDto();
+    StockAdjustmentDto validAdjustment = new StockAdjustmentDto(beerDto.getId(), 5);
+    StockAdjustmentDto invalidAdjustment = new StockAdjustmentDto(INVALID_BEER_ID + 1, 5);
+    StockAdjustmentRequestDto request = new StockAdjustmentRequestDto(
+        Arrays.asList(validAdjustment, invalidAdjustment), true);
+
+    when(beerRepository.adjustQuantities(request.getAdjustments()))
+        .thenReturn(new int[] {1, 0});
+    when(beerRepository.findAllById(any()))
+        .thenReturn(Collections.singletonList(beerMapper.toModel(beerDto)));
+
+    StockAdjustmentRejectedException exception =
+        assertThrows(StockAdjustmentRejectedException.class,
+                     () -> beerService.adjustStock(request));
+
+    assertThat(exception.getResults().get(0).getStatus(),
+               is(equalTo(StockAdjustmentStatus.ROLLED_BACK)));
+    assertThat(exception.getResults().get(1).getStatus(),
+               is(equalTo(StockAdjustmentStatus.NOT_FOUND)));
+    verify(eventPublisher, never()).publishEvent(any(BeerEvent.class));
+  }
 }
@@ -0,0 +1,87 @@
+package one.digitalinnovation.beerstockapi.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Arrays;
+import one.digitalinnovation.beerstockapi.dto.StockMovementTotalDto;
+import one.digitalinnovation.beerstockapi.entity.StockMovement;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import one.digitalinnovation.beerstockapi.enums.StockMovementInterval;
+import one.digitalinnovation.beerstockapi.exception.InvalidTimeRangeException;
+import one.digitalinnovation.beerstockapi.repository.StockMovementRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Testes dos totais de {@link StockMovement} por intervalo.
+ *
+ * @author Marcelo dos Santos
+ */
+@ExtendWith(MockitoExtension.class)
+class StockMovementServiceTest {
+
+  static final long VALID_BEER_ID = 1L;
+
+  @Mock
+  StockMovementRepository stockMovementRepository;
+
+  @InjectMocks
+  StockMovementService stockMovementService;
+
+  @Test
+  void whenRangeIsNotAlignedThenItIsExtendedToWholeHours() throws InvalidTimeRangeException {
+    Instant from = Instant.parse("2021-08-01T10:15:00Z");
+    Instant to = Instant.parse("2021-08-01T12:30:00Z");
+    StockMovementTotalDto total = total("2021-08-01T10:00:00Z", 5, 1, 2);
+
+    when(stockMovementRepository.hourlyTotals(
+        VALID_BEER_ID, null, Instant.parse("2021-08-01T10:00:00Z").toEpochMilli(),
+        Instant.parse("2021-08-01T13:00:00Z").toEpochMilli()))
+        .thenReturn(Arrays.asList(total));
+
+    assertThat(stockMovementService.totalsOfBeer(VALID_BEER_ID, from, to,
+                                                 StockMovementInterval.HOUR),
+               contains(total));
+  }
+
+  @Test
+  void whenIntervalIsDayThenHourlyTotalsAreSummedPerDay() throws InvalidTimeRangeException {
+    Instant from = Instant.parse("2021-08-01T00:00:00Z");
+    Instant to = Instant.parse("2021-08-03T00:00:00Z");
+
+    when(stockMovementRepository.hourlyTotals(null, BeerType.LAGER, from.toEpochMilli(),
+                                              to.toEpochMilli()))
+        .thenReturn(Arrays.asList(total("2021-08-01T09:00:00Z", 10, 0, 1),
+                                  total("2021-08-01T18:00:00Z", 0, 4, 2),
+                                  total("2021-08-02T07:00:00Z", 3, 1, 2)));
+
+    assertThat(stockMovementService.totalsOfType(BeerType.LAGER, from, to,
+                                                 StockMovementInterval.DAY),
+               contains(total("2021-08-01T00:00:00Z", 10, 4, 3),
+                        total("2021-08-02T00:00:00Z", 3, 1, 2)));
+  }
+
+  @Test
+  void whenFromIsNotBeforeToThenAnExceptionShouldBeThrown() {
+    Instant instant = Instant.parse("2021-08-01T00:00:00Z");
+
+    assertThrows(InvalidTimeRangeException.class,
+                 () -> stockMovementService.totalsOfType(null, instant, instant,
+                                                         StockMovementInterval.HOUR));
+    verifyNoInteractions(stockMovementRepository);
+  }
+
+  private static StockMovementTotalDto total(String start, long added, long removed,
+                                             long movements) {
+    return new StockMovementTotalDto(Instant.parse(start), added, removed, added - removed,
+                                     movements);
+  }
+}
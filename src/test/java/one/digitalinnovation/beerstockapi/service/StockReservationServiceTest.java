@@ -0,0 +1,155 @@
+package one.digitalinnovation.beerstockapi.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import one.digitalinnovation.beerstockapi.builder.BeerDtoBuilder;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.ReservationDto;
+import one.digitalinnovation.beerstockapi.dto.ReservationRequestDto;
+import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.entity.StockReservation;
+import one.digitalinnovation.beerstockapi.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstockapi.exception.ReservationNotFoundException;
+import one.digitalinnovation.beerstockapi.exception.StockLedgerEnabledException;
+import one.digitalinnovation.beerstockapi.ledger.StockLedger;
+import one.digitalinnovation.beerstockapi.mapper.BeerMapper;
+import one.digitalinnovation.beerstockapi.repository.BeerRepository;
+import one.digitalinnovation.beerstockapi.repository.StockReservationRepository;
+import one.digitalinnovation.beerstockapi.reservation.StockReservationExpiry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Testes das reservas de estoque, {@link StockReservation}.
+ *
+ * @author Marcelo dos Santos
+ */
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+
+  static final long RESERVATION_ID = 7L;
+
+  @Mock
+  BeerRepository beerRepository;
+
+  @Mock
+  StockReservationRepository stockReservationRepository;
+
+  @Mock
+  ObjectProvider<StockLedger> stockLedgerProvider;
+
+  @Mock
+  BeerService beerService;
+
+  @Mock
+  StockReservationExpiry stockReservationExpiry;
+
+  BeerStockProperties properties = new BeerStockProperties();
+
+  StockReservationService stockReservationService;
+
+  BeerDto beerDto = BeerDtoBuilder.builder().quantity(10).build().toBeerDto();
+
+  @BeforeEach
+  void setUp() {
+    stockReservationService = new StockReservationService(
+        beerRepository, stockReservationRepository, stockLedgerProvider, beerService,
+        stockReservationExpiry, properties);
+  }
+
+  @Test
+  void whenStockIsAvailableThenItIsReservedWithAnExpiry() throws Exception {
+    Beer beer = BeerMapper.INSTANCE.toModel(beerDto);
+    when(beerRepository.findAndLockById(beerDto.getId())).thenReturn(Optional.of(beer));
+    when(stockReservationRepository.sumActiveQuantity(eq(beerDto.getId()), anyLong()))
+        .thenReturn(4L);
+    when(stockReservationRepository.save(any(StockReservation.class)))
+        .thenAnswer(invocation -> {
+          StockReservation reservation = invocation.getArgument(0);
+          reservation.setId(RESERVATION_ID);
+          return reservation;
+        });
+
+    Instant before = Instant.now();
+    ReservationDto reservation =
+        stockReservationService.reserve(beerDto.getId(), new ReservationRequestDto(6, 7200L));
+
+    assertThat(reservation.getQuantity(), is(equalTo(6)));
+    assertThat(Duration.between(before, reservation.getExpiresAt()),
+               is(lessThanOrEqualTo(properties.getReservations().getMaxTtl().plusSeconds(1))));
+    verify(stockReservationExpiry).schedule(RESERVATION_ID,
+                                            reservation.getExpiresAt().toEpochMilli());
+  }
+
+  @Test
+  void whenStockIsAlreadyReservedThenAnExceptionShouldBeThrown() {
+    Beer beer = BeerMapper.INSTANCE.toModel(beerDto);
+    when(beerRepository.findAndLockById(beerDto.getId())).thenReturn(Optional.of(beer));
+    when(stockReservationRepository.sumActiveQuantity(eq(beerDto.getId()), anyLong()))
+        .thenReturn(5L);
+
+    assertThrows(BeerStockExceededException.class,
+                 () -> stockReservationService.reserve(beerDto.getId(),
+                                                       new ReservationRequestDto(6, null)));
+    verify(stockReservationRepository, never()).save(any());
+    verifyNoInteractions(stockReservationExpiry);
+  }
+
+  @Test
+  void whenLedgerIsEnabledThenReservationsAreRejected() {
+    when(stockLedgerProvider.getIfAvailable()).thenReturn(mock(StockLedger.class));
+
+    assertThrows(StockLedgerEnabledException.class,
+                 () -> stockReservationService.reserve(beerDto.getId(),
+                                                       new ReservationRequestDto(1, null)));
+    verifyNoInteractions(beerRepository, stockReservationRepository, stockReservationExpiry);
+  }
+
+  @Test
+  void whenReservationIsCommittedThenTheBeerIsDecrementedOnce() throws Exception {
+    StockReservation reservation = reservation(System.currentTimeMillis() + 60_000);
+    when(stockReservationRepository.findById(RESERVATION_ID))
+        .thenReturn(Optional.of(reservation));
+    when(beerService.decrement(beerDto.getId(), 6)).thenReturn(beerDto);
+
+    assertThat(stockReservationService.commit(RESERVATION_ID), is(equalTo(beerDto)));
+    verify(stockReservationRepository).delete(reservation);
+  }
+
+  @Test
+  void whenReservationHasExpiredThenItCannotBeCommittedOrReleased() throws Exception {
+    when(stockReservationRepository.findById(RESERVATION_ID))
+        .thenReturn(Optional.of(reservation(System.currentTimeMillis() - 1)));
+
+    assertThrows(ReservationNotFoundException.class,
+                 () -> stockReservationService.commit(RESERVATION_ID));
+    assertThrows(ReservationNotFoundException.class,
+                 () -> stockReservationService.release(RESERVATION_ID));
+    verify(stockReservationRepository, never()).delete(any());
+    verify(beerService, never()).decrement(anyLong(), eq(6));
+  }
+
+  private StockReservation reservation(long expiresAt) {
+    return new StockReservation(RESERVATION_ID, beerDto.getId(), 6, expiresAt);
+  }
+}
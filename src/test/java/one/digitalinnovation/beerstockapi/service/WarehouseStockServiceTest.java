@@ -0,0 +1,136 @@
+package one.digitalinnovation.beerstockapi.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import one.digitalinnovation.beerstockapi.builder.BeerDtoBuilder;
+import one.digitalinnovation.beerstockapi.dto.BeerStockDto;
+import one.digitalinnovation.beerstockapi.dto.StockAdjustmentDto;
+import one.digitalinnovation.beerstockapi.dto.WarehouseStockDto;
+import one.digitalinnovation.beerstockapi.entity.Beer;
+import one.digitalinnovation.beerstockapi.entity.WarehouseStock;
+import one.digitalinnovation.beerstockapi.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstockapi.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstockapi.exception.WarehouseStockNotFoundException;
+import one.digitalinnovation.beerstockapi.ledger.StockLedger;
+import one.digitalinnovation.beerstockapi.mapper.BeerMapper;
+import one.digitalinnovation.beerstockapi.repository.BeerRepository;
+import one.digitalinnovation.beerstockapi.repository.StockMovementRepository;
+import one.digitalinnovation.beerstockapi.repository.WarehouseStockRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Testes do estoque por local, {@link WarehouseStock}.
+ *
+ * @author Marcelo dos Santos
+ */
+@ExtendWith(MockitoExtension.class)
+class WarehouseStockServiceTest {
+
+  static final long VALID_BEER_ID = 1L;
+  static final long INVALID_BEER_ID = 2L;
+
+  @Mock
+  BeerRepository beerRepository;
+
+  @Mock
+  WarehouseStockRepository warehouseStockRepository;
+
+  @Mock
+  ObjectProvider<StockLedger> stockLedgerProvider;
+
+  @Mock
+  StockMovementRepository stockMovementRepository;
+
+  @InjectMocks
+  WarehouseStockService warehouseStockService;
+
+  @Test
+  void whenStockIsReadThenTheBeerAndEachLocationAreSummed() throws BeerNotFoundException {
+    Beer beer = BeerMapper.INSTANCE.toModel(BeerDtoBuilder.builder().build().toBeerDto());
+    StockLedger stockLedger = mock(StockLedger.class);
+    when(beerRepository.findById(VALID_BEER_ID)).thenReturn(Optional.of(beer));
+    when(stockLedgerProvider.getIfAvailable()).thenReturn(stockLedger);
+    when(stockLedger.quantityOf(VALID_BEER_ID)).thenReturn(OptionalInt.of(7));
+    when(warehouseStockRepository.findByBeerIdOrderByLocation(VALID_BEER_ID))
+        .thenReturn(List.of(new WarehouseStock(1L, VALID_BEER_ID, "rj", 20, 5),
+                            new WarehouseStock(2L, VALID_BEER_ID, "sp", 100, 90)));
+
+    BeerStockDto stock = warehouseStockService.stockOf(VALID_BEER_ID);
+
+    assertThat(stock.getQuantity(), is(equalTo(7L + 5 + 90)));
+    assertThat(stock.getMax(), is(equalTo(beer.getMax() + 20L + 100)));
+    assertThat(stock.getLocations().get(1), is(equalTo(new WarehouseStockDto("sp", 90, 100))));
+  }
+
+  @Test
+  void whenLocationIsIncrementedThenTheMovementIsRecordedForTheBeer() throws Exception {
+    when(warehouseStockRepository.incrementQuantity(VALID_BEER_ID, "sp", 10)).thenReturn(1);
+    when(warehouseStockRepository.findByBeerIdAndLocation(VALID_BEER_ID, "sp"))
+        .thenReturn(Optional.of(new WarehouseStock(1L, VALID_BEER_ID, "sp", 100, 40)));
+
+    WarehouseStockDto warehouseStock = warehouseStockService.increment(VALID_BEER_ID, "sp", 10);
+
+    assertThat(warehouseStock.getQuantity(), is(equalTo(40)));
+    verify(stockMovementRepository).appendAll(List.of(new StockAdjustmentDto(VALID_BEER_ID, 10)));
+  }
+
+  @Test
+  void whenLocationWouldGoBelowZeroThenAnExceptionShouldBeThrown() {
+    when(warehouseStockRepository.decrementQuantity(VALID_BEER_ID, "sp", 50)).thenReturn(0);
+    when(warehouseStockRepository.findByBeerIdAndLocation(VALID_BEER_ID, "sp"))
+        .thenReturn(Optional.of(new WarehouseStock(1L, VALID_BEER_ID, "sp", 100, 40)));
+
+    assertThrows(BeerStockExceededException.class,
+                 () -> warehouseStockService.decrement(VALID_BEER_ID, "sp", 50));
+    verify(stockMovementRepository, never()).appendAll(any());
+  }
+
+  @Test
+  void whenLocationOrBeerDoesNotExistThenNotFoundExceptionsShouldBeThrown() {
+    when(beerRepository.existsById(VALID_BEER_ID)).thenReturn(true);
+
+    assertThrows(WarehouseStockNotFoundException.class,
+                 () -> warehouseStockService.increment(VALID_BEER_ID, "bh", 1));
+    assertThrows(BeerNotFoundException.class,
+                 () -> warehouseStockService.increment(INVALID_BEER_ID, "bh", 1));
+  }
+
+  @Test
+  void whenLocationIsNewThenItIsCreatedEmptyWithTheGivenMax() throws Exception {
+    when(beerRepository.existsById(VALID_BEER_ID)).thenReturn(true);
+    when(warehouseStockRepository.saveAndFlush(
+        new WarehouseStock(null, VALID_BEER_ID, "sp", 100, 0)))
+        .thenReturn(new WarehouseStock(1L, VALID_BEER_ID, "sp", 100, 0));
+
+    assertThat(warehouseStockService.updateMax(VALID_BEER_ID, "sp", 100),
+               is(equalTo(new WarehouseStockDto("sp", 0, 100))));
+  }
+
+  @Test
+  void whenLocationIsCreatedConcurrentlyThenAConflictIsThrownToBeRetried() {
+    when(beerRepository.existsById(VALID_BEER_ID)).thenReturn(true);
+    when(warehouseStockRepository.saveAndFlush(any(WarehouseStock.class)))
+        .thenThrow(new DataIntegrityViolationException("uk_warehouse_stock_beer_id_location"));
+
+    assertThrows(ConcurrencyFailureException.class,
+                 () -> warehouseStockService.updateMax(VALID_BEER_ID, "sp", 100));
+  }
+}
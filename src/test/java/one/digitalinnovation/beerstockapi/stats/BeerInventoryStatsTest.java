@@ -0,0 +1,166 @@
+package one.digitalinnovation.beerstockapi.stats;
+
+import static one.digitalinnovation.beerstockapi.utils.BeerRowUtils.rowsOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.OptionalInt;
+import one.digitalinnovation.beerstockapi.builder.BeerDtoBuilder;
+import one.digitalinnovation.beerstockapi.config.BeerStockProperties;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import one.digitalinnovation.beerstockapi.dto.BeerGroupTotalsDto;
+import one.digitalinnovation.beerstockapi.dto.BeerStatsDto;
+import one.digitalinnovation.beerstockapi.dto.BeerStockTotalsDto;
+import one.digitalinnovation.beerstockapi.enums.BeerEventType;
+import one.digitalinnovation.beerstockapi.enums.BeerType;
+import one.digitalinnovation.beerstockapi.event.BeerEvent;
+import one.digitalinnovation.beerstockapi.ledger.StockLedger;
+import one.digitalinnovation.beerstockapi.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Testes dos totais de estoque em memória.
+ *
+ * @author Marcelo dos Santos
+ */
+@ExtendWith(MockitoExtension.class)
+class BeerInventoryStatsTest {
+
+  static final BeerDto BRAHMA = beer(1L, "Ambev", BeerType.LAGER, 10, 50);
+  static final BeerDto SKOL = beer(2L, "Ambev", BeerType.WITBIER, 20, 50);
+  static final BeerDto HEINEKEN = beer(3L, "Heineken", BeerType.LAGER, 30, 100);
+
+  @Mock
+  BeerRepository beerRepository;
+
+  @Mock
+  ObjectProvider<StockLedger> stockLedgerProvider;
+
+  MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  BeerInventoryStats beerInventoryStats;
+
+  @BeforeEach
+  void setUp() {
+    doAnswer(rowsOf(2, BRAHMA, SKOL, HEINEKEN))
+        .when(beerRepository).queryAll(isNull(), isNull(), any());
+    beerInventoryStats = new BeerInventoryStats(
+        beerRepository, stockLedgerProvider,
+        new TransactionTemplate(mock(PlatformTransactionManager.class)),
+        new BeerStockProperties(), meterRegistry);
+    beerInventoryStats.reload();
+  }
+
+  @Test
+  void whenStatsAreLoadedThenTotalsArePerTypeAndBrand() {
+    BeerStatsDto stats = beerInventoryStats.stats();
+
+    assertThat(stats.getTotal(), is(equalTo(new BeerStockTotalsDto(3, 60, 200, 0.3))));
+    assertThat(stats.getTypes().get(BeerType.LAGER),
+               is(equalTo(new BeerStockTotalsDto(2, 40, 150, 40.0 / 150))));
+    assertThat(stats.getBrands().get("Ambev"),
+               is(equalTo(new BeerStockTotalsDto(2, 30, 100, 0.3))));
+  }
+
+  @Test
+  void whenBeerEventsArriveThenTotalsAreUpdatedIncrementally() {
+    BeerDto soldBrahma = beer(1L, "Ambev", BeerType.LAGER, 4, 50);
+    BeerDto rebrandedSkol = beer(2L, "Ab InBev", BeerType.WITBIER, 20, 50);
+    beerInventoryStats.onBeerEvent(new BeerEvent(BeerEventType.STOCK_CHANGED, soldBrahma));
+    beerInventoryStats.onBeerEvent(new BeerEvent(BeerEventType.UPDATED, rebrandedSkol));
+    beerInventoryStats.onBeerEvent(new BeerEvent(BeerEventType.DELETED, HEINEKEN));
+    beerInventoryStats.onBeerEvent(
+        new BeerEvent(BeerEventType.CREATED, beer(4L, "Ambev", BeerType.STOUT, 5, 10)));
+
+    BeerStatsDto stats = beerInventoryStats.stats();
+
+    assertThat(stats.getTotal(), is(equalTo(new BeerStockTotalsDto(3, 29, 110, 29.0 / 110))));
+    assertThat(stats.getBrands().get("Ambev"),
+               is(equalTo(new BeerStockTotalsDto(2, 9, 60, 9.0 / 60))));
+    assertThat(stats.getBrands(), not(hasKey("Heineken")));
+    assertThat(stats.getTypes().get(BeerType.LAGER),
+               is(equalTo(new BeerStockTotalsDto(1, 4, 50, 0.08))));
+  }
+
+  @Test
+  void whenTotalsMatchTheDatabaseThenNothingIsReloaded() {
+    when(beerRepository.sumByTypeAndBrand()).thenReturn(persistedTotals(10));
+
+    assertThat(beerInventoryStats.reconcile(), is(false));
+    assertThat(meterRegistry.get(BeerInventoryStats.DRIFT_METRIC).counter().count(),
+               is(equalTo(0.0)));
+  }
+
+  @Test
+  void whenTotalsDifferFromTheDatabaseThenTheyAreReloaded() {
+    beerInventoryStats.onBeerEvent(
+        new BeerEvent(BeerEventType.DELETED, beer(1L, "Ambev", BeerType.LAGER, 10, 50)));
+    when(beerRepository.sumByTypeAndBrand()).thenReturn(persistedTotals(10));
+
+    assertThat(beerInventoryStats.reconcile(), is(true));
+    assertThat(beerInventoryStats.stats().getTotal().getCount(), is(equalTo(3L)));
+    assertThat(meterRegistry.get(BeerInventoryStats.DRIFT_METRIC).counter().count(),
+               is(equalTo(1.0)));
+  }
+
+  @Test
+  void whenAGroupChangesDuringTheComparisonThenItIsNotTakenAsDrift() {
+    when(beerRepository.sumByTypeAndBrand()).thenAnswer(invocation -> {
+      beerInventoryStats.onBeerEvent(
+          new BeerEvent(BeerEventType.STOCK_CHANGED, beer(1L, "Ambev", BeerType.LAGER, 4, 50)));
+      return persistedTotals(10);
+    });
+
+    assertThat(beerInventoryStats.reconcile(), is(false));
+    assertThat(beerInventoryStats.stats().getTypes().get(BeerType.LAGER).getQuantity(),
+               is(equalTo(34L)));
+  }
+
+  @Test
+  void whenLedgerIsEnabledThenPersistedQuantitiesAreNotCompared() {
+    StockLedger stockLedger = mock(StockLedger.class);
+    when(stockLedgerProvider.getIfAvailable()).thenReturn(stockLedger);
+    when(beerRepository.sumByTypeAndBrand()).thenReturn(persistedTotals(7));
+
+    assertThat(beerInventoryStats.reconcile(), is(false));
+
+    when(stockLedger.quantityOf(any())).thenReturn(OptionalInt.empty());
+    when(stockLedger.quantityOf(1L)).thenReturn(OptionalInt.of(7));
+    beerInventoryStats.reload();
+
+    assertThat(beerInventoryStats.stats().getTypes().get(BeerType.LAGER).getQuantity(),
+               is(equalTo(37L)));
+  }
+
+  /**
+   * @return os totais gravados, com {@code brahmaQuantity} no grupo da Brahma
+   */
+  private static List<BeerGroupTotalsDto> persistedTotals(int brahmaQuantity) {
+    return List.of(new BeerGroupTotalsDto(BeerType.LAGER, "Ambev", 1, brahmaQuantity, 50),
+                   new BeerGroupTotalsDto(BeerType.WITBIER, "Ambev", 1, 20, 50),
+                   new BeerGroupTotalsDto(BeerType.LAGER, "Heineken", 1, 30, 100));
+  }
+
+  private static BeerDto beer(Long id, String brand, BeerType type, int quantity, int max) {
+    return BeerDtoBuilder.builder().id(id).brand(brand).type(type).quantity(quantity).max(max)
+                         .build().toBeerDto();
+  }
+}
@@ -0,0 +1,48 @@
+package one.digitalinnovation.beerstockapi.utils;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstockapi.dto.BeerDto;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * Utilitário para simular as linhas JDBC de Beer lidas por um {@link RowCallbackHandler}.
+ *
+ * @author Marcelo dos Santos
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BeerRowUtils {
+
+  /**
+   * @return a resposta que entrega as Beers, como linhas, ao handler no argumento {@code index}
+   */
+  public static Answer<Void> rowsOf(int index, BeerDto... beers) {
+    return invocation -> {
+      RowCallbackHandler handler = invocation.getArgument(index);
+      for (BeerDto beer : beers) {
+        handler.processRow(asRow(beer));
+      }
+      return null;
+    };
+  }
+
+  public static ResultSet asRow(BeerDto beer) throws SQLException {
+    ResultSet resultSet = mock(ResultSet.class, withSettings().lenient());
+    when(resultSet.getLong(1)).thenReturn(beer.getId());
+    when(resultSet.getString(2)).thenReturn(beer.getName());
+    when(resultSet.getString(3)).thenReturn(beer.getBrand());
+    when(resultSet.getInt(4)).thenReturn(beer.getMax());
+    when(resultSet.getInt(5)).thenReturn(beer.getQuantity());
+    when(resultSet.getString(6)).thenReturn(beer.getType().name());
+    when(resultSet.getInt(7)).thenReturn(beer.getLowStock() == null ? 0 : beer.getLowStock());
+    when(resultSet.wasNull()).thenReturn(beer.getLowStock() == null);
+    return resultSet;
+  }
+}